@@ -0,0 +1,111 @@
+package com.bcadaval.esloveno.structures;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.Caso;
+import com.bcadaval.esloveno.beans.enums.Genero;
+import com.bcadaval.esloveno.beans.enums.Numero;
+import com.bcadaval.esloveno.beans.palabra.Numeral;
+import com.bcadaval.esloveno.beans.palabra.NumeralFlexion;
+import com.bcadaval.esloveno.beans.palabra.Sustantivo;
+import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
+import com.bcadaval.esloveno.structures.extractores.ExtraccionApoyoEstandar;
+import com.bcadaval.esloveno.structures.extractores.ExtraccionSlotEstandar;
+
+/**
+ * Coste de construir los datos de visualización de una frase planificada.
+ * <p>
+ * {@code renderizar} mide las construcciones repetidas de la misma frase (apoyos ya asignados,
+ * textos ya extraídos): con {@code -prof gc} debe dar ~0 B/op. {@code primerRenderizado} mide una
+ * frase nueva cada vez: asignar el slot, generar el apoyo y extraer los textos.
+ * <p>
+ * Ejecutar con {@code mvn -P jmh verify -DskipTests}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RenderizadoFraseBenchmark {
+
+    private EstructuraFrase estructura;
+    private SustantivoFlexion sustantivo;
+    private long claveSustantivo;
+    private FraseEnConstruccion frase;
+
+    @Setup
+    public void preparar() {
+        NumeralFlexion numeral = NumeralFlexion.builder()
+                .id(1).flexion("en").acentuado("èn")
+                .genero(Genero.MASCULINO).numero(Numero.SINGULAR).caso(Caso.NOMINATIVO)
+                .numeralBase(Numeral.builder().significado("uno").build())
+                .build();
+
+        ElementoFrase<SustantivoFlexion> slot = ElementoFrase.<SustantivoFlexion>builder()
+                .nombre("SUSTANTIVO")
+                .criterio(CriterioBusqueda.de(SustantivoFlexion.class)
+                        .con(CaracteristicaGramatical.CASO, Caso.NOMINATIVO)
+                        .build())
+                .extractor(ExtraccionSlotEstandar.get())
+                .extractorAEsloveno(p ->
+                        String.format("(%s) %s", p.getSustantivoBase().getGenero().getEmoji(), p.getAcentuado()))
+                .build();
+        ElementoFrase<NumeralFlexion> apoyo = ElementoFrase.<NumeralFlexion>builder()
+                .nombre("NUMERO")
+                .generador(slot, palabra -> numeral)
+                .extractor(ExtraccionApoyoEstandar.get())
+                .extractorDeEsloveno(p -> "nº")
+                .build();
+        estructura = new EstructuraFrase(List.of(apoyo, slot)) {
+            @Override
+            public String getIdentificador() {
+                return "BENCHMARK";
+            }
+
+            @Override
+            public String getNombreMostrar() {
+                return "Benchmark";
+            }
+        };
+
+        sustantivo = SustantivoFlexion.builder()
+                .id(2).flexion("pes").acentuado("pès")
+                .numero(Numero.SINGULAR).caso(Caso.NOMINATIVO)
+                .sustantivoBase(Sustantivo.builder().genero(Genero.MASCULINO).significado("perro").build())
+                .build();
+        claveSustantivo = ClaveGramatical.de(sustantivo);
+
+        frase = nueva();
+        frase.construirDatosVisualizacion();
+    }
+
+    @Benchmark
+    public List<DatoVisualizacion> renderizar() {
+        return frase.construirDatosVisualizacion();
+    }
+
+    @Benchmark
+    public List<DatoVisualizacion> primerRenderizado() {
+        return nueva().construirDatosVisualizacion();
+    }
+
+    private FraseEnConstruccion nueva() {
+        FraseEnConstruccion nueva = estructura.nuevaFrase();
+        nueva.intentarAsignar(sustantivo, claveSustantivo);
+        return nueva;
+    }
+}
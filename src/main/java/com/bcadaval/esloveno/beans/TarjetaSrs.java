@@ -0,0 +1,91 @@
+package com.bcadaval.esloveno.beans;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.config.InstantConverter;
+
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tarjeta del sistema de repetición espaciada: estado de programación de una flexión activa.
+ * <p>
+ * Todas las tarjetas, sean del tipo de palabra que sean, están en la misma tabla con un índice
+ * por {@code PROXIMA_REVISION}, de modo que las tarjetas vencidas salen de un único recorrido
+ * del índice. Las flexiones solo guardan sus datos gramaticales: una flexión sin tarjeta no
+ * está activa para el estudio.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@IdClass(TarjetaSrs.Clave.class)
+@Table(name = "TARJETA_SRS")
+public class TarjetaSrs {
+
+    /**
+     * Tipo de palabra, que indica la tabla *_FLEXION de la flexión
+     */
+    @Id
+    @Enumerated(EnumType.STRING)
+    private TipoPalabra tipo;
+
+    /**
+     * ID de la flexión dentro de su tabla
+     */
+    @Id
+    private Integer flexionId;
+
+    /**
+     * Factor de facilidad (SM-2), rango [mínimo configurado, 2.5]
+     */
+    private Double factorFacilidad;
+
+    /**
+     * Segundos hasta la próxima revisión
+     */
+    private Long intervaloRepeticionSegundos;
+
+    /**
+     * Veces seguidas que se ha recordado; vuelve a 0 al fallar
+     */
+    private Integer vecesConsecutivasCorrectas;
+
+    private Integer totalRevisiones;
+
+    private Integer totalAciertos;
+
+    /**
+     * Si falló en la última revisión y está en reaprendizaje
+     */
+    private Boolean enReaprendizaje;
+
+    @Convert(converter = InstantConverter.class)
+    private Instant ultimaRevision;
+
+    @Convert(converter = InstantConverter.class)
+    private Instant proximaRevision;
+
+    /**
+     * Clave compuesta (tipo, flexionId)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private TipoPalabra tipo;
+        private Integer flexionId;
+    }
+}
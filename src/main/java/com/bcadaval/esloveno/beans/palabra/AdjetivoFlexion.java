@@ -5,16 +5,14 @@ import java.time.Instant;
 import com.bcadaval.esloveno.beans.base.PalabraFlexion;
 import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
 import com.bcadaval.esloveno.beans.enums.*;
-import com.bcadaval.esloveno.config.InstantConverter;
+import com.bcadaval.esloveno.config.IdPorBloques;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -36,10 +34,10 @@ import lombok.experimental.Accessors;
 public class AdjetivoFlexion implements PalabraFlexion<Adjetivo> {
 
     /**
-     * ID único autoincrementado de la flexión
+     * ID único de la flexión, asignado por bloques para poder insertar en lote
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdPorBloques
     private Integer id;
 
     @Column(name = "SLOLEKS_ID", insertable = false, updatable = false)
@@ -66,6 +64,8 @@ public class AdjetivoFlexion implements PalabraFlexion<Adjetivo> {
 
     // =====================================================
     // Campos del Sistema de Repetición Espaciada (SRS)
+    // No se guardan con la flexión: son una copia de su tarjeta
+    // (TARJETA_SRS) que se rellena al leerla para el estudio
     // =====================================================
 
     /**
@@ -73,6 +73,7 @@ public class AdjetivoFlexion implements PalabraFlexion<Adjetivo> {
      * Determina qué tan fácil es recordar esta tarjeta.
      * Valor inicial: 2.5, rango: [1.3, 2.5]
      */
+    @Transient
     @Builder.Default
     private Double factorFacilidad = 2.5;
 
@@ -80,6 +81,7 @@ public class AdjetivoFlexion implements PalabraFlexion<Adjetivo> {
      * Intervalo de repetición en SEGUNDOS.
      * Segundos hasta la próxima revisión.
      */
+    @Transient
     @Builder.Default
     private Long intervaloRepeticionSegundos = 0L;
 
@@ -87,31 +89,34 @@ public class AdjetivoFlexion implements PalabraFlexion<Adjetivo> {
      * Número de veces consecutivas que se ha recordado correctamente.
      * Se resetea a 0 si fallas.
      */
+    @Transient
     @Builder.Default
     private Integer vecesConsecutivasCorrectas = 0;
 
     /**
      * Fecha y hora exacta de la última revisión.
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant ultimaRevision;
 
     /**
      * Fecha y hora exacta de la próxima revisión programada.
      * NULL = tarjeta nueva (nunca estudiada)
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant proximaRevision;
 
     /**
      * Número total de revisiones realizadas (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalRevisiones = 0;
 
     /**
      * Número total de aciertos (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalAciertos = 0;
 
@@ -120,6 +125,7 @@ public class AdjetivoFlexion implements PalabraFlexion<Adjetivo> {
      * true = falló recientemente y está en reaprendizaje
      * false = tarjeta normal
      */
+    @Transient
     @Builder.Default
     private Boolean enReaprendizaje = false;
 
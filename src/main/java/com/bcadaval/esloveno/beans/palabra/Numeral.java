@@ -1,12 +1,15 @@
 package com.bcadaval.esloveno.beans.palabra;
 
 import com.bcadaval.esloveno.beans.base.Palabra;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Transient;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -15,6 +18,8 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "numeral")
 @Accessors(chain = true)
 @ToString
 public class Numeral implements Palabra<NumeralFlexion> {
@@ -4,10 +4,12 @@ import com.bcadaval.esloveno.beans.base.PalabraFlexion;
 import com.bcadaval.esloveno.beans.enums.Caso;
 import com.bcadaval.esloveno.beans.enums.Genero;
 import com.bcadaval.esloveno.beans.enums.Numero;
-import com.bcadaval.esloveno.config.InstantConverter;
+import com.bcadaval.esloveno.config.IdPorBloques;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 
@@ -17,14 +19,16 @@ import java.time.Instant;
 @Builder
 @Accessors(chain = true)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "numeralFlexion")
 @ToString
 public class NumeralFlexion implements PalabraFlexion<Numeral> {
 
     /**
-     * ID único autoincrementado de la flexión
+     * ID único de la flexión, asignado por bloques para poder insertar en lote
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdPorBloques
     private Integer id;
 
     @Column(name = "SLOLEKS_ID", insertable = false, updatable = false)
@@ -47,6 +51,8 @@ public class NumeralFlexion implements PalabraFlexion<Numeral> {
 
     // =====================================================
     // Campos del Sistema de Repetición Espaciada (SRS)
+    // No se guardan con la flexión: son una copia de su tarjeta
+    // (TARJETA_SRS) que se rellena al leerla para el estudio
     // =====================================================
 
     /**
@@ -54,6 +60,7 @@ public class NumeralFlexion implements PalabraFlexion<Numeral> {
      * Determina qué tan fácil es recordar esta tarjeta.
      * Valor inicial: 2.5, rango: [1.3, 2.5]
      */
+    @Transient
     @Builder.Default
     private Double factorFacilidad = 2.5;
 
@@ -61,6 +68,7 @@ public class NumeralFlexion implements PalabraFlexion<Numeral> {
      * Intervalo de repetición en SEGUNDOS.
      * Segundos hasta la próxima revisión.
      */
+    @Transient
     @Builder.Default
     private Long intervaloRepeticionSegundos = 0L;
 
@@ -68,31 +76,34 @@ public class NumeralFlexion implements PalabraFlexion<Numeral> {
      * Número de veces consecutivas que se ha recordado correctamente.
      * Se resetea a 0 si fallas.
      */
+    @Transient
     @Builder.Default
     private Integer vecesConsecutivasCorrectas = 0;
 
     /**
      * Fecha y hora exacta de la última revisión.
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant ultimaRevision;
 
     /**
      * Fecha y hora exacta de la próxima revisión programada.
      * NULL = tarjeta nueva (nunca estudiada)
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant proximaRevision;
 
     /**
      * Número total de revisiones realizadas (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalRevisiones = 0;
 
     /**
      * Número total de aciertos (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalAciertos = 0;
 
@@ -101,6 +112,7 @@ public class NumeralFlexion implements PalabraFlexion<Numeral> {
      * true = falló recientemente y está en reaprendizaje
      * false = tarjeta normal
      */
+    @Transient
     @Builder.Default
     private Boolean enReaprendizaje = false;
 
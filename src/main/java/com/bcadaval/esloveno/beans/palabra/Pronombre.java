@@ -4,6 +4,8 @@ import com.bcadaval.esloveno.beans.base.Palabra;
 import com.bcadaval.esloveno.beans.enums.TipoPronombre;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -12,6 +14,8 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pronombre")
 @ToString
 public class Pronombre implements Palabra<PronombreFlexion> {
 
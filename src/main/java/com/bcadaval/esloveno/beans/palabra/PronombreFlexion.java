@@ -5,10 +5,12 @@ import com.bcadaval.esloveno.beans.enums.Caso;
 import com.bcadaval.esloveno.beans.enums.Genero;
 import com.bcadaval.esloveno.beans.enums.Numero;
 import com.bcadaval.esloveno.beans.enums.Persona;
-import com.bcadaval.esloveno.config.InstantConverter;
+import com.bcadaval.esloveno.config.IdPorBloques;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 
@@ -17,15 +19,17 @@ import java.time.Instant;
 @AllArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pronombreFlexion")
 @Accessors(chain = true)
 @ToString
 public class PronombreFlexion implements PalabraFlexion<Pronombre> {
 
     /**
-     * ID único autoincrementado de la flexión
+     * ID único de la flexión, asignado por bloques para poder insertar en lote
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdPorBloques
     private Integer id;
 
     @Column(name = "SLOLEKS_ID", insertable = false, updatable = false)
@@ -60,6 +64,8 @@ public class PronombreFlexion implements PalabraFlexion<Pronombre> {
 
     // =====================================================
     // Campos del Sistema de Repetición Espaciada (SRS)
+    // No se guardan con la flexión: son una copia de su tarjeta
+    // (TARJETA_SRS) que se rellena al leerla para el estudio
     // =====================================================
 
     /**
@@ -67,6 +73,7 @@ public class PronombreFlexion implements PalabraFlexion<Pronombre> {
      * Determina qué tan fácil es recordar esta tarjeta.
      * Valor inicial: 2.5, rango: [1.3, 2.5]
      */
+    @Transient
     @Builder.Default
     private Double factorFacilidad = 2.5;
 
@@ -74,6 +81,7 @@ public class PronombreFlexion implements PalabraFlexion<Pronombre> {
      * Intervalo de repetición en SEGUNDOS.
      * Segundos hasta la próxima revisión.
      */
+    @Transient
     @Builder.Default
     private Long intervaloRepeticionSegundos = 0L;
 
@@ -81,31 +89,34 @@ public class PronombreFlexion implements PalabraFlexion<Pronombre> {
      * Número de veces consecutivas que se ha recordado correctamente.
      * Se resetea a 0 si fallas.
      */
+    @Transient
     @Builder.Default
     private Integer vecesConsecutivasCorrectas = 0;
 
     /**
      * Fecha y hora exacta de la última revisión.
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant ultimaRevision;
 
     /**
      * Fecha y hora exacta de la próxima revisión programada.
      * NULL = tarjeta nueva (nunca estudiada)
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant proximaRevision;
 
     /**
      * Número total de revisiones realizadas (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalRevisiones = 0;
 
     /**
      * Número total de aciertos (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalAciertos = 0;
 
@@ -114,6 +125,7 @@ public class PronombreFlexion implements PalabraFlexion<Pronombre> {
      * true = falló recientemente y está en reaprendizaje
      * false = tarjeta normal
      */
+    @Transient
     @Builder.Default
     private Boolean enReaprendizaje = false;
 
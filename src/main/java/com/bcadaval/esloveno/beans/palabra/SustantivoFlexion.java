@@ -6,16 +6,14 @@ import com.bcadaval.esloveno.beans.base.PalabraFlexion;
 import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
 import com.bcadaval.esloveno.beans.enums.Caso;
 import com.bcadaval.esloveno.beans.enums.Numero;
-import com.bcadaval.esloveno.config.InstantConverter;
+import com.bcadaval.esloveno.config.IdPorBloques;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Transient;
 import lombok.*;
 import lombok.experimental.Accessors;
 
@@ -33,10 +31,10 @@ import lombok.experimental.Accessors;
 public class SustantivoFlexion implements PalabraFlexion<Sustantivo> {
 
     /**
-     * ID único autoincrementado de la flexión
+     * ID único de la flexión, asignado por bloques para poder insertar en lote
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdPorBloques
     private Integer id;
 
     @Column(name = "SLOLEKS_ID", insertable = false, updatable = false)
@@ -57,6 +55,8 @@ public class SustantivoFlexion implements PalabraFlexion<Sustantivo> {
 
     // =====================================================
     // Campos del Sistema de Repetición Espaciada (SRS)
+    // No se guardan con la flexión: son una copia de su tarjeta
+    // (TARJETA_SRS) que se rellena al leerla para el estudio
     // =====================================================
 
     /**
@@ -64,6 +64,7 @@ public class SustantivoFlexion implements PalabraFlexion<Sustantivo> {
      * Determina qué tan fácil es recordar esta tarjeta.
      * Valor inicial: 2.5, rango: [1.3, 2.5]
      */
+    @Transient
     @Builder.Default
     private Double factorFacilidad = 2.5;
 
@@ -71,6 +72,7 @@ public class SustantivoFlexion implements PalabraFlexion<Sustantivo> {
      * Intervalo de repetición en SEGUNDOS.
      * Segundos hasta la próxima revisión.
      */
+    @Transient
     @Builder.Default
     private Long intervaloRepeticionSegundos = 0L;
 
@@ -78,31 +80,34 @@ public class SustantivoFlexion implements PalabraFlexion<Sustantivo> {
      * Número de veces consecutivas que se ha recordado correctamente.
      * Se resetea a 0 si fallas.
      */
+    @Transient
     @Builder.Default
     private Integer vecesConsecutivasCorrectas = 0;
 
     /**
      * Fecha y hora exacta de la última revisión.
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant ultimaRevision;
 
     /**
      * Fecha y hora exacta de la próxima revisión programada.
      * NULL = tarjeta nueva (nunca estudiada)
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant proximaRevision;
 
     /**
      * Número total de revisiones realizadas (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalRevisiones = 0;
 
     /**
      * Número total de aciertos (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalAciertos = 0;
 
@@ -111,6 +116,7 @@ public class SustantivoFlexion implements PalabraFlexion<Sustantivo> {
      * true = falló recientemente y está en reaprendizaje
      * false = tarjeta normal
      */
+    @Transient
     @Builder.Default
     private Boolean enReaprendizaje = false;
 
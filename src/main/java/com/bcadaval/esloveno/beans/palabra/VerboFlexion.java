@@ -8,16 +8,14 @@ import com.bcadaval.esloveno.beans.enums.FormaVerbal;
 import com.bcadaval.esloveno.beans.enums.Genero;
 import com.bcadaval.esloveno.beans.enums.Numero;
 import com.bcadaval.esloveno.beans.enums.Persona;
-import com.bcadaval.esloveno.config.InstantConverter;
+import com.bcadaval.esloveno.config.IdPorBloques;
 
 import jakarta.persistence.Column;
-import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Transient;
 import lombok.*;
 import lombok.experimental.Accessors;
 
@@ -35,10 +33,10 @@ import lombok.experimental.Accessors;
 public class VerboFlexion implements PalabraFlexion<Verbo> {
 
     /**
-     * ID único autoincrementado de la flexión
+     * ID único de la flexión, asignado por bloques para poder insertar en lote
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdPorBloques
     private Integer id;
 
     @Column(name = "SLOLEKS_ID", insertable = false, updatable = false)
@@ -69,6 +67,8 @@ public class VerboFlexion implements PalabraFlexion<Verbo> {
 
     // =====================================================
     // Campos del Sistema de Repetición Espaciada (SRS)
+    // No se guardan con la flexión: son una copia de su tarjeta
+    // (TARJETA_SRS) que se rellena al leerla para el estudio
     // =====================================================
 
     /**
@@ -76,6 +76,7 @@ public class VerboFlexion implements PalabraFlexion<Verbo> {
      * Determina qué tan fácil es recordar esta tarjeta.
      * Valor inicial: 2.5, rango: [1.3, 2.5]
      */
+    @Transient
     @Builder.Default
     private Double factorFacilidad = 2.5;
 
@@ -83,6 +84,7 @@ public class VerboFlexion implements PalabraFlexion<Verbo> {
      * Intervalo de repetición en SEGUNDOS.
      * Segundos hasta la próxima revisión.
      */
+    @Transient
     @Builder.Default
     private Long intervaloRepeticionSegundos = 0L;
 
@@ -90,31 +92,34 @@ public class VerboFlexion implements PalabraFlexion<Verbo> {
      * Número de veces consecutivas que se ha recordado correctamente.
      * Se resetea a 0 si fallas.
      */
+    @Transient
     @Builder.Default
     private Integer vecesConsecutivasCorrectas = 0;
 
     /**
      * Fecha y hora exacta de la última revisión.
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant ultimaRevision;
 
     /**
      * Fecha y hora exacta de la próxima revisión programada.
      * NULL = tarjeta nueva (nunca estudiada)
      */
-    @Convert(converter = InstantConverter.class)
+    @Transient
     private Instant proximaRevision;
 
     /**
      * Número total de revisiones realizadas (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalRevisiones = 0;
 
     /**
      * Número total de aciertos (estadística).
      */
+    @Transient
     @Builder.Default
     private Integer totalAciertos = 0;
 
@@ -123,6 +128,7 @@ public class VerboFlexion implements PalabraFlexion<Verbo> {
      * true = falló recientemente y está en reaprendizaje
      * false = tarjeta normal
      */
+    @Transient
     @Builder.Default
     private Boolean enReaprendizaje = false;
 
@@ -0,0 +1,73 @@
+package com.bcadaval.esloveno.config;
+
+import java.lang.reflect.Member;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.GeneratorCreationContext;
+import org.hibernate.id.IdentifierGenerationException;
+import org.hibernate.id.IdentifierGenerator;
+
+/**
+ * Generador de IDs por bloques para tablas SQLite con {@code INTEGER PRIMARY KEY}.
+ * <p>
+ * Con {@code IDENTITY} Hibernate tiene que ejecutar cada INSERT en el momento para conocer el ID,
+ * así que no puede agruparlos en lotes. Aquí los IDs se reparten en memoria: al agotar un bloque
+ * se consulta el máximo de la tabla y se reservan los {@link IdPorBloques#tamanoBloque()}
+ * siguientes. SQLite no tiene secuencias y el generador de tabla de Hibernate reserva en otra
+ * conexión, que con un único escritor quedaría esperando a la transacción en curso; la consulta
+ * del máximo se hace en la conexión de la propia sesión.
+ * <p>
+ * Supone que la aplicación es la única que inserta en la tabla mientras está arrancada:
+ * una inserción externa se detecta al pedir el siguiente bloque, no antes.
+ */
+public class GeneradorIdsPorBloques implements IdentifierGenerator, AnnotationBasedGenerator<IdPorBloques> {
+
+    private String sqlMaximo;
+
+    private int tamanoBloque;
+
+    /** Siguiente ID a entregar y límite (excluido) del bloque actual */
+    private int siguiente;
+    private int limite;
+
+    @Override
+    public void initialize(IdPorBloques config, Member miembro, GeneratorCreationContext contexto) {
+        String tabla = contexto.getPersistentClass().getTable().getName();
+        String columna = contexto.getProperty().getColumns().getFirst().getName();
+        this.sqlMaximo = "SELECT COALESCE(MAX(" + columna + "), 0) FROM " + tabla;
+        this.tamanoBloque = Math.max(1, config.tamanoBloque());
+    }
+
+    @Override
+    public synchronized Object generate(SharedSessionContractImplementor sesion, Object entidad) {
+        if (siguiente >= limite) {
+            // Lo ya repartido en memoria puede no estar aún en la tabla (transacción sin confirmar)
+            siguiente = Math.max(siguiente, maximoEnTabla(sesion) + 1);
+            limite = siguiente + tamanoBloque;
+        }
+        return siguiente++;
+    }
+
+    private int maximoEnTabla(SharedSessionContractImplementor sesion) {
+        JdbcCoordinator jdbc = sesion.getJdbcCoordinator();
+        PreparedStatement sentencia = jdbc.getStatementPreparer().prepareStatement(sqlMaximo);
+        try {
+            ResultSet resultado = jdbc.getResultSetReturn().extract(sentencia, sqlMaximo);
+            try {
+                return resultado.next() ? resultado.getInt(1) : 0;
+            } finally {
+                jdbc.getLogicalConnection().getResourceRegistry().release(resultado, sentencia);
+            }
+        } catch (SQLException e) {
+            throw new IdentifierGenerationException("No se pudo consultar el último ID: " + sqlMaximo, e);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(sentencia);
+            jdbc.afterStatementExecution();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.bcadaval.esloveno.config;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Genera el ID de la entidad con {@link GeneradorIdsPorBloques} en lugar de {@code IDENTITY},
+ * lo que permite a Hibernate agrupar los INSERT en lotes JDBC.
+ */
+@IdGeneratorType(GeneradorIdsPorBloques.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface IdPorBloques {
+
+    /** IDs que se reservan cada vez que se consulta el máximo de la tabla */
+    int tamanoBloque() default 100;
+}
@@ -0,0 +1,121 @@
+package com.bcadaval.esloveno.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * DataSource para SQLite en modo WAL con las escrituras separadas de las lecturas.
+ * <p>
+ * SQLite admite un solo escritor a la vez, pero en WAL los lectores no lo bloquean ni él a
+ * ellos. Por eso hay dos pools sobre el mismo fichero:
+ * <ul>
+ *   <li>Escritor: una única conexión, así las escrituras se encolan en el pool en vez de
+ *       competir por el bloqueo del fichero y fallar con {@code SQLITE_BUSY}.</li>
+ *   <li>Lectores: varias conexiones con {@code query_only}, para las transacciones
+ *       {@code readOnly} (consultas, estadísticas, métodos de lectura de los repositorios).</li>
+ * </ul>
+ * El escritor usa {@code synchronous=FULL}: el registro de revisiones garantiza que una
+ * respuesta confirmada no se pierde, y eso exige sincronizar el WAL en cada confirmación.
+ * <p>
+ * El DataSource principal elige el pool según la transacción en curso. Va envuelto en un
+ * {@link LazyConnectionDataSourceProxy} para que la conexión real se pida al ejecutar la primera
+ * sentencia, cuando ya se sabe si la transacción es de solo lectura. Fuera de una transacción
+ * se usa el escritor.
+ */
+@Log4j2
+@Configuration
+public class SqliteDataSourceConfig {
+
+    private enum Destino { ESCRITOR, LECTOR }
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    @Value("${app.sqlite.busy-timeout-ms:5000}")
+    private int busyTimeout;
+
+    @Value("${app.sqlite.cache-kb:20000}")
+    private int cacheKb;
+
+    @Value("${app.sqlite.mmap-mb:256}")
+    private long mmapMb;
+
+    @Value("${app.sqlite.lectores:4}")
+    private int lectores;
+
+    @Primary
+    @Bean
+    DataSource dataSource() {
+        HikariDataSource escritor = pool("SqliteEscritor", 1, configuracion(SQLiteConfig.SynchronousMode.FULL), null);
+        HikariDataSource lector = pool("SqliteLector", Math.max(1, lectores),
+                configuracion(SQLiteConfig.SynchronousMode.NORMAL), "PRAGMA query_only = true");
+
+        AbstractRoutingDataSource enrutador = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isActualTransactionActive()
+                        && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                        ? Destino.LECTOR
+                        : Destino.ESCRITOR;
+            }
+        };
+        enrutador.setTargetDataSources(Map.of(Destino.ESCRITOR, escritor, Destino.LECTOR, lector));
+        enrutador.setDefaultTargetDataSource(escritor);
+        enrutador.afterPropertiesSet();
+
+        log.info("SQLite en WAL: 1 conexión de escritura y {} de lectura (busy_timeout={}ms, cache={}KB, mmap={}MB)",
+                lector.getMaximumPoolSize(), busyTimeout, cacheKb, mmapMb);
+        return new LazyConnectionDataSourceProxy(enrutador);
+    }
+
+    /**
+     * Pragmas que se aplican a cada conexión al abrirla
+     *
+     * @param sincronizacion FULL en el escritor: en WAL sincroniza el diario en cada confirmación,
+     *                       así una respuesta ya confirmada en REGISTRO_REVISION sobrevive a una
+     *                       caída del sistema (con NORMAL podría perderse). En los lectores no
+     *                       influye, no confirman escrituras.
+     */
+    private SQLiteConfig configuracion(SQLiteConfig.SynchronousMode sincronizacion) {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        config.setSynchronous(sincronizacion);
+        config.setBusyTimeout(busyTimeout);
+        // Valor negativo = tamaño en KiB en lugar de número de páginas
+        config.setCacheSize(-cacheKb);
+        config.setPragma(SQLiteConfig.Pragma.MMAP_SIZE, String.valueOf(mmapMb * 1024 * 1024));
+        config.setTempStore(SQLiteConfig.TempStore.MEMORY);
+        return config;
+    }
+
+    private HikariDataSource pool(String nombre, int conexiones, SQLiteConfig config, String sqlInicial) {
+        SQLiteDataSource sqlite = new SQLiteDataSource(config);
+        sqlite.setUrl(url);
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName(nombre);
+        hikari.setDataSource(sqlite);
+        hikari.setMaximumPoolSize(conexiones);
+        hikari.setMinimumIdle(1);
+        if (sqlInicial != null) {
+            hikari.setConnectionInitSql(sqlInicial);
+        }
+        return new HikariDataSource(hikari);
+    }
+}
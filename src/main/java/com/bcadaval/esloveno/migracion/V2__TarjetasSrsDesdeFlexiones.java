@@ -0,0 +1,118 @@
+package com.bcadaval.esloveno.migracion;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Copia a TARJETA_SRS el estado SRS que las bases anteriores guardaban en las propias tablas
+ * *_FLEXION. En una base nueva esas columnas no existen y no hace nada.
+ * <p>
+ * La copia va por tramos de IDs y cada tramo se confirma por separado (la migración no se ejecuta
+ * en una transacción), así el bloqueo de escritura se suelta entre tramos y el progreso queda en
+ * el log. INSERT OR IGNORE no pisa tarjetas existentes: si se interrumpe, se repite entera sin
+ * duplicar nada. Las flexiones sin factor de facilidad reciben el FACTOR_FACILIDAD_INICIAL
+ * configurado en VARIABLES.
+ */
+@Log4j2
+@Component
+public class V2__TarjetasSrsDesdeFlexiones extends BaseJavaMigration {
+
+    private static final List<String> TIPOS = List.of("ADJETIVO", "PRONOMBRE", "NUMERAL", "SUSTANTIVO", "VERBO");
+
+    /** Factor de facilidad si VARIABLES no tiene FACTOR_FACILIDAD_INICIAL o no es numérico */
+    private static final double FACTOR_INICIAL_POR_DEFECTO = 2.5;
+
+    /** IDs de flexión por tramo */
+    private static final int TAMANIO_TRAMO = 10_000;
+
+    private static final String COPIAR_TRAMO = "INSERT OR IGNORE INTO TARJETA_SRS "
+            + "SELECT ?, ID, COALESCE(FACTOR_FACILIDAD, ?), COALESCE(INTERVALO_REPETICION_SEGUNDOS, 0), "
+            + "COALESCE(VECES_CONSECUTIVAS_CORRECTAS, 0), COALESCE(TOTAL_REVISIONES, 0), COALESCE(TOTAL_ACIERTOS, 0), "
+            + "COALESCE(EN_REAPRENDIZAJE, 0), ULTIMA_REVISION, PROXIMA_REVISION "
+            + "FROM %s_FLEXION WHERE PROXIMA_REVISION IS NOT NULL AND ID BETWEEN ? AND ?";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        Connection conexion = context.getConnection();
+        Double factorInicial = null;
+        for (String tipo : TIPOS) {
+            if (tieneEstadoSrs(conexion, tipo)) {
+                if (factorInicial == null) {
+                    factorInicial = leerFactorInicial(conexion);
+                }
+                copiar(conexion, tipo, factorInicial);
+            }
+        }
+    }
+
+    private static double leerFactorInicial(Connection conexion) throws SQLException {
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery("SELECT VALOR FROM VARIABLES WHERE CLAVE = 'FACTOR_FACILIDAD_INICIAL'")) {
+            String valor = rs.next() ? rs.getString(1) : null;
+            if (valor != null) {
+                try {
+                    return Double.parseDouble(valor.trim());
+                } catch (NumberFormatException e) {
+                    log.warn("FACTOR_FACILIDAD_INICIAL no válido ({}), se usa {}", valor, FACTOR_INICIAL_POR_DEFECTO);
+                }
+            }
+            return FACTOR_INICIAL_POR_DEFECTO;
+        }
+    }
+
+    private static boolean tieneEstadoSrs(Connection conexion, String tipo) throws SQLException {
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery("SELECT 1 FROM pragma_table_info('" + tipo + "_FLEXION') WHERE name = 'PROXIMA_REVISION'")) {
+            return rs.next();
+        }
+    }
+
+    private static void copiar(Connection conexion, String tipo, double factorInicial) throws SQLException {
+        long desde;
+        long hasta;
+        try (Statement st = conexion.createStatement();
+             ResultSet rs = st.executeQuery("SELECT MIN(ID), MAX(ID) FROM " + tipo + "_FLEXION WHERE PROXIMA_REVISION IS NOT NULL")) {
+            rs.next();
+            desde = rs.getLong(1);
+            hasta = rs.getLong(2);
+            if (rs.wasNull()) {
+                log.info("{}_FLEXION: sin estado SRS que copiar", tipo);
+                return;
+            }
+        }
+
+        long copiadas = 0;
+        int ultimoDecil = 0;
+        try (PreparedStatement ps = conexion.prepareStatement(COPIAR_TRAMO.formatted(tipo))) {
+            for (long inicio = desde; inicio <= hasta; inicio += TAMANIO_TRAMO) {
+                long fin = Math.min(inicio + TAMANIO_TRAMO - 1, hasta);
+                ps.setString(1, tipo);
+                ps.setDouble(2, factorInicial);
+                ps.setLong(3, inicio);
+                ps.setLong(4, fin);
+                copiadas += ps.executeUpdate();
+
+                int decil = (int) ((fin - desde + 1) * 10 / (hasta - desde + 1));
+                if (decil > ultimoDecil) {
+                    ultimoDecil = decil;
+                    log.info("{}_FLEXION → TARJETA_SRS: {}% ({} tarjetas copiadas)", tipo, decil * 10, copiadas);
+                }
+            }
+        }
+    }
+}
@@ -1,33 +1,34 @@
 package com.bcadaval.esloveno.repo;
 
-import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bcadaval.esloveno.beans.palabra.AdjetivoFlexion;
+import com.bcadaval.esloveno.repo.lectura.AdjetivoFlexionLectura;
 
 @Repository
 public interface AdjetivoFlexionRepo extends JpaRepository<AdjetivoFlexion, Integer> {
 
 	/**
-	 * Stream de adjetivos listos para estudiar: activos y con tiempo cumplido
+	 * Proyecciones de estudio de las flexiones indicadas
 	 */
-	@Query("SELECT a FROM AdjetivoFlexion a WHERE a.proximaRevision IS NOT NULL AND a.proximaRevision <= :ahora")
-	Stream<AdjetivoFlexion> streamListosParaEstudiar(@Param("ahora") Instant ahora);
+	@Query(AdjetivoFlexionLectura.SELECT + " WHERE a.id IN :ids")
+	List<AdjetivoFlexionLectura> findLecturaPorIds(@Param("ids") Collection<Integer> ids);
 
 	/**
-	 * Stream de todos los adjetivos activos (tienen proximaRevision)
+	 * Encuentra flexiones por el sloleksId (adjetivo base)
 	 */
-	@Query("SELECT a FROM AdjetivoFlexion a WHERE a.proximaRevision IS NOT NULL")
-	Stream<AdjetivoFlexion> streamActivos();
+	List<AdjetivoFlexion> findBySloleksId(String sloleksId);
 
 	/**
-	 * Encuentra flexiones por el sloleksId (adjetivo base)
+	 * Flexiones de varias palabras a la vez, con su palabra base en la misma consulta
 	 */
-	List<AdjetivoFlexion> findBySloleksId(String sloleksId);
+	@EntityGraph(attributePaths = "adjetivoBase")
+	List<AdjetivoFlexion> findBySloleksIdIn(Collection<String> sloleksIds);
 }
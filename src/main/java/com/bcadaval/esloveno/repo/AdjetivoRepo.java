@@ -1,17 +1,27 @@
 package com.bcadaval.esloveno.repo;
 
-import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bcadaval.esloveno.beans.palabra.Adjetivo;
+import com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura;
 
 @Repository
 public interface AdjetivoRepo extends JpaRepository<Adjetivo, String>{
 
     /**
-     * Encuentra adjetivos con significado null
+     * Adjetivos con significado null, por ID a partir de {@code desde} (excluido).
+     * El WHERE coincide con el del índice parcial A_INCOMPLETOS
      */
-    List<Adjetivo> findBySignificadoIsNull();
+    @Query("SELECT new com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura(a.sloleksId, a.principal, a.significado) "
+            + "FROM Adjetivo a WHERE a.significado IS NULL "
+            + "AND a.sloleksId > :desde AND a.principal LIKE :filtro ESCAPE '\\' ORDER BY a.sloleksId")
+    Stream<PalabraIncompletaLectura> streamIncompletos(@Param("desde") String desde, @Param("filtro") String filtro, Limit limite);
+
+    long countBySignificadoIsNull();
 }
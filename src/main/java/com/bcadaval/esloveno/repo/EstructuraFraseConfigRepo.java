@@ -2,25 +2,38 @@ package com.bcadaval.esloveno.repo;
 
 import java.util.List;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.bcadaval.esloveno.beans.EstructuraFraseConfig;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio para la configuración de estructuras de frase.
  */
 @Repository
 public interface EstructuraFraseConfigRepo extends JpaRepository<EstructuraFraseConfig, String> {
 
+    /**
+     * Configuración de todas las estructuras, desde la caché de consultas mientras no cambie la tabla
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<EstructuraFraseConfig> findAll();
+
     /**
      * Encuentra todas las estructuras activas
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<EstructuraFraseConfig> findByActivaTrue();
 
     /**
      * Encuentra todas las estructuras inactivas
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     List<EstructuraFraseConfig> findByActivaFalse();
 }
 
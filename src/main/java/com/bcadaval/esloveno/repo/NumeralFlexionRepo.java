@@ -1,14 +1,15 @@
 package com.bcadaval.esloveno.repo;
 
-import com.bcadaval.esloveno.beans.enums.Caso;
-import com.bcadaval.esloveno.beans.enums.Genero;
-import com.bcadaval.esloveno.beans.enums.Numero;
 import com.bcadaval.esloveno.beans.palabra.NumeralFlexion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface NumeralFlexionRepo extends JpaRepository<NumeralFlexion, Integer>, QueryByExampleExecutor<NumeralFlexion> {
@@ -16,23 +17,20 @@ public interface NumeralFlexionRepo extends JpaRepository<NumeralFlexion, Intege
     List<NumeralFlexion> findBySloleksId(String sloleksId);
 
     /**
-     * Busca numerales que coincidan en caso y número, opcionalmente filtrando por género.
-     * Solo devuelve tarjetas inicializadas (proximaRevision IS NOT NULL).
-     *
-     * @param caso Caso gramatical requerido
-     * @param numero Número gramatical requerido
-     * @param genero Género gramatical requerido (puede ser null)
-     * @return Lista de flexiones que coinciden con los criterios
+     * Flexiones de varias palabras a la vez, con su palabra base en la misma consulta
      */
-    @Query("SELECT nf FROM NumeralFlexion nf " +
-            "WHERE nf.caso = :caso " +
-            "AND nf.numero = :numero " +
-            "AND (:genero IS NULL OR nf.genero = :genero) " +
-            "AND nf.proximaRevision IS NOT NULL")
-    List<NumeralFlexion> findByCasoAndNumeroAndGenero(
-            @Param("caso") Caso caso,
-            @Param("numero") Numero numero,
-            @Param("genero") Genero genero
-    );
+    @EntityGraph(attributePaths = "numeralBase")
+    List<NumeralFlexion> findBySloleksIdIn(Collection<String> sloleksIds);
+
+    /**
+     * Flexiones activas (con tarjeta SRS), con el numeral base en la misma consulta.
+     * El resultado se guarda en la caché de consultas hasta que se escriba en NUMERAL_FLEXION
+     * o TARJETA_SRS
+     */
+    @EntityGraph(attributePaths = "numeralBase")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT n FROM NumeralFlexion n WHERE n.id IN (SELECT t.flexionId FROM TarjetaSrs t "
+            + "WHERE t.tipo = com.bcadaval.esloveno.beans.enums.TipoPalabra.NUMERAL)")
+    List<NumeralFlexion> findActivas();
 }
 
@@ -1,14 +1,25 @@
 package com.bcadaval.esloveno.repo;
 
 import com.bcadaval.esloveno.beans.palabra.Numeral;
+import com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.util.List;
+import java.util.stream.Stream;
 
 public interface NumeralRepo extends JpaRepository<Numeral, String> {
 
-    List<Numeral> findBySignificadoIsNull();
-
-}
+    /**
+     * Numerales con significado null, por ID a partir de {@code desde} (excluido).
+     * El WHERE coincide con el del índice parcial N_INCOMPLETOS
+     */
+    @Query("SELECT new com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura(n.sloleksId, n.principal, n.significado) "
+            + "FROM Numeral n WHERE n.significado IS NULL "
+            + "AND n.sloleksId > :desde AND n.principal LIKE :filtro ESCAPE '\\' ORDER BY n.sloleksId")
+    Stream<PalabraIncompletaLectura> streamIncompletos(@Param("desde") String desde, @Param("filtro") String filtro, Limit limite);
 
+    long countBySignificadoIsNull();
 
+}
@@ -1,14 +1,41 @@
 package com.bcadaval.esloveno.repo;
 
 import com.bcadaval.esloveno.beans.palabra.PronombreFlexion;
+import com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.query.QueryByExampleExecutor;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface PronombreFlexionRepo extends JpaRepository<PronombreFlexion, Integer>, QueryByExampleExecutor<PronombreFlexion> {
 
     List<PronombreFlexion> findBySloleksId(String sloleksId);
 
-    List<PronombreFlexion> findBySignificadoIsNull();
+    /**
+     * Flexiones de pronombre con significado null, por ID a partir de {@code desde} (excluido).
+     * El WHERE coincide con el del índice parcial PF_INCOMPLETAS
+     */
+    @Query("SELECT new com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura(CAST(p.id AS String), p.flexion, p.significado) "
+            + "FROM PronombreFlexion p WHERE p.significado IS NULL "
+            + "AND p.id > :desde AND p.flexion LIKE :filtro ESCAPE '\\' ORDER BY p.id")
+    Stream<PalabraIncompletaLectura> streamIncompletas(@Param("desde") Integer desde, @Param("filtro") String filtro, Limit limite);
+
+    long countBySignificadoIsNull();
+
+    /**
+     * Todas las flexiones con el pronombre base en la misma consulta.
+     * El resultado se guarda en la caché de consultas hasta que se escriba en PRONOMBRE_FLEXION
+     */
+    @Override
+    @EntityGraph(attributePaths = "pronombreBase")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<PronombreFlexion> findAll();
 }
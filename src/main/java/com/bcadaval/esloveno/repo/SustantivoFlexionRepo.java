@@ -1,58 +1,42 @@
 package com.bcadaval.esloveno.repo;
 
-import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
 
-import com.bcadaval.esloveno.beans.enums.Caso;
-import com.bcadaval.esloveno.beans.enums.Genero;
-import com.bcadaval.esloveno.beans.enums.Numero;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
+import com.bcadaval.esloveno.repo.lectura.SustantivoFlexionLectura;
 
 @Repository
 public interface SustantivoFlexionRepo extends JpaRepository<SustantivoFlexion, Integer> {
 
 	/**
-	 * Stream de sustantivos listos para estudiar: activos y con tiempo cumplido
+	 * Proyecciones de estudio de las flexiones indicadas
 	 */
-	@Query("SELECT s FROM SustantivoFlexion s WHERE s.proximaRevision IS NOT NULL AND s.proximaRevision <= :ahora")
-	Stream<SustantivoFlexion> streamListosParaEstudiar(@Param("ahora") Instant ahora);
+	@Query(SustantivoFlexionLectura.SELECT + " WHERE s.id IN :ids")
+	List<SustantivoFlexionLectura> findLecturaPorIds(@Param("ids") Collection<Integer> ids);
 
 	/**
-	 * Stream de todos los sustantivos activos (tienen proximaRevision)
+	 * Encuentra flexiones por el sloleksId (sustantivo base)
 	 */
-	@Query("SELECT s FROM SustantivoFlexion s WHERE s.proximaRevision IS NOT NULL")
-	Stream<SustantivoFlexion> streamActivos();
+	List<SustantivoFlexion> findBySloleksId(String sloleksId);
 
 	/**
-	 * Encuentra flexiones por el sloleksId (sustantivo base)
+	 * Flexiones de varias palabras a la vez, con su palabra base en la misma consulta
 	 */
-	List<SustantivoFlexion> findBySloleksId(String sloleksId);
+	@EntityGraph(attributePaths = "sustantivoBase")
+	List<SustantivoFlexion> findBySloleksIdIn(Collection<String> sloleksIds);
 
 	/**
-	 * Busca sustantivos que coincidan en caso, número y género.
-	 * Filtra en la base de datos haciendo JOIN con la tabla principal (Sustantivo).
-	 * Solo devuelve tarjetas inicializadas (proximaRevision IS NOT NULL).
-	 *
-	 * @param caso Caso gramatical requerido
-	 * @param numero Número gramatical requerido
-	 * @param genero Género gramatical requerido (del sustantivo base)
-	 * @return Lista de flexiones que coinciden con los criterios
+	 * Flexiones activas (con tarjeta SRS), con el sustantivo base en la misma consulta
 	 */
-	@Query("SELECT sf FROM SustantivoFlexion sf " +
-			"INNER JOIN Sustantivo s ON sf.sloleksId = s.sloleksId " +
-			"WHERE sf.caso = :caso " +
-			"AND sf.numero = :numero " +
-			"AND s.genero = :genero " +
-			"AND sf.proximaRevision IS NOT NULL")
-	List<SustantivoFlexion> findByCasoAndNumeroAndGenero(
-			@Param("caso") Caso caso,
-			@Param("numero") Numero numero,
-			@Param("genero") Genero genero
-	);
+	@EntityGraph(attributePaths = "sustantivoBase")
+	@Query("SELECT s FROM SustantivoFlexion s WHERE s.id IN (SELECT t.flexionId FROM TarjetaSrs t "
+			+ "WHERE t.tipo = com.bcadaval.esloveno.beans.enums.TipoPalabra.SUSTANTIVO)")
+	List<SustantivoFlexion> findActivas();
 }
@@ -1,17 +1,27 @@
 package com.bcadaval.esloveno.repo;
 
-import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bcadaval.esloveno.beans.palabra.Sustantivo;
+import com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura;
 
 @Repository
 public interface SustantivoRepo extends JpaRepository<Sustantivo, String> {
 
     /**
-     * Encuentra sustantivos con significado null o animado null
+     * Sustantivos con significado null o animado null, por ID a partir de {@code desde} (excluido).
+     * El WHERE coincide con el del índice parcial S_INCOMPLETOS
      */
-    List<Sustantivo> findBySignificadoIsNullOrAnimadoIsNull();
+    @Query("SELECT new com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura(s.sloleksId, s.principal, s.significado, s.animado) "
+            + "FROM Sustantivo s WHERE (s.significado IS NULL OR s.animado IS NULL) "
+            + "AND s.sloleksId > :desde AND s.principal LIKE :filtro ESCAPE '\\' ORDER BY s.sloleksId")
+    Stream<PalabraIncompletaLectura> streamIncompletos(@Param("desde") String desde, @Param("filtro") String filtro, Limit limite);
+
+    long countBySignificadoIsNullOrAnimadoIsNull();
 }
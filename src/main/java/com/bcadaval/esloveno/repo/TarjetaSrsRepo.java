@@ -0,0 +1,23 @@
+package com.bcadaval.esloveno.repo;
+
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import com.bcadaval.esloveno.beans.TarjetaSrs;
+import com.bcadaval.esloveno.repo.lectura.TarjetaSrsLectura;
+
+/**
+ * Repositorio de las tarjetas SRS de todos los tipos de palabra
+ */
+@Repository
+public interface TarjetaSrsRepo extends JpaRepository<TarjetaSrs, TarjetaSrs.Clave> {
+
+    /**
+     * Todas las tarjetas: la instantánea desde la que se carga {@link com.bcadaval.esloveno.services.srs.MotorSrs}
+     */
+    @Query(TarjetaSrsLectura.SELECT)
+    Stream<TarjetaSrsLectura> streamTodas();
+}
@@ -1,23 +1,36 @@
 package com.bcadaval.esloveno.repo;
 
+import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import com.bcadaval.esloveno.beans.Variable;
 
+import jakarta.persistence.QueryHint;
+
 /**
  * Repositorio para acceder a las variables de configuración del sistema
  */
 @Repository
 public interface VariablesRepo extends JpaRepository<Variable, String> {
 
+    /**
+     * Todas las variables, desde la caché de consultas mientras no cambie la tabla
+     */
+    @Override
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
+    List<Variable> findAll();
+
     /**
      * Busca una variable por su clave
      * @param clave Clave de la variable
      * @return Optional con la variable si existe
      */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"))
     Optional<Variable> findByClave(String clave);
 }
 
@@ -1,35 +1,36 @@
 package com.bcadaval.esloveno.repo;
 
-import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Stream;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bcadaval.esloveno.beans.palabra.VerboFlexion;
+import com.bcadaval.esloveno.repo.lectura.VerboFlexionLectura;
 
 @Repository
 public interface VerboFlexionRepo extends JpaRepository<VerboFlexion, Integer> {
 
 	/**
-	 * Stream de verbos listos para estudiar: activos (proximaRevision != null) y con tiempo cumplido
+	 * Proyecciones de estudio de las flexiones indicadas
 	 */
-	@Query("SELECT v FROM VerboFlexion v WHERE v.proximaRevision IS NOT NULL AND v.proximaRevision <= :ahora")
-	Stream<VerboFlexion> streamListosParaEstudiar(@Param("ahora") Instant ahora);
+	@Query(VerboFlexionLectura.SELECT + " WHERE v.id IN :ids")
+	List<VerboFlexionLectura> findLecturaPorIds(@Param("ids") Collection<Integer> ids);
 
 	/**
-	 * Stream de todos los verbos activos (tienen proximaRevision)
+	 * Encuentra flexiones por el sloleksId (verbo base)
 	 */
-	@Query("SELECT v FROM VerboFlexion v WHERE v.proximaRevision IS NOT NULL")
-	Stream<VerboFlexion> streamActivos();
+	List<VerboFlexion> findBySloleksId(String sloleksId);
 
 	/**
-	 * Encuentra flexiones por el sloleksId (verbo base)
+	 * Flexiones de varias palabras a la vez, con su palabra base en la misma consulta
 	 */
-	List<VerboFlexion> findBySloleksId(String sloleksId);
+	@EntityGraph(attributePaths = "verboBase")
+	List<VerboFlexion> findBySloleksIdIn(Collection<String> sloleksIds);
 
 
 }
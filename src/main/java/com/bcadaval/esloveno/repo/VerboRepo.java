@@ -1,17 +1,27 @@
 package com.bcadaval.esloveno.repo;
 
-import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.bcadaval.esloveno.beans.palabra.Verbo;
+import com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura;
 
 @Repository
 public interface VerboRepo extends JpaRepository<Verbo, String>{
 
     /**
-     * Encuentra verbos con significado null o transitividad null
+     * Verbos con significado null o transitividad null, por ID a partir de {@code desde} (excluido).
+     * El WHERE coincide con el del índice parcial V_INCOMPLETOS
      */
-    List<Verbo> findBySignificadoIsNullOrTransitividadIsNull();
+    @Query("SELECT new com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura(v.sloleksId, v.principal, v.significado, v.transitividad) "
+            + "FROM Verbo v WHERE (v.significado IS NULL OR v.transitividad IS NULL) "
+            + "AND v.sloleksId > :desde AND v.principal LIKE :filtro ESCAPE '\\' ORDER BY v.sloleksId")
+    Stream<PalabraIncompletaLectura> streamIncompletos(@Param("desde") String desde, @Param("filtro") String filtro, Limit limite);
+
+    long countBySignificadoIsNullOrTransitividadIsNull();
 }
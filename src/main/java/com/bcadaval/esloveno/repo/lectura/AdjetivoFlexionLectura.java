@@ -0,0 +1,53 @@
+package com.bcadaval.esloveno.repo.lectura;
+
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.Caso;
+import com.bcadaval.esloveno.beans.enums.Definitud;
+import com.bcadaval.esloveno.beans.enums.Genero;
+import com.bcadaval.esloveno.beans.enums.Grado;
+import com.bcadaval.esloveno.beans.enums.Numero;
+import com.bcadaval.esloveno.beans.palabra.Adjetivo;
+import com.bcadaval.esloveno.beans.palabra.AdjetivoFlexion;
+import com.bcadaval.esloveno.structures.ClaveGramatical;
+
+/**
+ * Proyección de {@link AdjetivoFlexion} para el estudio: lo que usan las frases, sin
+ * pronunciaciones ni estado SRS (está en TARJETA_SRS). Del adjetivo base solo trae, en la
+ * misma fila (JOIN), el significado.
+ */
+public record AdjetivoFlexionLectura(
+        Integer id, String sloleksId, String principal,
+        Genero genero, Numero numero, Caso caso, Grado grado, Definitud definitud,
+        String flexion, String acentuado,
+        String significado) implements FlexionLectura {
+
+    /** Selección JPQL que construye la proyección; se completa con el WHERE de cada consulta */
+    public static final String SELECT = "SELECT new com.bcadaval.esloveno.repo.lectura.AdjetivoFlexionLectura("
+            + "a.id, a.sloleksId, a.principal, a.genero, a.numero, a.caso, a.grado, a.definitud, "
+            + "a.flexion, a.acentuado, b.significado) "
+            + "FROM AdjetivoFlexion a JOIN a.adjetivoBase b";
+
+    private static final long TIPO = ClaveGramatical.valorTipo(AdjetivoFlexion.class);
+
+    @Override
+    public long clave() {
+        return TIPO
+                | ClaveGramatical.valor(CaracteristicaGramatical.CASO, caso)
+                | ClaveGramatical.valor(CaracteristicaGramatical.GENERO, genero)
+                | ClaveGramatical.valor(CaracteristicaGramatical.NUMERO, numero)
+                | ClaveGramatical.valor(CaracteristicaGramatical.GRADO, grado)
+                | ClaveGramatical.valor(CaracteristicaGramatical.DEFINITUD, definitud);
+    }
+
+    @Override
+    public AdjetivoFlexion aFlexion() {
+        return AdjetivoFlexion.builder()
+                .id(id).sloleksId(sloleksId).principal(principal)
+                .genero(genero).numero(numero).caso(caso).grado(grado).definitud(definitud)
+                .flexion(flexion).acentuado(acentuado)
+                .adjetivoBase(Adjetivo.builder()
+                        .sloleksId(sloleksId).principal(principal).significado(significado)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,27 @@
+package com.bcadaval.esloveno.repo.lectura;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.structures.ClaveGramatical;
+
+/**
+ * Proyección de una flexión para el estudio, con las columnas de su palabra base que usan
+ * las frases en lugar de la entidad base.
+ * <p>
+ * Su clave gramatical sale de las columnas leídas, así que los criterios de las estructuras
+ * se comprueban sin construir la flexión: solo se construye para las que se van a estudiar.
+ */
+public interface FlexionLectura {
+
+    Integer id();
+
+    /**
+     * {@link ClaveGramatical} de la flexión; la misma que {@code ClaveGramatical.de(aFlexion())}
+     */
+    long clave();
+
+    /**
+     * Flexión sin gestionar por Hibernate: no ocupa el contexto de persistencia
+     * y se le puede copiar el estado de su tarjeta sin riesgo de que se vuelque a BD
+     */
+    PalabraFlexion<?> aFlexion();
+}
@@ -0,0 +1,38 @@
+package com.bcadaval.esloveno.repo.lectura;
+
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.beans.enums.Transitividad;
+import com.bcadaval.esloveno.rest.dto.PalabraIncompletaDTO;
+
+/**
+ * Proyección de una palabra sin completar: solo las columnas que se muestran para completarla.
+ * Cada tipo usa el constructor con los campos que tiene (animado para sustantivos,
+ * transitividad para verbos). En los pronombres el ID es el de la flexión.
+ */
+public record PalabraIncompletaLectura(
+        String id, String palabra, String significado,
+        Transitividad transitividad, Boolean animado) {
+
+    public PalabraIncompletaLectura(String id, String palabra, String significado) {
+        this(id, palabra, significado, null, null);
+    }
+
+    public PalabraIncompletaLectura(String id, String palabra, String significado, Boolean animado) {
+        this(id, palabra, significado, null, animado);
+    }
+
+    public PalabraIncompletaLectura(String id, String palabra, String significado, Transitividad transitividad) {
+        this(id, palabra, significado, transitividad, null);
+    }
+
+    public PalabraIncompletaDTO aDTO(TipoPalabra tipo) {
+        return PalabraIncompletaDTO.builder()
+                .id(id)
+                .palabra(palabra)
+                .tipo(tipo.getXmlCode())
+                .significado(significado)
+                .transitividad(transitividad != null ? transitividad.name() : null)
+                .animado(animado)
+                .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.bcadaval.esloveno.repo.lectura;
+
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.Caso;
+import com.bcadaval.esloveno.beans.enums.Genero;
+import com.bcadaval.esloveno.beans.enums.Numero;
+import com.bcadaval.esloveno.beans.palabra.Sustantivo;
+import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
+import com.bcadaval.esloveno.structures.ClaveGramatical;
+
+/**
+ * Proyección de {@link SustantivoFlexion} para el estudio: lo que usan las frases, sin
+ * pronunciaciones ni estado SRS (está en TARJETA_SRS). Del sustantivo base solo trae, en la
+ * misma fila (JOIN), el género y el significado.
+ */
+public record SustantivoFlexionLectura(
+        Integer id, String sloleksId, String principal,
+        Numero numero, Caso caso,
+        String flexion, String acentuado,
+        Genero genero, String significado) implements FlexionLectura {
+
+    /** Selección JPQL que construye la proyección; se completa con el WHERE de cada consulta */
+    public static final String SELECT = "SELECT new com.bcadaval.esloveno.repo.lectura.SustantivoFlexionLectura("
+            + "s.id, s.sloleksId, s.principal, s.numero, s.caso, "
+            + "s.flexion, s.acentuado, b.genero, b.significado) "
+            + "FROM SustantivoFlexion s JOIN s.sustantivoBase b";
+
+    private static final long TIPO = ClaveGramatical.valorTipo(SustantivoFlexion.class);
+
+    @Override
+    public long clave() {
+        return TIPO
+                | ClaveGramatical.valor(CaracteristicaGramatical.CASO, caso)
+                | ClaveGramatical.valor(CaracteristicaGramatical.NUMERO, numero)
+                | ClaveGramatical.valor(CaracteristicaGramatical.GENERO, genero);
+    }
+
+    @Override
+    public SustantivoFlexion aFlexion() {
+        return SustantivoFlexion.builder()
+                .id(id).sloleksId(sloleksId).principal(principal)
+                .numero(numero).caso(caso)
+                .flexion(flexion).acentuado(acentuado)
+                .sustantivoBase(Sustantivo.builder()
+                        .sloleksId(sloleksId).principal(principal)
+                        .genero(genero).significado(significado)
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.bcadaval.esloveno.repo.lectura;
+
+import java.time.Instant;
+
+import com.bcadaval.esloveno.beans.TarjetaSrs;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.services.srs.EstadoSrs;
+
+/**
+ * Proyección de {@link TarjetaSrs}: la clave de la tarjeta y su estado, sin entidades gestionadas.
+ */
+public record TarjetaSrsLectura(
+        TipoPalabra tipo, Integer flexionId,
+        Double factorFacilidad, Long intervaloRepeticionSegundos, Integer vecesConsecutivasCorrectas,
+        Integer totalRevisiones, Integer totalAciertos, Boolean enReaprendizaje,
+        Instant ultimaRevision, Instant proximaRevision) {
+
+    /** Selección JPQL que construye la proyección; se completa con el WHERE de cada consulta */
+    public static final String SELECT = "SELECT new com.bcadaval.esloveno.repo.lectura.TarjetaSrsLectura("
+            + "t.tipo, t.flexionId, t.factorFacilidad, t.intervaloRepeticionSegundos, t.vecesConsecutivasCorrectas, "
+            + "t.totalRevisiones, t.totalAciertos, t.enReaprendizaje, t.ultimaRevision, t.proximaRevision) "
+            + "FROM TarjetaSrs t";
+
+    public EstadoSrs estado() {
+        return new EstadoSrs(factorFacilidad, intervaloRepeticionSegundos, vecesConsecutivasCorrectas,
+                totalRevisiones, totalAciertos, Boolean.TRUE.equals(enReaprendizaje), ultimaRevision, proximaRevision);
+    }
+}
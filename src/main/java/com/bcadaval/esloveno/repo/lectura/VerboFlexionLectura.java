@@ -0,0 +1,56 @@
+package com.bcadaval.esloveno.repo.lectura;
+
+import com.bcadaval.esloveno.beans.enums.Aspecto;
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.FormaVerbal;
+import com.bcadaval.esloveno.beans.enums.Genero;
+import com.bcadaval.esloveno.beans.enums.Numero;
+import com.bcadaval.esloveno.beans.enums.Persona;
+import com.bcadaval.esloveno.beans.enums.Transitividad;
+import com.bcadaval.esloveno.beans.palabra.Verbo;
+import com.bcadaval.esloveno.beans.palabra.VerboFlexion;
+import com.bcadaval.esloveno.structures.ClaveGramatical;
+
+/**
+ * Proyección de {@link VerboFlexion} para el estudio: lo que usan las frases, sin
+ * pronunciaciones ni estado SRS (está en TARJETA_SRS). Del verbo base solo trae, en la
+ * misma fila (JOIN), la transitividad, el aspecto y el significado.
+ */
+public record VerboFlexionLectura(
+        Integer id, String sloleksId, String principal,
+        FormaVerbal formaVerbal, Persona persona, Numero numero, Genero genero, Boolean negativo,
+        String flexion, String acentuado,
+        Transitividad transitividad, Aspecto aspecto, String significado) implements FlexionLectura {
+
+    /** Selección JPQL que construye la proyección; se completa con el WHERE de cada consulta */
+    public static final String SELECT = "SELECT new com.bcadaval.esloveno.repo.lectura.VerboFlexionLectura("
+            + "v.id, v.sloleksId, v.principal, v.formaVerbal, v.persona, v.numero, v.genero, v.negativo, "
+            + "v.flexion, v.acentuado, b.transitividad, b.aspecto, b.significado) "
+            + "FROM VerboFlexion v JOIN v.verboBase b";
+
+    private static final long TIPO = ClaveGramatical.valorTipo(VerboFlexion.class);
+
+    @Override
+    public long clave() {
+        return TIPO
+                | ClaveGramatical.valor(CaracteristicaGramatical.FORMA_VERBAL, formaVerbal)
+                | ClaveGramatical.valor(CaracteristicaGramatical.PERSONA, persona)
+                | ClaveGramatical.valor(CaracteristicaGramatical.NUMERO, numero)
+                | ClaveGramatical.valor(CaracteristicaGramatical.GENERO, genero)
+                | ClaveGramatical.valor(CaracteristicaGramatical.TRANSITIVIDAD, transitividad)
+                | ClaveGramatical.valor(CaracteristicaGramatical.NEGATIVO, negativo);
+    }
+
+    @Override
+    public VerboFlexion aFlexion() {
+        return VerboFlexion.builder()
+                .id(id).sloleksId(sloleksId).principal(principal)
+                .formaVerbal(formaVerbal).persona(persona).numero(numero).genero(genero).negativo(negativo)
+                .flexion(flexion).acentuado(acentuado)
+                .verboBase(Verbo.builder()
+                        .sloleksId(sloleksId).principal(principal)
+                        .transitividad(transitividad).aspecto(aspecto).significado(significado)
+                        .build())
+                .build();
+    }
+}
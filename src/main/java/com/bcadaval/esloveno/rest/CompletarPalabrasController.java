@@ -1,78 +1,52 @@
 package com.bcadaval.esloveno.rest;
 
-import java.time.Instant;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.Map;
 
-import com.bcadaval.esloveno.beans.base.PalabraFlexion;
-import com.bcadaval.esloveno.beans.enums.TipoPalabra;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import com.bcadaval.esloveno.beans.palabra.AdjetivoFlexion;
-import com.bcadaval.esloveno.beans.palabra.NumeralFlexion;
-import com.bcadaval.esloveno.beans.palabra.PronombreFlexion;
-import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
-import com.bcadaval.esloveno.beans.palabra.VerboFlexion;
-import com.bcadaval.esloveno.beans.enums.Transitividad;
-import com.bcadaval.esloveno.repo.AdjetivoFlexionRepo;
-import com.bcadaval.esloveno.repo.AdjetivoRepo;
-import com.bcadaval.esloveno.repo.NumeralFlexionRepo;
-import com.bcadaval.esloveno.repo.NumeralRepo;
-import com.bcadaval.esloveno.repo.PronombreFlexionRepo;
-import com.bcadaval.esloveno.repo.SustantivoFlexionRepo;
-import com.bcadaval.esloveno.repo.SustantivoRepo;
-import com.bcadaval.esloveno.repo.VerboFlexionRepo;
-import com.bcadaval.esloveno.repo.VerboRepo;
-import com.bcadaval.esloveno.rest.dto.PalabraIncompletaDTO;
+import com.bcadaval.esloveno.rest.dto.ActualizarPalabraRequest;
 import com.bcadaval.esloveno.rest.dto.ActualizarPalabraResponse;
-import com.bcadaval.esloveno.services.VariablesService;
+import com.bcadaval.esloveno.rest.dto.TotalPalabrasIncompletasDTO;
+import com.bcadaval.esloveno.services.CompletarPalabrasService;
+import com.bcadaval.esloveno.services.PalabrasIncompletasService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.log4j.Log4j2;
 
 /**
  * Controlador para completar palabras que tienen datos faltantes.
- * Al completar una palabra, inicializa los campos SRS de sus flexiones
- * para que estén disponibles para el estudio.
+ * Al completar una palabra, crea la tarjeta SRS de sus flexiones
+ * para que estén disponibles para el estudio (ver {@link CompletarPalabrasService}).
  */
 @Log4j2
 @Controller
 public class CompletarPalabrasController {
 
-    @Autowired
-    private VerboRepo verboRepo;
-
-    @Autowired
-    private SustantivoRepo sustantivoRepo;
-
-    @Autowired
-    private AdjetivoRepo adjetivoRepo;
-
-    @Autowired
-    private VerboFlexionRepo verboFlexionRepo;
-
-    @Autowired
-    private SustantivoFlexionRepo sustantivoFlexionRepo;
+    /** Máximo de palabras por página de /api/palabrasIncompletas */
+    private static final int LIMITE_MAXIMO = 500;
 
     @Autowired
-    private AdjetivoFlexionRepo adjetivoFlexionRepo;
+    private CompletarPalabrasService completarPalabrasService;
 
     @Autowired
-    private PronombreFlexionRepo pronombreFlexionRepo;
+    private PalabrasIncompletasService palabrasIncompletasService;
 
     @Autowired
-    private NumeralRepo numeralRepo;
-
-    @Autowired
-    private NumeralFlexionRepo numeralFlexionRepo;
-
-    @Autowired
-    private VariablesService variablesService;
+    private ObjectMapper objectMapper;
 
     /**
      * Muestra la página para completar palabras incompletas
@@ -84,57 +58,65 @@ public class CompletarPalabrasController {
     }
 
     /**
-     * Obtiene la lista de palabras incompletas
+     * Una página de palabras incompletas, filtrada por texto en el servidor
      * - Todas: significado null
      * - Verbos: transitividad null
      * - Sustantivos: animado null
-     * - Adjetivos: significado null
+     * <p>
+     * Devuelve {"palabras": [...], "siguiente": cursor}; {@code siguiente} es null en la última página.
+     * El JSON se escribe a medida que se leen las filas, sin construir la lista completa.
+     *
+     * @param desde  Cursor devuelto en la página anterior (vacío para la primera)
+     * @param filtro Texto que debe contener la palabra
+     * @param limite Palabras por página, hasta {@value #LIMITE_MAXIMO}
      */
     @GetMapping("/api/palabrasIncompletas")
+    public ResponseEntity<StreamingResponseBody> obtenerPalabrasIncompletas(
+            @RequestParam(required = false) String desde,
+            @RequestParam(required = false) String filtro,
+            @RequestParam(defaultValue = "100") int limite) {
+
+        PalabrasIncompletasService.Cursor cursor;
+        try {
+            cursor = desde == null || desde.isBlank() ? null : PalabrasIncompletasService.Cursor.de(desde);
+        } catch (IllegalArgumentException e) {
+            log.warn("Cursor de palabras incompletas no válido: {}", desde);
+            return ResponseEntity.badRequest().build();
+        }
+        int tamanio = Math.clamp(limite, 1, LIMITE_MAXIMO);
+        log.info("Obteniendo palabras incompletas desde {} (filtro: {})", cursor, filtro);
+
+        StreamingResponseBody cuerpo = salida -> {
+            try (JsonGenerator json = objectMapper.createGenerator(salida)) {
+                json.writeStartObject();
+                json.writeArrayFieldStart("palabras");
+                PalabrasIncompletasService.Cursor siguiente = palabrasIncompletasService.listar(cursor, filtro, tamanio, palabra -> {
+                    try {
+                        json.writeObject(palabra);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                json.writeEndArray();
+                json.writeStringField("siguiente", siguiente != null ? siguiente.toString() : null);
+                json.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(cuerpo);
+    }
+
+    /**
+     * Número de palabras incompletas, total y por tipo
+     */
+    @GetMapping("/api/palabrasIncompletas/total")
     @ResponseBody
-    public List<PalabraIncompletaDTO> obtenerPalabrasIncompletas() {
-        log.info("Obteniendo palabras incompletas");
-        List<PalabraIncompletaDTO> palabrasIncompletas = new ArrayList<>();
-
-        Stream.of(TipoPalabra.values()).map(tipoPalabra -> switch (tipoPalabra) {
-            case SUSTANTIVO -> sustantivoRepo.findBySignificadoIsNullOrAnimadoIsNull().stream()
-                .map(sustantivo -> PalabraIncompletaDTO.builder()
-                    .id(sustantivo.getSloleksId())
-                    .palabra(sustantivo.getPrincipal())
-                    .tipo(TipoPalabra.SUSTANTIVO.getXmlCode())
-                    .significado(sustantivo.getSignificado())
-                    .animado(sustantivo.getAnimado()));
-            case VERBO -> verboRepo.findBySignificadoIsNullOrTransitividadIsNull().stream()
-                .map(verbo -> PalabraIncompletaDTO.builder()
-                    .id(verbo.getSloleksId())
-                    .palabra(verbo.getPrincipal())
-                    .tipo(TipoPalabra.VERBO.getXmlCode())
-                    .significado(verbo.getSignificado())
-                    .transitividad(verbo.getTransitividad() != null ? verbo.getTransitividad().name() : null));
-            case ADJETIVO -> adjetivoRepo.findBySignificadoIsNull().stream()
-                .map(adjetivo -> PalabraIncompletaDTO.builder()
-                    .id(adjetivo.getSloleksId())
-                    .palabra(adjetivo.getPrincipal())
-                    .tipo(TipoPalabra.ADJETIVO.getXmlCode())
-                    .significado(adjetivo.getSignificado()));
-            case PRONOMBRE -> pronombreFlexionRepo.findBySignificadoIsNull().stream()
-                .map(pronombreFlexion -> PalabraIncompletaDTO.builder()
-                    .id(pronombreFlexion.getId().toString())
-                    .palabra(pronombreFlexion.getFlexion())
-                    .tipo(TipoPalabra.PRONOMBRE.getXmlCode())
-                    .significado(pronombreFlexion.getSignificado()));
-            case NUMERAL -> numeralRepo.findBySignificadoIsNull().stream()
-                .map(numeral -> PalabraIncompletaDTO.builder()
-                    .id(numeral.getSloleksId())
-                    .palabra(numeral.getPrincipal())
-                    .tipo(TipoPalabra.NUMERAL.getXmlCode())
-                    .significado(numeral.getSignificado()));
-                }
-        ).forEach(el -> palabrasIncompletas.addAll(el.map(PalabraIncompletaDTO.PalabraIncompletaDTOBuilder::build).toList()));
-
-
-        log.info("Encontradas {} palabras incompletas", palabrasIncompletas.size());
-        return palabrasIncompletas;
+    public TotalPalabrasIncompletasDTO contarPalabrasIncompletas() {
+        Map<String, Long> porTipo = new LinkedHashMap<>();
+        palabrasIncompletasService.contar().forEach((tipo, total) -> porTipo.put(tipo.getXmlCode(), total));
+        return TotalPalabrasIncompletasDTO.builder()
+                .total(porTipo.values().stream().mapToLong(Long::longValue).sum())
+                .porTipo(porTipo)
+                .build();
     }
 
     /**
@@ -150,81 +132,35 @@ public class CompletarPalabrasController {
             @RequestParam(required = false) Boolean animado) {
 
         log.info("Actualizando palabra: id={}, tipo={}", id, tipo);
+        return actualizarPalabras(List.of(ActualizarPalabraRequest.builder()
+                .id(id)
+                .tipo(tipo)
+                .significado(significado)
+                .transitividad(transitividad)
+                .animado(animado)
+                .build()))
+                .getFirst();
+    }
 
+    /**
+     * Actualiza varias palabras incompletas en una sola transacción.
+     * Devuelve un resultado por palabra, en el mismo orden; si falla la BD no se aplica ninguna.
+     */
+    @PostMapping("/api/actualizarPalabras")
+    @ResponseBody
+    public List<ActualizarPalabraResponse> actualizarPalabras(@RequestBody List<ActualizarPalabraRequest> palabras) {
+        log.info("Actualizando {} palabras", palabras.size());
         try {
-
-            switch(TipoPalabra.valueOf(tipo)) {
-                case SUSTANTIVO -> sustantivoRepo.save(sustantivoRepo.findById(id)
-                        .orElseThrow(() -> new RuntimeException("Sustantivo no encontrado: " + id))
-                        .setSignificado(significado)
-                        .setAnimado(animado)
-                );
-                case VERBO -> verboRepo.save(verboRepo.findById(id)
-                        .orElseThrow(() -> new RuntimeException("Verbo no encontrado: " + id))
-                        .setSignificado(significado)
-                        .setTransitividad(Transitividad.valueOf(transitividad))
-                );
-                case ADJETIVO -> adjetivoRepo.save(adjetivoRepo.findById(id)
-                        .orElseThrow(() -> new RuntimeException("Adjetivo no encontrado: " + id))
-                        .setSignificado(significado)
-                );
-                case PRONOMBRE -> pronombreFlexionRepo.save(pronombreFlexionRepo.findById(Integer.valueOf(id))
-                        .orElseThrow(() -> new RuntimeException("Pronombre no encontrado: " + id))
-                        .setSignificado(significado)
-                );
-                case NUMERAL -> numeralRepo.save(numeralRepo.findById(id)
-                        .orElseThrow(() -> new RuntimeException("Numeral no encontrado: " + id))
-                        .setSignificado(significado)
-                );
-            }
-
-
-            // Inicializar campos SRS en flexiones relacionadas para que estén disponibles
-            Instant ahora = Instant.now();
-            Double factorInicial = variablesService.getFactorFacilidadInicial();
-
-            List<? extends PalabraFlexion<?>> lista = switch (TipoPalabra.valueOf(tipo)) {
-                case SUSTANTIVO -> sustantivoFlexionRepo.findBySloleksId(id);
-                case VERBO -> verboFlexionRepo.findBySloleksId(id);
-                case ADJETIVO -> adjetivoFlexionRepo.findBySloleksId(id);
-                case PRONOMBRE -> pronombreFlexionRepo.findById(Integer.valueOf(id)).stream().toList();
-                case NUMERAL -> numeralFlexionRepo.findBySloleksId(id);
-            };
-            lista.forEach(flexion -> inicializarCamposSrs(flexion, ahora, factorInicial));
-            switch (TipoPalabra.valueOf(tipo)) {
-                case SUSTANTIVO -> sustantivoFlexionRepo.saveAll(lista.stream().map(f -> (SustantivoFlexion) f).toList());
-                case VERBO -> verboFlexionRepo.saveAll(lista.stream().map(f -> (VerboFlexion) f).toList());
-                case ADJETIVO -> adjetivoFlexionRepo.saveAll(lista.stream().map(f -> (AdjetivoFlexion) f).toList());
-                case PRONOMBRE -> pronombreFlexionRepo.saveAll(lista.stream().map(f -> (PronombreFlexion) f).toList());
-                case NUMERAL -> numeralFlexionRepo.saveAll(lista.stream().map(f -> (NumeralFlexion) f).toList());
-            }
-            log.info("Inicializadas {} flexiones de {} {}", lista.size(), tipo, id);
-
-            return ActualizarPalabraResponse.builder()
-                    .exito(true)
-                    .mensaje("Palabra actualizada correctamente")
-                    .palabra(id)
-                    .build();
-
+            return completarPalabrasService.completar(palabras);
         } catch (Exception e) {
-            log.error("Error al actualizar palabra: {}", e.getMessage(), e);
-            return ActualizarPalabraResponse.builder()
-                    .exito(false)
-                    .mensaje("Error al actualizar la palabra: " + e.getMessage())
-                    .palabra(id)
-                    .build();
-        }
-    }
-
-    private void inicializarCamposSrs(PalabraFlexion<?> palabra, Instant ahora, Double factorInicial) {
-        if (palabra.getProximaRevision() == null) {
-            palabra.setFactorFacilidad(factorInicial);
-            palabra.setIntervaloRepeticionSegundos(0L);
-            palabra.setVecesConsecutivasCorrectas(0);
-            palabra.setTotalRevisiones(0);
-            palabra.setTotalAciertos(0);
-            palabra.setEnReaprendizaje(false);
-            palabra.setProximaRevision(ahora);
+            log.error("Error al actualizar palabras: {}", e.getMessage(), e);
+            return palabras.stream()
+                    .map(palabra -> ActualizarPalabraResponse.builder()
+                            .exito(false)
+                            .mensaje("Error al actualizar la palabra: " + e.getMessage())
+                            .palabra(palabra.getId())
+                            .build())
+                    .toList();
         }
     }
 }
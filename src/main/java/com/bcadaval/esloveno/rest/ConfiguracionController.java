@@ -1,10 +1,12 @@
 package com.bcadaval.esloveno.rest;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.ResponseBody;
 
 import com.bcadaval.esloveno.beans.Variable;
 import com.bcadaval.esloveno.services.EstructuraFraseService;
+import com.bcadaval.esloveno.services.PlantillasFraseService;
 import com.bcadaval.esloveno.services.VariablesService;
 
 import lombok.extern.log4j.Log4j2;
@@ -31,6 +34,9 @@ public class ConfiguracionController {
     @Autowired
     private EstructuraFraseService estructuraFraseService;
 
+    @Autowired
+    private PlantillasFraseService plantillasFraseService;
+
     /**
      * Muestra la página de configuración
      */
@@ -59,11 +65,11 @@ public class ConfiguracionController {
     }
 
     /**
-     * Guarda la configuración de variables
+     * Guarda la configuración de variables. Si algún valor no es válido responde 400 y no guarda ninguno.
      */
     @PostMapping("/api/guardarConfiguracion")
     @ResponseBody
-    public String guardarConfiguracion(
+    public ResponseEntity<String> guardarConfiguracion(
             @RequestParam(required = false) String intervaloInicial,
             @RequestParam(required = false) String intervaloSegunda,
             @RequestParam(required = false) String intervaloReaprendizaje,
@@ -77,39 +83,62 @@ public class ConfiguracionController {
         log.info("Guardando configuración");
 
         try {
+            List<Variable> variables = new ArrayList<>();
             if (intervaloInicial != null) {
-                actualizarVariable(VariablesService.INTERVALO_INICIAL_SEGUNDOS, intervaloInicial, "LONG");
+                variables.add(crearVariable(VariablesService.INTERVALO_INICIAL_SEGUNDOS, intervaloInicial, "LONG"));
             }
             if (intervaloSegunda != null) {
-                actualizarVariable(VariablesService.INTERVALO_SEGUNDA_SEGUNDOS, intervaloSegunda, "LONG");
+                variables.add(crearVariable(VariablesService.INTERVALO_SEGUNDA_SEGUNDOS, intervaloSegunda, "LONG"));
             }
             if (intervaloReaprendizaje != null) {
-                actualizarVariable(VariablesService.INTERVALO_REAPRENDIZAJE_SEGUNDOS, intervaloReaprendizaje, "LONG");
+                variables.add(crearVariable(VariablesService.INTERVALO_REAPRENDIZAJE_SEGUNDOS, intervaloReaprendizaje, "LONG"));
             }
             if (factorFacilidadMinimo != null) {
-                actualizarVariable(VariablesService.FACTOR_FACILIDAD_MINIMO, factorFacilidadMinimo, "DOUBLE");
+                variables.add(crearVariable(VariablesService.FACTOR_FACILIDAD_MINIMO, factorFacilidadMinimo, "DOUBLE"));
             }
             if (factorFacilidadInicial != null) {
-                actualizarVariable(VariablesService.FACTOR_FACILIDAD_INICIAL, factorFacilidadInicial, "DOUBLE");
+                variables.add(crearVariable(VariablesService.FACTOR_FACILIDAD_INICIAL, factorFacilidadInicial, "DOUBLE"));
             }
             if (penalizacionFallo != null) {
-                actualizarVariable(VariablesService.PENALIZACION_FALLO, penalizacionFallo, "DOUBLE");
+                variables.add(crearVariable(VariablesService.PENALIZACION_FALLO, penalizacionFallo, "DOUBLE"));
             }
             if (maxTarjetasNuevas != null) {
-                actualizarVariable(VariablesService.MAX_TARJETAS_NUEVAS_DIA, maxTarjetasNuevas, "INTEGER");
+                variables.add(crearVariable(VariablesService.MAX_TARJETAS_NUEVAS_DIA, maxTarjetasNuevas, "INTEGER"));
             }
             if (maxTarjetasRevision != null) {
-                actualizarVariable(VariablesService.MAX_TARJETAS_REVISION_DIA, maxTarjetasRevision, "INTEGER");
+                variables.add(crearVariable(VariablesService.MAX_TARJETAS_REVISION_DIA, maxTarjetasRevision, "INTEGER"));
             }
             if (mezclarTarjetas != null) {
-                actualizarVariable(VariablesService.MEZCLAR_TARJETAS, mezclarTarjetas, "BOOLEAN");
+                variables.add(crearVariable(VariablesService.MEZCLAR_TARJETAS, mezclarTarjetas, "BOOLEAN"));
             }
 
+            // Se guardan juntas para publicar una única instantánea de configuración
+            variablesService.guardarVariables(variables);
+
             log.info("Configuración guardada correctamente");
-            return "{\"exito\": true, \"mensaje\": \"Configuración guardada correctamente\"}";
+            return ResponseEntity.ok("{\"exito\": true, \"mensaje\": \"Configuración guardada correctamente\"}");
 
+        } catch (IllegalArgumentException e) {
+            log.warn("Configuración no válida: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("{\"exito\": false, \"mensaje\": \""
+                    + e.getMessage().replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
         } catch (Exception e) {
             log.error("Error al guardar configuración: {}", e.getMessage(), e);
+            return ResponseEntity.ok("{\"exito\": false, \"mensaje\": \"Error: " + e.getMessage() + "\"}");
+        }
+    }
+
+    /**
+     * Vuelve a cargar las plantillas de frase sin reiniciar
+     */
+    @PostMapping("/api/recargarPlantillas")
+    @ResponseBody
+    public String recargarPlantillas() {
+        try {
+            int cargadas = plantillasFraseService.recargar();
+            return "{\"exito\": true, \"mensaje\": \"Plantillas recargadas: " + cargadas + "\"}";
+        } catch (Exception e) {
+            log.error("Error al recargar plantillas: {}", e.getMessage(), e);
             return "{\"exito\": false, \"mensaje\": \"Error: " + e.getMessage() + "\"}";
         }
     }
@@ -134,13 +163,12 @@ public class ConfiguracionController {
         }
     }
 
-    private void actualizarVariable(String clave, String valor, String tipo) {
-        Variable variable = Variable.builder()
+    private Variable crearVariable(String clave, String valor, String tipo) {
+        return Variable.builder()
                 .clave(clave)
                 .valor(valor)
                 .tipo(tipo)
                 .build();
-        variablesService.guardarVariable(variable);
     }
 
     /**
@@ -1,13 +1,24 @@
 package com.bcadaval.esloveno.rest;
 
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.bcadaval.esloveno.rest.dto.EstadisticaCacheDTO;
 import com.bcadaval.esloveno.rest.dto.EstadisticasDTO;
-import com.bcadaval.esloveno.services.RepeticionEspaciadaService;
+import com.bcadaval.esloveno.rest.dto.HistorialTramoDTO;
+import com.bcadaval.esloveno.rest.dto.PrecisionEstructuraDTO;
+import com.bcadaval.esloveno.rest.dto.PronosticoDTO;
+import com.bcadaval.esloveno.rest.dto.RetencionIntervaloDTO;
+import com.bcadaval.esloveno.services.CacheLexicoService;
+import com.bcadaval.esloveno.services.EstadisticasService;
+import com.bcadaval.esloveno.services.srs.HistorialRevisionesService;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -18,8 +29,14 @@ import lombok.extern.log4j.Log4j2;
 @Controller
 public class EstadisticasController {
 
+    /** Máximo de días hacia atrás del historial y la retención (10 años) */
+    private static final int MAX_DIAS_HISTORIAL = 3650;
+
     @Autowired
-    private RepeticionEspaciadaService repeticionEspaciadaService;
+    private EstadisticasService estadisticasService;
+
+    @Autowired
+    private CacheLexicoService cacheLexicoService;
 
     /**
      * Muestra la página de estadísticas con gráficos
@@ -27,7 +44,7 @@ public class EstadisticasController {
     @GetMapping("/estadisticas")
     public String mostrarEstadisticas(Model model) {
         log.debug("Accediendo a la página de estadísticas");
-        EstadisticasDTO estadisticas = repeticionEspaciadaService.obtenerEstadisticas();
+        EstadisticasDTO estadisticas = estadisticasService.obtenerEstadisticas();
         model.addAttribute("estadisticas", estadisticas);
         return "estadisticas";
     }
@@ -39,7 +56,66 @@ public class EstadisticasController {
     @ResponseBody
     public EstadisticasDTO obtenerEstadisticasJson() {
         log.debug("Obteniendo estadísticas en JSON");
-        return repeticionEspaciadaService.obtenerEstadisticas();
+        return estadisticasService.obtenerEstadisticas();
+    }
+
+    /**
+     * Pronóstico de tarjetas que vencen en la próxima hora, día y semana, y desglose por días
+     */
+    @GetMapping("/api/estadisticas/pronostico")
+    @ResponseBody
+    public PronosticoDTO obtenerPronostico(@RequestParam(defaultValue = "7") int dias) {
+        return estadisticasService.obtenerPronostico(Math.min(Math.max(dias, 1), 365));
+    }
+
+    /**
+     * Revisiones y aciertos por hora ("H") o por día ("D") de los últimos días.
+     * Una granularidad distinta responde 400
+     */
+    @GetMapping("/api/estadisticas/historial")
+    @ResponseBody
+    public ResponseEntity<List<HistorialTramoDTO>> obtenerHistorial(
+            @RequestParam(defaultValue = HistorialRevisionesService.POR_DIA) String granularidad,
+            @RequestParam(defaultValue = "30") int dias) {
+        if (!HistorialRevisionesService.POR_HORA.equals(granularidad)
+                && !HistorialRevisionesService.POR_DIA.equals(granularidad)) {
+            log.warn("Granularidad de historial no válida: {}", granularidad);
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(estadisticasService.obtenerHistorial(granularidad, limitarDias(dias)));
+    }
+
+    /**
+     * Curva de retención: tasa de aciertos según el tiempo desde la revisión anterior
+     */
+    @GetMapping("/api/estadisticas/retencion")
+    @ResponseBody
+    public List<RetencionIntervaloDTO> obtenerRetencion(@RequestParam(defaultValue = "30") int dias) {
+        return estadisticasService.obtenerRetencion(limitarDias(dias));
     }
-}
 
+    /**
+     * Tasa de aciertos por estructura de frase activa
+     */
+    @GetMapping("/api/estadisticas/estructuras")
+    @ResponseBody
+    public List<PrecisionEstructuraDTO> obtenerPrecisionPorEstructura() {
+        return estadisticasService.obtenerPrecisionPorEstructura();
+    }
+
+    /**
+     * Aciertos y fallos de cada región de la caché de segundo nivel
+     */
+    @GetMapping("/api/estadisticas/cache")
+    @ResponseBody
+    public List<EstadisticaCacheDTO> obtenerEstadisticasCache() {
+        return cacheLexicoService.obtenerEstadisticas();
+    }
+
+    /**
+     * Ventana hacia atrás del historial entre 1 día y {@value #MAX_DIAS_HISTORIAL}
+     */
+    private static int limitarDias(int dias) {
+        return Math.min(Math.max(dias, 1), MAX_DIAS_HISTORIAL);
+    }
+}
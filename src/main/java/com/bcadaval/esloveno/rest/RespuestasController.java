@@ -8,10 +8,12 @@ import org.springframework.web.bind.annotation.RequestParam;
 import java.util.Map;
 import java.util.TreeMap;
 
-import com.bcadaval.esloveno.repo.VerboFlexionRepo;
-import com.bcadaval.esloveno.repo.SustantivoFlexionRepo;
-import com.bcadaval.esloveno.repo.AdjetivoFlexionRepo;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.services.ConsultaPalabrasService;
 import com.bcadaval.esloveno.services.RepeticionEspaciadaService;
+import com.bcadaval.esloveno.services.SesionEstudioService;
+import com.bcadaval.esloveno.services.srs.ClaveTarjeta;
+import com.bcadaval.esloveno.structures.FraseTipoPalabra;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -22,7 +24,8 @@ import lombok.extern.log4j.Log4j2;
  * <p>
  * Recibe respuestas de forma: tipo_INDEX, id_INDEX, valor_INDEX
  * Donde INDEX es el índice del elemento en la lista del formulario
- * tipo es 'v', 's', 'a' o 'p' (verbo, sustantivo, adjetivo, pronombre)
+ * tipo es 'v', 's', 'a', 'p' o 'n' (verbo, sustantivo, adjetivo, pronombre, número);
+ * pronombres y números no tienen tarjeta SRS
  * id es el identificador numérico de la flexión en su tabla
  * Y valor es "arriba" (recordó) o "abajo" (no recordó)
  */
@@ -31,16 +34,13 @@ import lombok.extern.log4j.Log4j2;
 public class RespuestasController {
 
 	@Autowired
-	private VerboFlexionRepo verboFlexionRepo;
+	private ConsultaPalabrasService consultaPalabrasService;
 
 	@Autowired
-	private SustantivoFlexionRepo sustantivoFlexionRepo;
-
-	@Autowired
-	private AdjetivoFlexionRepo adjetivoFlexionRepo;
+	private RepeticionEspaciadaService repeticionEspaciadaService;
 
 	@Autowired
-	private RepeticionEspaciadaService repeticionEspaciadaService;
+	private SesionEstudioService sesionEstudioService;
 
 	@PostMapping("/enviarRespuestas")
 	public String enviarRespuestas(@RequestParam Map<String, String> params) {
@@ -88,45 +88,32 @@ public class RespuestasController {
 
 				log.info("Procesando: tipo={}, id={}, recordó={}", tipoStr, id, recordo);
 
-				// Recuperar la entidad y actualizar el SRS
-				switch (tipoStr) {
-					case "v": // Verbo
-						verboFlexionRepo.findById(id).ifPresentOrElse(
-							verbo -> {
-								log.info("VerboFlexion: {} - Recordó: {}", verbo.getFlexion(), recordo);
-								repeticionEspaciadaService.procesarRespuesta(verbo, recordo);
-							},
-							() -> log.warn("VerboFlexion con ID {} no encontrado", id)
-						);
-						break;
-
-					case "s": // Sustantivo
-						sustantivoFlexionRepo.findById(id).ifPresentOrElse(
-							sustantivo -> {
-								log.info("SustantivoFlexion: {} - Recordó: {}", sustantivo.getFlexion(), recordo);
-								repeticionEspaciadaService.procesarRespuesta(sustantivo, recordo);
-							},
-							() -> log.warn("SustantivoFlexion con ID {} no encontrado", id)
-						);
-						break;
-
-					case "a": // Adjetivo
-						adjetivoFlexionRepo.findById(id).ifPresentOrElse(
-							adjetivo -> {
-								log.info("AdjetivoFlexion: {} - Recordó: {}", adjetivo.getFlexion(), recordo);
-								repeticionEspaciadaService.procesarRespuesta(adjetivo, recordo);
-							},
-							() -> log.warn("AdjetivoFlexion con ID {} no encontrado", id)
-						);
-						break;
-
-					case "p": // Pronombre (sin SRS por ahora)
-						log.info("Pronombre (tipo 'p') - ID: {} - No tiene SRS", id);
-						break;
-
-					default:
+				// Si la tarjeta estaba también en una frase pendiente de la sesión, esa frase ya no vale
+				FraseTipoPalabra tipo = FraseTipoPalabra.fromCodigo(tipoStr);
+				if (tipo != null) {
+					sesionEstudioService.descartarFrasesCon(tipo, id);
+				}
+
+				// Recuperar la flexión con su tarjeta y actualizar el SRS
+				TipoPalabra tipoPalabra = tipo != null ? TipoPalabra.fromFlexionClass(tipo.getClazz()) : null;
+				if (tipoPalabra == null) {
+					if (tipo == null) {
 						log.warn("Tipo de palabra desconocido: {}", tipoStr);
+					} else {
+						log.info("{} (tipo '{}') - ID: {} - No tiene SRS", tipo, tipoStr, id);
+					}
+					continue;
 				}
+				consultaPalabrasService.buscarTarjeta(new ClaveTarjeta(tipoPalabra, id)).ifPresentOrElse(
+					flexion -> {
+						log.info("{}: {} - Recordó: {}", flexion.getClass().getSimpleName(), flexion.getFlexion(), recordo);
+						repeticionEspaciadaService.procesarRespuesta(flexion, recordo);
+						if (!recordo) {
+							sesionEstudioService.registrarFallo(flexion);
+						}
+					},
+					() -> log.warn("{} con ID {} no encontrada o sin tarjeta", tipoPalabra.getFlexionClazz().getSimpleName(), id)
+				);
 			}
 
 			log.info("=== FIN PROCESAMIENTO ===\n");
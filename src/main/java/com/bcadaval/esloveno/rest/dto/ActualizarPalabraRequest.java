@@ -0,0 +1,41 @@
+package com.bcadaval.esloveno.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con los datos para completar una palabra incompleta
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActualizarPalabraRequest {
+
+    /**
+     * ID de la palabra (sloleksId; ID de la flexión para los pronombres)
+     */
+    private String id;
+
+    /**
+     * Tipo de palabra (nombre de {@link com.bcadaval.esloveno.beans.enums.TipoPalabra})
+     */
+    private String tipo;
+
+    /**
+     * Significado en español
+     */
+    private String significado;
+
+    /**
+     * Transitividad, obligatoria para los verbos
+     */
+    private String transitividad;
+
+    /**
+     * Si el sustantivo es animado
+     */
+    private Boolean animado;
+}
@@ -0,0 +1,32 @@
+package com.bcadaval.esloveno.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Uso de una región de la caché de segundo nivel desde el arranque
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EstadisticaCacheDTO {
+
+    /** Nombre de la región (entidad, resultados de consultas o marcas de tiempo) */
+    private String region;
+
+    private long aciertos;
+
+    private long fallos;
+
+    /** Veces que se ha guardado un elemento en la región */
+    private long escrituras;
+
+    /** Elementos en memoria (null si el proveedor no lo informa) */
+    private Long elementos;
+
+    /** aciertos / (aciertos + fallos), 0 si aún no se ha consultado */
+    private double tasaAciertos;
+}
@@ -0,0 +1,38 @@
+package com.bcadaval.esloveno.rest.dto;
+
+import java.time.Instant;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para las revisiones de un tramo del historial (hora o día)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HistorialTramoDTO {
+
+    /**
+     * Inicio del tramo (UTC)
+     */
+    private Instant inicio;
+
+    /**
+     * Total de revisiones
+     */
+    private Long revisiones;
+
+    /**
+     * Total de aciertos
+     */
+    private Long aciertos;
+
+    /**
+     * Tasa de aciertos en porcentaje
+     */
+    private Double tasaAciertos;
+}
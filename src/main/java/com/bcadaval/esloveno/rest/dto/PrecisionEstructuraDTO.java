@@ -0,0 +1,41 @@
+package com.bcadaval.esloveno.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para la tasa de aciertos de las palabras que encajan en una estructura de frase
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrecisionEstructuraDTO {
+
+    /**
+     * Identificador de la estructura
+     */
+    private String identificador;
+
+    /**
+     * Nombre para mostrar de la estructura
+     */
+    private String nombre;
+
+    /**
+     * Total de revisiones
+     */
+    private Long revisiones;
+
+    /**
+     * Total de aciertos
+     */
+    private Long aciertos;
+
+    /**
+     * Tasa de aciertos en porcentaje
+     */
+    private Double tasaAciertos;
+}
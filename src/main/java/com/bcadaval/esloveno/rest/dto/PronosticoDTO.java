@@ -0,0 +1,54 @@
+package com.bcadaval.esloveno.rest.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para el pronóstico de carga de revisiones.
+ * Las horas y los días se cuentan desde el momento de la consulta, no por calendario.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PronosticoDTO {
+
+    /**
+     * Tarjetas ya vencidas
+     */
+    private Integer vencidasAhora;
+
+    /**
+     * Tarjetas que estarán vencidas dentro de una hora (incluye las ya vencidas)
+     */
+    private Integer proximaHora;
+
+    /**
+     * Tarjetas que estarán vencidas dentro de un día (incluye las ya vencidas)
+     */
+    private Integer proximoDia;
+
+    /**
+     * Tarjetas que estarán vencidas dentro de una semana (incluye las ya vencidas)
+     */
+    private Integer proximaSemana;
+
+    /**
+     * Tarjetas que vencen en cada una de las próximas 24 horas
+     */
+    private List<Integer> porHora;
+
+    /**
+     * Tarjetas que vencen en cada uno de los próximos días
+     */
+    private List<Integer> porDia;
+
+    /**
+     * Tarjetas vencidas al final de cada uno de los próximos días (incluye las ya vencidas)
+     */
+    private List<Integer> acumuladoPorDia;
+}
@@ -0,0 +1,41 @@
+package com.bcadaval.esloveno.rest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO para la tasa de aciertos según el tiempo transcurrido desde la revisión anterior (curva de retención)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RetencionIntervaloDTO {
+
+    /**
+     * Segundos mínimos desde la revisión anterior (null si es la primera revisión)
+     */
+    private Long intervaloMinimoSegundos;
+
+    /**
+     * Segundos máximos (exclusivo) desde la revisión anterior
+     */
+    private Long intervaloMaximoSegundos;
+
+    /**
+     * Total de revisiones
+     */
+    private Long revisiones;
+
+    /**
+     * Total de aciertos
+     */
+    private Long aciertos;
+
+    /**
+     * Tasa de aciertos en porcentaje
+     */
+    private Double tasaAciertos;
+}
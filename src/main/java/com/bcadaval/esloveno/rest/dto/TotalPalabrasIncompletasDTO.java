@@ -0,0 +1,23 @@
+package com.bcadaval.esloveno.rest.dto;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Número de palabras pendientes de completar
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TotalPalabrasIncompletasDTO {
+
+    private long total;
+
+    /** Palabras incompletas por tipo, con el mismo código de tipo que {@link PalabraIncompletaDTO} */
+    private Map<String, Long> porTipo;
+}
@@ -1,20 +1,12 @@
 package com.bcadaval.esloveno.run;
 
-import javax.sql.DataSource;
-
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.boot.builder.SpringApplicationBuilder;
 import org.springframework.boot.web.servlet.support.SpringBootServletInitializer;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
-import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
-import org.springframework.jdbc.datasource.DriverManagerDataSource;
-
-import java.util.Objects;
 
 @SpringBootApplication
 @ComponentScan({"com.bcadaval"})
@@ -30,21 +22,5 @@ public class Application extends SpringBootServletInitializer {
     protected SpringApplicationBuilder configure(SpringApplicationBuilder builder) {
     	return builder.sources(Application.class);
     }
-	
-	
-	@Autowired
-	Environment env;
-
-    @Bean
-    DataSource dataSource() {
-	    final DriverManagerDataSource dataSource = new DriverManagerDataSource();
-	    dataSource.setDriverClassName(Objects.requireNonNull(env.getProperty("spring.datasource.driver-class-name")));
-	    dataSource.setUrl(env.getProperty("spring.datasource.url"));
-	    dataSource.setUsername(env.getProperty("spring.datasource.username"));
-	    dataSource.setPassword(env.getProperty("spring.datasource.password"));
-	    return dataSource;
-	}
-    
-    
 
 }
@@ -0,0 +1,89 @@
+package com.bcadaval.esloveno.services;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.bcadaval.esloveno.rest.dto.EstadisticaCacheDTO;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Gestión de la caché de segundo nivel de Hibernate (pronombres, numerales, variables y
+ * configuración de estructuras).
+ * <p>
+ * Las escrituras hechas con los repositorios actualizan la caché al confirmar la transacción,
+ * y las consultas cacheadas se invalidan solas cuando cambia alguna de sus tablas. Lo que se
+ * escribe con SQL directo (scripts, {@code JdbcTemplate}) no pasa por Hibernate: quien lo haga
+ * tiene que desalojar aquí lo afectado.
+ */
+@Log4j2
+@Service
+public class CacheLexicoService {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Desaloja el resultado de las consultas cacheadas tras escribir sin pasar por Hibernate
+     * en alguna tabla que consultan (por ejemplo, TARJETA_SRS)
+     */
+    public void desalojarConsultas() {
+        sessionFactory().getCache().evictQueryRegions();
+        log.debug("Caché de consultas desalojada");
+    }
+
+    /**
+     * Vacía toda la caché de segundo nivel y de consultas
+     */
+    public void desalojarTodo() {
+        sessionFactory().getCache().evictAll();
+        log.debug("Caché de segundo nivel vaciada");
+    }
+
+    /**
+     * Aciertos, fallos y escrituras de cada región de la caché desde el arranque.
+     * Vacío si las estadísticas de Hibernate están desactivadas (se activan con el perfil metricas)
+     */
+    public List<EstadisticaCacheDTO> obtenerEstadisticas() {
+        Statistics estadisticas = sessionFactory().getStatistics();
+        if (!estadisticas.isStatisticsEnabled()) {
+            log.debug("Estadísticas de Hibernate desactivadas: arrancar con el perfil metricas para obtenerlas");
+            return List.of();
+        }
+        return Arrays.stream(estadisticas.getSecondLevelCacheRegionNames())
+                .sorted()
+                .map(estadisticas::getCacheRegionStatistics)
+                .map(region -> {
+                    long consultas = region.getHitCount() + region.getMissCount();
+                    return EstadisticaCacheDTO.builder()
+                            .region(region.getRegionName())
+                            .aciertos(region.getHitCount())
+                            .fallos(region.getMissCount())
+                            .escrituras(region.getPutCount())
+                            .elementos(elementos(region))
+                            .tasaAciertos(consultas > 0 ? (double) region.getHitCount() / consultas : 0.0)
+                            .build();
+                })
+                .toList();
+    }
+
+    /**
+     * Elementos en memoria, o null si el proveedor de la caché no lo informa
+     */
+    private static Long elementos(CacheRegionStatistics region) {
+        long elementos = region.getElementCountInMemory();
+        return elementos == CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN ? null : elementos;
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class).unwrap(SessionFactoryImplementor.class);
+    }
+}
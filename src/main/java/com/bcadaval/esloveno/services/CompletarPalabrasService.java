@@ -0,0 +1,239 @@
+package com.bcadaval.esloveno.services;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.beans.enums.Transitividad;
+import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
+import com.bcadaval.esloveno.repo.AdjetivoFlexionRepo;
+import com.bcadaval.esloveno.repo.AdjetivoRepo;
+import com.bcadaval.esloveno.repo.NumeralFlexionRepo;
+import com.bcadaval.esloveno.repo.NumeralRepo;
+import com.bcadaval.esloveno.repo.PronombreFlexionRepo;
+import com.bcadaval.esloveno.repo.SustantivoFlexionRepo;
+import com.bcadaval.esloveno.repo.SustantivoRepo;
+import com.bcadaval.esloveno.repo.VerboFlexionRepo;
+import com.bcadaval.esloveno.repo.VerboRepo;
+import com.bcadaval.esloveno.rest.dto.ActualizarPalabraRequest;
+import com.bcadaval.esloveno.rest.dto.ActualizarPalabraResponse;
+import com.bcadaval.esloveno.services.palabra.NumeralService;
+import com.bcadaval.esloveno.services.palabra.PronombreService;
+import com.bcadaval.esloveno.services.palabra.sustantivo.SustantivoService;
+import com.bcadaval.esloveno.services.srs.TarjetasSrsService;
+import com.bcadaval.esloveno.services.srs.Transacciones;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Completa palabras incompletas (significado, transitividad, animacidad) y activa sus
+ * flexiones para el estudio.
+ * <p>
+ * Una petición con muchas palabras se aplica en una sola transacción: por cada tipo, una consulta
+ * IN para las palabras base (que Hibernate actualiza en lotes JDBC al confirmar), otra para sus
+ * flexiones y un único lote de altas en TARJETA_SRS. Los errores de una palabra (tipo o datos no
+ * válidos, palabra inexistente) solo afectan a su resultado; un error de BD deshace todo.
+ */
+@Log4j2
+@Service
+public class CompletarPalabrasService {
+
+    /** Máximo de IDs por consulta IN, por debajo del límite de parámetros de SQLite */
+    private static final int TAMANIO_LOTE_IDS = 900;
+
+    @Autowired
+    private SustantivoRepo sustantivoRepo;
+
+    @Autowired
+    private VerboRepo verboRepo;
+
+    @Autowired
+    private AdjetivoRepo adjetivoRepo;
+
+    @Autowired
+    private NumeralRepo numeralRepo;
+
+    @Autowired
+    private PronombreFlexionRepo pronombreFlexionRepo;
+
+    @Autowired
+    private SustantivoFlexionRepo sustantivoFlexionRepo;
+
+    @Autowired
+    private VerboFlexionRepo verboFlexionRepo;
+
+    @Autowired
+    private AdjetivoFlexionRepo adjetivoFlexionRepo;
+
+    @Autowired
+    private NumeralFlexionRepo numeralFlexionRepo;
+
+    @Autowired
+    private TarjetasSrsService tarjetasSrsService;
+
+    @Autowired
+    private VariablesService variablesService;
+
+    @Autowired
+    private EstadisticasService estadisticasService;
+
+    @Autowired
+    private PronombreService pronombreService;
+
+    @Autowired
+    private NumeralService numeralService;
+
+    @Autowired
+    private SustantivoService sustantivoService;
+
+    /**
+     * Completa las palabras indicadas y crea la tarjeta SRS de sus flexiones
+     *
+     * @return Un resultado por palabra, en el mismo orden
+     */
+    @Transactional
+    public List<ActualizarPalabraResponse> completar(List<ActualizarPalabraRequest> palabras) {
+        ActualizarPalabraResponse[] resultados = new ActualizarPalabraResponse[palabras.size()];
+
+        // Índice de cada palabra válida dentro de la petición, por tipo
+        Map<TipoPalabra, Map<String, Integer>> porTipo = new EnumMap<>(TipoPalabra.class);
+        for (int i = 0; i < palabras.size(); i++) {
+            ActualizarPalabraRequest palabra = palabras.get(i);
+            String error = validar(palabra);
+            if (error == null && porTipo.computeIfAbsent(TipoPalabra.valueOf(palabra.getTipo()), t -> new LinkedHashMap<>())
+                    .putIfAbsent(palabra.getId(), i) != null) {
+                error = "Palabra repetida en la petición: " + palabra.getId();
+            }
+            if (error != null) {
+                resultados[i] = resultado(palabra, false, error);
+            }
+        }
+
+        Instant ahora = Instant.now();
+        double factorInicial = variablesService.getFactorFacilidadInicial();
+        porTipo.forEach((tipo, indices) -> {
+            Map<String, ActualizarPalabraRequest> pedidas = new HashMap<>();
+            indices.forEach((id, i) -> pedidas.put(id, palabras.get(i)));
+
+            Set<String> encontradas = actualizarBase(tipo, pedidas);
+            List<? extends PalabraFlexion<?>> flexiones = buscarFlexiones(tipo, encontradas);
+            List<? extends PalabraFlexion<?>> activadas = tarjetasSrsService.activar(flexiones, factorInicial, ahora);
+            estadisticasService.registrarActivacion(activadas);
+            switch (tipo) {
+                case PRONOMBRE -> Transacciones.trasConfirmar(pronombreService::invalidar);
+                case NUMERAL -> Transacciones.trasConfirmar(numeralService::invalidar);
+                case SUSTANTIVO -> sustantivoService.registrarActivacion(activadas.stream().map(f -> (SustantivoFlexion) f).toList());
+                default -> { }
+            }
+
+            indices.forEach((id, i) -> resultados[i] = encontradas.contains(id)
+                    ? resultado(palabras.get(i), true, "Palabra actualizada correctamente")
+                    : resultado(palabras.get(i), false, tipo.getNombreEspanol() + " no encontrado: " + id));
+            log.info("Completadas {} de {} palabras de tipo {}: {} flexiones activadas",
+                    encontradas.size(), indices.size(), tipo, activadas.size());
+        });
+
+        return Arrays.asList(resultados);
+    }
+
+    /**
+     * @return El motivo por el que no se puede aplicar, o null si es válida
+     */
+    private static String validar(ActualizarPalabraRequest palabra) {
+        if (palabra.getId() == null || palabra.getId().isBlank()) {
+            return "Falta el ID de la palabra";
+        }
+        TipoPalabra tipo;
+        try {
+            tipo = TipoPalabra.valueOf(String.valueOf(palabra.getTipo()));
+        } catch (IllegalArgumentException e) {
+            return "Tipo de palabra no válido: " + palabra.getTipo();
+        }
+        if (tipo == TipoPalabra.VERBO && Arrays.stream(Transitividad.values())
+                .noneMatch(t -> t.name().equals(palabra.getTransitividad()))) {
+            return "Transitividad no válida: " + palabra.getTransitividad();
+        }
+        if (tipo == TipoPalabra.PRONOMBRE) {
+            try {
+                Integer.parseInt(palabra.getId());
+            } catch (NumberFormatException e) {
+                return "ID de pronombre no válido: " + palabra.getId();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Aplica los datos a las palabras base que existan; los UPDATE se envían al confirmar
+     *
+     * @return IDs de las palabras encontradas
+     */
+    private Set<String> actualizarBase(TipoPalabra tipo, Map<String, ActualizarPalabraRequest> pedidas) {
+        Set<String> encontradas = new HashSet<>();
+        switch (tipo) {
+            case SUSTANTIVO -> porLotes(pedidas.keySet(), sustantivoRepo::findAllById).forEach(s -> {
+                ActualizarPalabraRequest p = pedidas.get(s.getSloleksId());
+                s.setSignificado(p.getSignificado()).setAnimado(p.getAnimado());
+                encontradas.add(s.getSloleksId());
+            });
+            case VERBO -> porLotes(pedidas.keySet(), verboRepo::findAllById).forEach(v -> {
+                ActualizarPalabraRequest p = pedidas.get(v.getSloleksId());
+                v.setSignificado(p.getSignificado()).setTransitividad(Transitividad.valueOf(p.getTransitividad()));
+                encontradas.add(v.getSloleksId());
+            });
+            case ADJETIVO -> porLotes(pedidas.keySet(), adjetivoRepo::findAllById).forEach(a -> {
+                a.setSignificado(pedidas.get(a.getSloleksId()).getSignificado());
+                encontradas.add(a.getSloleksId());
+            });
+            case NUMERAL -> porLotes(pedidas.keySet(), numeralRepo::findAllById).forEach(n -> {
+                n.setSignificado(pedidas.get(n.getSloleksId()).getSignificado());
+                encontradas.add(n.getSloleksId());
+            });
+            case PRONOMBRE -> porLotes(pedidas.keySet().stream().map(Integer::valueOf).toList(), pronombreFlexionRepo::findAllById)
+                    .forEach(pf -> {
+                        pf.setSignificado(pedidas.get(pf.getId().toString()).getSignificado());
+                        encontradas.add(pf.getId().toString());
+                    });
+        }
+        return encontradas;
+    }
+
+    /**
+     * Flexiones de las palabras encontradas; un pronombre es su propia flexión
+     */
+    private List<? extends PalabraFlexion<?>> buscarFlexiones(TipoPalabra tipo, Set<String> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return switch (tipo) {
+            case SUSTANTIVO -> porLotes(ids, sustantivoFlexionRepo::findBySloleksIdIn);
+            case VERBO -> porLotes(ids, verboFlexionRepo::findBySloleksIdIn);
+            case ADJETIVO -> porLotes(ids, adjetivoFlexionRepo::findBySloleksIdIn);
+            case NUMERAL -> porLotes(ids, numeralFlexionRepo::findBySloleksIdIn);
+            case PRONOMBRE -> porLotes(ids.stream().map(Integer::valueOf).toList(), pronombreFlexionRepo::findAllById);
+        };
+    }
+
+    private static <K, T> List<T> porLotes(Collection<K> ids, Function<List<K>, List<T>> consulta) {
+        List<K> lista = new ArrayList<>(ids);
+        List<T> resultado = new ArrayList<>(lista.size());
+        for (int i = 0; i < lista.size(); i += TAMANIO_LOTE_IDS) {
+            resultado.addAll(consulta.apply(lista.subList(i, Math.min(i + TAMANIO_LOTE_IDS, lista.size()))));
+        }
+        return resultado;
+    }
+
+    private static ActualizarPalabraResponse resultado(ActualizarPalabraRequest palabra, boolean exito, String mensaje) {
+        return ActualizarPalabraResponse.builder()
+                .exito(exito)
+                .mensaje(mensaje)
+                .palabra(palabra.getId())
+                .build();
+    }
+}
@@ -1,37 +1,51 @@
 package com.bcadaval.esloveno.services;
 
-import com.bcadaval.esloveno.beans.palabra.AdjetivoFlexion;
-import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
-import com.bcadaval.esloveno.beans.palabra.VerboFlexion;
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
 import com.bcadaval.esloveno.repo.AdjetivoFlexionRepo;
 import com.bcadaval.esloveno.repo.SustantivoFlexionRepo;
 import com.bcadaval.esloveno.repo.VerboFlexionRepo;
+import com.bcadaval.esloveno.repo.lectura.FlexionLectura;
+import com.bcadaval.esloveno.services.srs.ClaveTarjeta;
+import com.bcadaval.esloveno.services.srs.MotorSrs;
 import com.bcadaval.esloveno.structures.CriterioGramatical;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.List;
-import java.util.stream.Stream;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
 
 /**
  * Servicio unificado de consulta de palabras para estudio.
  * <p>
  * Estrategia:
- * - Una tarjeta está ACTIVA si proximaRevision != null (se inicializa al completarla)
- * - Una tarjeta está LISTA PARA ESTUDIAR si proximaRevision <= ahora
- * - El filtrado gramatical se aplica en memoria con CriterioGramatical
+ * - Una flexión está ACTIVA si tiene tarjeta en TARJETA_SRS (se crea al completarla)
+ * - Una tarjeta está LISTA PARA ESTUDIAR si proximaRevision <= ahora: un recorrido en memoria
+ *   del estado de todas las tarjetas en {@link MotorSrs}, sin consultar la BD
+ * - Las flexiones de las tarjetas se leen después, por tipo y por lotes de IDs, como proyecciones
+ *   ({@link FlexionLectura}) con solo las columnas de la palabra base que usan las frases
+ * - El filtrado gramatical se aplica en memoria con CriterioGramatical sobre la clave de cada
+ *   proyección; solo las que pasan se convierten en flexión y reciben el estado de su tarjeta
  * <p>
- * IMPORTANTE: Todos los métodos son @Transactional(readOnly = true) para permitir
- * el consumo de streams desde JPA sin cerrar la conexión.
+ * Todos los métodos son @Transactional(readOnly = true): las lecturas por lotes comparten
+ * una conexión del pool de solo lectura.
  */
 @Log4j2
 @Service
 @Transactional(readOnly = true)
 public class ConsultaPalabrasService {
 
+    /** Máximo de IDs por consulta IN, por debajo del límite de parámetros de SQLite */
+    private static final int TAMANIO_LOTE_IDS = 900;
+
+    @Autowired
+    private MotorSrs motorSrs;
+
     @Autowired
     private VerboFlexionRepo verboFlexionRepo;
 
@@ -41,87 +55,104 @@ public class ConsultaPalabrasService {
     @Autowired
     private AdjetivoFlexionRepo adjetivoFlexionRepo;
 
-    /**
-     * Obtiene un Stream de verbos listos para estudiar.
-     * Filtra en BD: proximaRevision != null AND proximaRevision <= ahora
-     * Filtra en memoria: criterios gramaticales
-     */
-    private Stream<VerboFlexion> streamVerbosListos(List<CriterioGramatical> criterios) {
-        if(criterios.isEmpty()) return Stream.empty();
-        Instant ahora = Instant.now();
-        return verboFlexionRepo.streamListosParaEstudiar(ahora)
-                .filter(vf -> criterios.isEmpty() || criterios.stream().anyMatch(c -> c.cumple(vf)));
-    }
+    /** Carga por IDs de las flexiones de cada tipo que se estudia con tarjetas */
+    private Map<TipoPalabra, Function<Collection<Integer>, List<? extends FlexionLectura>>> cargadores;
 
-    public List<VerboFlexion> listVerbosListos(List<CriterioGramatical> criterios) {
-        return streamVerbosListos(criterios).toList();
+    @PostConstruct
+    public void init() {
+        cargadores = new EnumMap<>(TipoPalabra.class);
+        cargadores.put(TipoPalabra.VERBO, verboFlexionRepo::findLecturaPorIds);
+        cargadores.put(TipoPalabra.SUSTANTIVO, sustantivoFlexionRepo::findLecturaPorIds);
+        cargadores.put(TipoPalabra.ADJETIVO, adjetivoFlexionRepo::findLecturaPorIds);
     }
 
     /**
-     * Obtiene un Stream de sustantivos listos para estudiar.
+     * Flexiones listas para estudiar de todos los tipos, con el estado de su tarjeta
+     *
+     * @param criterios Criterios gramaticales activos de cada tipo; los tipos sin criterios no se cargan
      */
-    private Stream<SustantivoFlexion> streamSustantivosListos(List<CriterioGramatical> criterios) {
-        if(criterios.isEmpty()) return Stream.empty();
-        Instant ahora = Instant.now();
-        return sustantivoFlexionRepo.streamListosParaEstudiar(ahora)
-                .filter(sf -> criterios.isEmpty() || criterios.stream().anyMatch(c -> c.cumple(sf)));
-    }
-
-    public List<SustantivoFlexion> listSustantivosListos(List<CriterioGramatical> criterios) {
-        return streamSustantivosListos(criterios).toList();
+    public List<PalabraFlexion<?>> listListos(Map<TipoPalabra, List<CriterioGramatical>> criterios) {
+        return hidratar(motorSrs.vencidas(Instant.now().getEpochSecond()), criterios);
     }
 
     /**
-     * Obtiene un Stream de adjetivos listos para estudiar.
+     * Índices de las tarjetas 0..hasta-1 cuya flexión cumple los criterios de su tipo (para
+     * estadísticas). Solo lee las flexiones; el estado lo toma quien llama, de una vez, del motor.
+     *
+     * @param criterios Criterios gramaticales activos de cada tipo; los tipos sin criterios no se cargan
      */
-    private Stream<AdjetivoFlexion> streamAdjetivosListos(List<CriterioGramatical> criterios) {
-        if(criterios.isEmpty()) return Stream.empty();
-        Instant ahora = Instant.now();
-        return adjetivoFlexionRepo.streamListosParaEstudiar(ahora)
-                .filter(af -> criterios.isEmpty() || criterios.stream().anyMatch(c -> c.cumple(af)));
-    }
-
-    public List<AdjetivoFlexion> listAdjetivosListos(List<CriterioGramatical> criterios) {
-        return streamAdjetivosListos(criterios).toList();
+    public int[] tarjetasActivas(int hasta, Map<TipoPalabra, List<CriterioGramatical>> criterios) {
+        int[] todas = new int[hasta];
+        Arrays.setAll(todas, i -> i);
+        List<Integer> activas = new ArrayList<>();
+        recorrer(todas, criterios, (lectura, tarjeta) -> activas.add(tarjeta));
+        return activas.stream().mapToInt(Integer::intValue).toArray();
     }
 
     /**
-     * Obtiene un Stream de TODOS los verbos activos (para estadísticas).
-     * Solo filtra por proximaRevision != null
+     * Flexión de una tarjeta con su estado, si el tipo se estudia con tarjetas y la flexión está activa
      */
-    private Stream<VerboFlexion> streamVerbosActivos(List<CriterioGramatical> criterios) {
-        if(criterios.isEmpty()) return Stream.empty();
-        return verboFlexionRepo.streamActivos()
-                .filter(vf -> criterios.isEmpty() || criterios.stream().anyMatch(c -> c.cumple(vf)));
-    }
-
-    public List<VerboFlexion> listVerbosActivos(List<CriterioGramatical> criterios) {
-        return streamVerbosActivos(criterios).toList();
+    public Optional<PalabraFlexion<?>> buscarTarjeta(ClaveTarjeta clave) {
+        Function<Collection<Integer>, List<? extends FlexionLectura>> cargador = cargadores.get(clave.tipo());
+        int tarjeta = motorSrs.buscar(clave);
+        if (cargador == null || tarjeta < 0) {
+            return Optional.empty();
+        }
+        return cargador.apply(List.of(clave.id())).stream()
+                .findFirst()
+                .map(lectura -> {
+                    PalabraFlexion<?> flexion = lectura.aFlexion();
+                    motorSrs.aplicarA(tarjeta, flexion);
+                    return flexion;
+                });
     }
 
     /**
-     * Obtiene un Stream de TODOS los sustantivos activos (para estadísticas).
+     * Lee las flexiones de las tarjetas y copia el estado de su tarjeta a las que cumplen los
+     * criterios gramaticales de su tipo
+     *
+     * @param tarjetas Índices de {@link MotorSrs}
      */
-    private Stream<SustantivoFlexion> streamSustantivosActivos(List<CriterioGramatical> criterios) {
-        if(criterios.isEmpty()) return Stream.empty();
-        return sustantivoFlexionRepo.streamActivos()
-                .filter(sf -> criterios.isEmpty() || criterios.stream().anyMatch(c -> c.cumple(sf)));
-    }
-
-    public List<SustantivoFlexion> listSustantivosActivos(List<CriterioGramatical> criterios) {
-        return streamSustantivosActivos(criterios).toList();
+    private List<PalabraFlexion<?>> hidratar(int[] tarjetas, Map<TipoPalabra, List<CriterioGramatical>> criterios) {
+        List<PalabraFlexion<?>> resultado = new ArrayList<>();
+        recorrer(tarjetas, criterios, (lectura, tarjeta) -> {
+            PalabraFlexion<?> flexion = lectura.aFlexion();
+            motorSrs.aplicarA(tarjeta, flexion);
+            resultado.add(flexion);
+        });
+        return resultado;
     }
 
     /**
-     * Obtiene un Stream de TODOS los adjetivos activos (para estadísticas).
+     * Lee las flexiones de las tarjetas (una consulta por tipo y lote de IDs) y entrega a
+     * {@code destino}, con el índice de su tarjeta, las que cumplen los criterios gramaticales de su
+     * tipo. Los criterios se comprueban sobre la clave de la proyección, sin construir la flexión
+     *
+     * @param tarjetas Índices de {@link MotorSrs}
      */
-    private Stream<AdjetivoFlexion> streamAdjetivosActivos(List<CriterioGramatical> criterios) {
-        if(criterios.isEmpty()) return Stream.empty();
-        return adjetivoFlexionRepo.streamActivos()
-                .filter(af -> criterios.isEmpty() || criterios.stream().anyMatch(c -> c.cumple(af)));
-    }
-
-    public List<AdjetivoFlexion> listAdjetivosActivos(List<CriterioGramatical> criterios) {
-        return streamAdjetivosActivos(criterios).toList();
+    private void recorrer(int[] tarjetas, Map<TipoPalabra, List<CriterioGramatical>> criterios,
+                          ObjIntConsumer<FlexionLectura> destino) {
+        Map<TipoPalabra, Map<Integer, Integer>> tarjetaPorFlexion = new EnumMap<>(TipoPalabra.class);
+        for (int tarjeta : tarjetas) {
+            tarjetaPorFlexion.computeIfAbsent(motorSrs.getTipo(tarjeta), t -> new HashMap<>())
+                    .put(motorSrs.getFlexionId(tarjeta), tarjeta);
+        }
+
+        tarjetaPorFlexion.forEach((tipo, porFlexion) -> {
+            Function<Collection<Integer>, List<? extends FlexionLectura>> cargador = cargadores.get(tipo);
+            List<CriterioGramatical> criteriosTipo = criterios.getOrDefault(tipo, List.of());
+            if (cargador == null || criteriosTipo.isEmpty()) {
+                return;
+            }
+            List<Integer> ids = new ArrayList<>(porFlexion.keySet());
+            for (int i = 0; i < ids.size(); i += TAMANIO_LOTE_IDS) {
+                for (FlexionLectura lectura : cargador.apply(ids.subList(i, Math.min(i + TAMANIO_LOTE_IDS, ids.size())))) {
+                    long claveGramatical = lectura.clave();
+                    if (criteriosTipo.stream().anyMatch(c -> c.cumple(claveGramatical))) {
+                        destino.accept(lectura, porFlexion.get(lectura.id()));
+                    }
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,520 @@
+package com.bcadaval.esloveno.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.rest.dto.EstadisticasDTO;
+import com.bcadaval.esloveno.rest.dto.HistorialTramoDTO;
+import com.bcadaval.esloveno.rest.dto.PrecisionEstructuraDTO;
+import com.bcadaval.esloveno.rest.dto.PronosticoDTO;
+import com.bcadaval.esloveno.rest.dto.RetencionIntervaloDTO;
+import com.bcadaval.esloveno.services.srs.ClaveTarjeta;
+import com.bcadaval.esloveno.services.srs.EstadoSrs;
+import com.bcadaval.esloveno.services.srs.HistorialRevisionesService;
+import com.bcadaval.esloveno.services.srs.MotorSrs;
+import com.bcadaval.esloveno.services.srs.Transacciones;
+import com.bcadaval.esloveno.structures.CriterioGramatical;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Mantiene las estadísticas de estudio como contadores acumulados en memoria.
+ * <p>
+ * Los contadores se recalculan al arrancar (o la primera vez que se piden, si la BD aún no
+ * estaba lista) y cuando cambian las estructuras activas. A partir de ahí se actualizan con cada
+ * respuesta y cada activación de tarjetas, así que consultar las estadísticas no recorre las
+ * tablas de flexiones.
+ * <p>
+ * El recálculo lee las flexiones activas fuera del lock y toma el estado de sus tarjetas de una
+ * vez de {@link MotorSrs}, que ya incluye revisiones aún sin confirmar. Para no contarlas dos
+ * veces, cada diferencia lleva la versión del motor que la produjo y se descarta si la
+ * instantánea ya la incluía; las que llegan durante el recálculo se aplican al terminar.
+ * <p>
+ * Para las tarjetas disponibles se guarda cuántas están ya vencidas y un multiconjunto con
+ * las próximas revisiones futuras; al consultar, las que han vencido desde la última vez
+ * pasan de un grupo al otro. Las futuras se agrupan además en un histograma por tramos de
+ * anchura fija, que es lo que usa el pronóstico de carga.
+ * <p>
+ * Las estadísticas por periodos (historial, retención, precisión por estructura) se
+ * calculan a partir de los tramos agregados de {@link HistorialRevisionesService}.
+ */
+@Log4j2
+@Service
+public class EstadisticasService {
+
+    @Lazy
+    @Autowired
+    private EstructuraFraseService estructuraFraseService;
+
+    @Lazy
+    @Autowired
+    private ConsultaPalabrasService consultaPalabrasService;
+
+    @Lazy
+    @Autowired
+    private InitializationService initializationService;
+
+    @Autowired
+    private HistorialRevisionesService historialRevisionesService;
+
+    @Lazy
+    @Autowired
+    private MotorSrs motorSrs;
+
+    private static final long SEGUNDOS_HORA = 3600;
+    private static final long SEGUNDOS_DIA = 86400;
+    private static final int HORAS_DIA = 24;
+
+    private final Object lock = new Object();
+
+    /** Serializa los recálculos, que se hacen fuera de {@link #lock} */
+    private final Object reconciliacion = new Object();
+
+    /** Si los contadores reflejan la BD; si no, se recalculan en la próxima consulta */
+    private boolean actualizado = false;
+
+    /** Si hay un recálculo en curso: las diferencias se guardan en {@link #pendientes} */
+    private boolean reconciliando = false;
+
+    /** Diferencias recibidas durante el recálculo, para aplicarlas sobre su resultado */
+    private final List<Runnable> pendientes = new ArrayList<>();
+
+    /** Crece con cada {@link #invalidar()}; un recálculo que empezó antes no deja los contadores como actualizados */
+    private long invalidaciones;
+
+    /** Versión de {@link MotorSrs} de la última instantánea: sus revisiones ya están contadas */
+    private long versionBase;
+
+    /** Tarjetas que cubría la última instantánea (índices 0..n-1); las demás cuentan solo por diferencias */
+    private int tarjetasBase;
+
+    private long totalTarjetas;
+    private long tarjetasEnReaprendizaje;
+    private long totalRevisiones;
+    private long totalAciertos;
+    private long tarjetasVencidas;
+
+    /** Próximas revisiones aún no vencidas: segundo epoch → número de tarjetas */
+    private TreeMap<Long, Integer> revisionesFuturas = new TreeMap<>();
+
+    /** Histograma de las mismas revisiones futuras por tramos de anchura fija: nº de tramo → número de tarjetas */
+    private TreeMap<Long, Integer> tramosFuturos = new TreeMap<>();
+
+    @Value("${app.estadisticas.pronostico-tramo-segundos:300}")
+    private long anchuraTramo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        if (!initializationService.isDatabaseReady()) {
+            return;
+        }
+        try {
+            asegurarActualizado();
+        } catch (Exception e) {
+            log.warn("No se pudieron calcular las estadísticas al arrancar: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Obtiene las estadísticas actuales a partir de los contadores en memoria
+     */
+    public EstadisticasDTO obtenerEstadisticas() {
+        asegurarActualizado();
+        synchronized (lock) {
+            avanzar(Instant.now().getEpochSecond());
+
+            return EstadisticasDTO.builder()
+                .totalTarjetas((int) totalTarjetas)
+                .tarjetasEstudiadas((int) totalTarjetas) // Todas activas han sido estudiadas al menos una vez
+                .tarjetasNuevas(0) // Ya no hay concepto de "nuevas" - todas las activas fueron inicializadas
+                .tarjetasDisponiblesAhora((int) tarjetasVencidas)
+                .tarjetasEnReaprendizaje((int) tarjetasEnReaprendizaje)
+                .totalRevisiones((int) totalRevisiones)
+                .totalAciertos((int) totalAciertos)
+                .tasaAciertos(tasa(totalAciertos, totalRevisiones))
+                .build();
+        }
+    }
+
+    /**
+     * Pronóstico de tarjetas que vencen en las próximas horas y días.
+     * Recorre solo los tramos del histograma dentro del horizonte y acumula con sumas prefijas,
+     * así que el coste depende del número de tramos y no del de tarjetas. Cada tramo se asigna
+     * a la hora o día en que empieza, por lo que el error es como mucho la anchura del tramo.
+     *
+     * @param dias Número de días a pronosticar (al menos se calcula una semana)
+     */
+    public PronosticoDTO obtenerPronostico(int dias) {
+        int totalDias = Math.max(dias, 7);
+        int[] porHora = new int[HORAS_DIA];
+        int[] porDia = new int[totalDias];
+        int[] acumuladoPorDia = new int[totalDias];
+        int vencidas;
+
+        asegurarActualizado();
+        synchronized (lock) {
+            long ahora = Instant.now().getEpochSecond();
+            avanzar(ahora);
+            vencidas = (int) tarjetasVencidas;
+
+            long limite = ahora + totalDias * SEGUNDOS_DIA;
+            for (Map.Entry<Long, Integer> tramo : tramosFuturos.headMap(limite / anchuraTramo, true).entrySet()) {
+                long desplazamiento = Math.max(0, tramo.getKey() * anchuraTramo - ahora);
+                int dia = (int) (desplazamiento / SEGUNDOS_DIA);
+                int hora = (int) (desplazamiento / SEGUNDOS_HORA);
+                if (dia < totalDias) {
+                    porDia[dia] += tramo.getValue();
+                }
+                if (hora < HORAS_DIA) {
+                    porHora[hora] += tramo.getValue();
+                }
+            }
+        }
+
+        int acumulado = vencidas;
+        for (int i = 0; i < totalDias; i++) {
+            acumulado += porDia[i];
+            acumuladoPorDia[i] = acumulado;
+        }
+
+        return PronosticoDTO.builder()
+            .vencidasAhora(vencidas)
+            .proximaHora(vencidas + porHora[0])
+            .proximoDia(acumuladoPorDia[0])
+            .proximaSemana(acumuladoPorDia[6])
+            .porHora(Arrays.stream(porHora).boxed().toList())
+            .porDia(Arrays.stream(porDia, 0, Math.max(dias, 1)).boxed().toList())
+            .acumuladoPorDia(Arrays.stream(acumuladoPorDia, 0, Math.max(dias, 1)).boxed().toList())
+            .build();
+    }
+
+    /**
+     * Serie de revisiones por hora o por día de los últimos días
+     *
+     * @param granularidad {@link HistorialRevisionesService#POR_HORA} o {@link HistorialRevisionesService#POR_DIA}
+     * @param dias Número de días hacia atrás
+     */
+    public List<HistorialTramoDTO> obtenerHistorial(String granularidad, int dias) {
+        return historialRevisionesService.getSerie(granularidad, Instant.now().minus(Duration.ofDays(dias))).stream()
+            .map(t -> HistorialTramoDTO.builder()
+                .inicio(t.inicio())
+                .revisiones(t.revisiones())
+                .aciertos(t.aciertos())
+                .tasaAciertos(tasa(t.aciertos(), t.revisiones()))
+                .build())
+            .toList();
+    }
+
+    /**
+     * Curva de retención de los últimos días: tasa de aciertos según el tiempo transcurrido
+     * desde la revisión anterior, en clases de potencias de 2 segundos.
+     */
+    public List<RetencionIntervaloDTO> obtenerRetencion(int dias) {
+        return historialRevisionesService.getRetencionPorIntervalo(Instant.now().minus(Duration.ofDays(dias))).stream()
+            .map(r -> {
+                boolean primera = r.claseIntervalo() == HistorialRevisionesService.SIN_REVISION_ANTERIOR;
+                return RetencionIntervaloDTO.builder()
+                    .intervaloMinimoSegundos(primera ? null : 1L << r.claseIntervalo())
+                    .intervaloMaximoSegundos(primera ? null : 1L << (r.claseIntervalo() + 1))
+                    .revisiones(r.revisiones())
+                    .aciertos(r.aciertos())
+                    .tasaAciertos(tasa(r.aciertos(), r.revisiones()))
+                    .build();
+            })
+            .toList();
+    }
+
+    /**
+     * Tasa de aciertos de cada estructura activa. Una revisión cuenta para una estructura si
+     * su tipo, caso y forma verbal encajan con alguno de sus criterios de búsqueda (el
+     * historial no guarda el resto de características).
+     */
+    public List<PrecisionEstructuraDTO> obtenerPrecisionPorEstructura() {
+        List<HistorialRevisionesService.PorDesglose> desgloses = historialRevisionesService.getTotalesPorDesglose();
+
+        return estructuraFraseService.getEstructurasActivas().stream()
+            .map(estructura -> {
+                long revisiones = 0;
+                long aciertos = 0;
+                for (HistorialRevisionesService.PorDesglose d : desgloses) {
+                    if (estructura.getCriteriosBusqueda().stream().anyMatch(c -> encaja(c.getCriterioGramatical(), d))) {
+                        revisiones += d.revisiones();
+                        aciertos += d.aciertos();
+                    }
+                }
+                return PrecisionEstructuraDTO.builder()
+                    .identificador(estructura.getIdentificador())
+                    .nombre(estructura.getNombreMostrar())
+                    .revisiones(revisiones)
+                    .aciertos(aciertos)
+                    .tasaAciertos(tasa(aciertos, revisiones))
+                    .build();
+            })
+            .toList();
+    }
+
+    private static boolean encaja(CriterioGramatical criterio, HistorialRevisionesService.PorDesglose desglose) {
+        if (criterio == null || TipoPalabra.fromFlexionClass(criterio.getTipoFlexion()) != desglose.tipo()) {
+            return false;
+        }
+        Map<CaracteristicaGramatical, Object> requisitos = criterio.getRequisitos();
+        return (!requisitos.containsKey(CaracteristicaGramatical.CASO)
+                || requisitos.get(CaracteristicaGramatical.CASO) == desglose.caso())
+            && (!requisitos.containsKey(CaracteristicaGramatical.FORMA_VERBAL)
+                || requisitos.get(CaracteristicaGramatical.FORMA_VERBAL) == desglose.formaVerbal());
+    }
+
+    private static double tasa(long aciertos, long revisiones) {
+        return revisiones > 0 ? (double) aciertos / revisiones * 100 : 0;
+    }
+
+    /**
+     * Aplica a los contadores la diferencia entre el estado anterior y el nuevo de una tarjeta
+     * revisada, salvo que la última instantánea ya la incluyera. Si hay una transacción activa,
+     * se aplica al confirmarse.
+     *
+     * @param tarjeta Índice de la tarjeta en {@link MotorSrs}
+     */
+    public void registrarRevision(int tarjeta, MotorSrs.Revision revision) {
+        Transacciones.trasConfirmar(() -> {
+            synchronized (lock) {
+                registrar(() -> {
+                    if (tarjeta >= tarjetasBase || revision.version() > versionBase) {
+                        aplicarDiferencia(revision.anterior(), revision.nuevo());
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Retira de los contadores una revisión que se ha deshecho en BD después de que la última
+     * instantánea la incluyera. Si no la incluía, los contadores nunca la han visto.
+     *
+     * @param version Versión de {@link MotorSrs} con la que se deshizo en memoria
+     */
+    public void registrarDeshecha(int tarjeta, MotorSrs.Revision revision, long version) {
+        synchronized (lock) {
+            registrar(() -> {
+                if (tarjeta < tarjetasBase && revision.version() <= versionBase && version > versionBase) {
+                    aplicarDiferencia(revision.nuevo(), revision.anterior());
+                }
+            });
+        }
+    }
+
+    /**
+     * Cuenta las flexiones recién activadas para el estudio que cumplen los criterios
+     * de alguna estructura activa. Si hay una transacción activa, se aplica al confirmarse.
+     */
+    public void registrarActivacion(List<? extends PalabraFlexion<?>> activadas) {
+        if (activadas.isEmpty()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<CriterioGramatical> criterios = estructuraFraseService.getCriteriosGramaticalesPorTipo(
+            (Class<? extends PalabraFlexion<?>>) activadas.getFirst().getClass());
+        List<? extends PalabraFlexion<?>> contadas = activadas.stream()
+            .filter(f -> criterios.stream().anyMatch(c -> c.cumple(f)))
+            .toList();
+        if (contadas.isEmpty()) {
+            return;
+        }
+
+        // MotorSrs da de alta las tarjetas al confirmarse, antes que esto (se registró antes)
+        Transacciones.trasConfirmar(() -> {
+            int[] tarjetas = contadas.stream().mapToInt(f -> motorSrs.buscar(ClaveTarjeta.de(f))).toArray();
+            synchronized (lock) {
+                registrar(() -> {
+                    long ahora = Instant.now().getEpochSecond();
+                    avanzar(ahora);
+                    for (int i = 0; i < tarjetas.length; i++) {
+                        // Las que ya cubría la instantánea están contadas
+                        if (tarjetas[i] >= tarjetasBase) {
+                            totalTarjetas++;
+                            anadir(contadas.get(i).getProximaRevision(), ahora);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Marca los contadores como desactualizados, por ejemplo al cambiar las estructuras
+     * activas (y con ellas qué tarjetas cuentan). Se recalculan en la próxima consulta.
+     */
+    public void invalidar() {
+        synchronized (lock) {
+            actualizado = false;
+            invalidaciones++;
+        }
+    }
+
+    /**
+     * Aplica una diferencia a los contadores, o la guarda si hay un recálculo en curso.
+     * Sin contadores válidos se descarta: el próximo recálculo ya la incluirá. Debe llamarse con el lock.
+     */
+    private void registrar(Runnable diferencia) {
+        if (reconciliando) {
+            pendientes.add(diferencia);
+        } else if (actualizado) {
+            diferencia.run();
+        }
+    }
+
+    /**
+     * Debe llamarse con el lock
+     */
+    private void aplicarDiferencia(EstadoSrs anterior, EstadoSrs nuevo) {
+        totalRevisiones += nuevo.totalRevisiones() - anterior.totalRevisiones();
+        totalAciertos += nuevo.totalAciertos() - anterior.totalAciertos();
+        tarjetasEnReaprendizaje += (nuevo.enReaprendizaje() ? 1 : 0) - (anterior.enReaprendizaje() ? 1 : 0);
+
+        long ahora = Instant.now().getEpochSecond();
+        avanzar(ahora);
+        quitar(anterior.proximaRevision(), ahora);
+        anadir(nuevo.proximaRevision(), ahora);
+    }
+
+    private void asegurarActualizado() {
+        synchronized (reconciliacion) {
+            synchronized (lock) {
+                if (actualizado) {
+                    return;
+                }
+            }
+            reconciliar();
+        }
+    }
+
+    /**
+     * Recalcula todos los contadores. Las flexiones activas se leen de BD y el estado de sus
+     * tarjetas de una instantánea de {@link MotorSrs}, ambas cosas sin el lock; con él solo se
+     * instalan los contadores nuevos y se aplican las diferencias llegadas mientras tanto.
+     */
+    private void reconciliar() {
+        long invalidacionesInicio;
+        synchronized (lock) {
+            reconciliando = true;
+            invalidacionesInicio = invalidaciones;
+        }
+        try {
+            int hasta = motorSrs.getTamanio();
+            int[] tarjetas = consultaPalabrasService.tarjetasActivas(hasta,
+                estructuraFraseService.getCriteriosGramaticalesPorTipoPalabra());
+            MotorSrs.Instantanea instantanea = motorSrs.instantanea(tarjetas);
+
+            long enReaprendizaje = 0;
+            long revisiones = 0;
+            long aciertos = 0;
+            long vencidas = 0;
+            TreeMap<Long, Integer> futuras = new TreeMap<>();
+            TreeMap<Long, Integer> tramos = new TreeMap<>();
+            long ahora = Instant.now().getEpochSecond();
+            for (EstadoSrs estado : instantanea.estados()) {
+                revisiones += estado.totalRevisiones();
+                aciertos += estado.totalAciertos();
+                if (estado.enReaprendizaje()) {
+                    enReaprendizaje++;
+                }
+                long segundo = estado.proximaRevision().getEpochSecond();
+                if (segundo <= ahora) {
+                    vencidas++;
+                } else {
+                    futuras.merge(segundo, 1, Integer::sum);
+                    tramos.merge(segundo / anchuraTramo, 1, Integer::sum);
+                }
+            }
+
+            synchronized (lock) {
+                totalTarjetas = tarjetas.length;
+                tarjetasEnReaprendizaje = enReaprendizaje;
+                totalRevisiones = revisiones;
+                totalAciertos = aciertos;
+                tarjetasVencidas = vencidas;
+                revisionesFuturas = futuras;
+                tramosFuturos = tramos;
+                versionBase = instantanea.version();
+                tarjetasBase = hasta;
+
+                reconciliando = false;
+                actualizado = invalidaciones == invalidacionesInicio;
+                if (actualizado) {
+                    pendientes.forEach(Runnable::run);
+                }
+                pendientes.clear();
+            }
+            log.info("Estadísticas recalculadas: {} tarjetas activas (versión {} del estado SRS)",
+                tarjetas.length, instantanea.version());
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                reconciliando = false;
+                pendientes.clear();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Pasa a vencidas las revisiones futuras cuyo instante ya ha llegado
+     */
+    private void avanzar(long ahora) {
+        while (!revisionesFuturas.isEmpty() && revisionesFuturas.firstKey() <= ahora) {
+            Map.Entry<Long, Integer> vencida = revisionesFuturas.pollFirstEntry();
+            tarjetasVencidas += vencida.getValue();
+            restarTramo(vencida.getKey(), vencida.getValue());
+        }
+    }
+
+    /**
+     * Añade una próxima revisión, como vencida o como futura según el instante actual
+     */
+    private void anadir(Instant proximaRevision, long ahora) {
+        if (proximaRevision == null) {
+            return;
+        }
+        long segundo = proximaRevision.getEpochSecond();
+        if (segundo <= ahora) {
+            tarjetasVencidas++;
+        } else {
+            revisionesFuturas.merge(segundo, 1, Integer::sum);
+            tramosFuturos.merge(segundo / anchuraTramo, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Retira una próxima revisión. Debe llamarse después de {@link #avanzar(long)} con el mismo instante.
+     */
+    private void quitar(Instant proximaRevision, long ahora) {
+        if (proximaRevision == null) {
+            return;
+        }
+        long segundo = proximaRevision.getEpochSecond();
+        if (segundo <= ahora) {
+            tarjetasVencidas--;
+        } else if (revisionesFuturas.containsKey(segundo)) {
+            revisionesFuturas.computeIfPresent(segundo, (k, v) -> v > 1 ? v - 1 : null);
+            restarTramo(segundo, 1);
+        }
+    }
+
+    private void restarTramo(long segundo, int cantidad) {
+        tramosFuturos.computeIfPresent(segundo / anchuraTramo, (k, v) -> v > cantidad ? v - cantidad : null);
+    }
+}
@@ -2,6 +2,7 @@ package com.bcadaval.esloveno.services;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import com.bcadaval.esloveno.beans.base.PalabraFlexion;
@@ -14,6 +15,7 @@ import org.springframework.stereotype.Service;
 import com.bcadaval.esloveno.beans.EstructuraFraseConfig;
 import com.bcadaval.esloveno.beans.enums.Caso;
 import com.bcadaval.esloveno.beans.enums.FormaVerbal;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
 import com.bcadaval.esloveno.repo.EstructuraFraseConfigRepo;
 import com.bcadaval.esloveno.structures.EstructuraFrase;
 
@@ -21,16 +23,24 @@ import lombok.extern.log4j.Log4j2;
 
 /**
  * Servicio para gestionar las estructuras de frase.
+ * - Reúne las estructuras escritas en Java y las cargadas desde plantillas ({@link PlantillasFraseService})
  * - Auto-registra nuevas estructuras en BD
  * - Filtra estructuras activas
  * - Calcula casos activos derivados de las estructuras activas
+ * <p>
+ * Las estructuras activas y lo que se deriva de ellas (casos, formas verbales, criterios por
+ * tipo) se calculan una vez en una instantánea inmutable y versionada que {@link #setActiva}
+ * sustituye entera, así que las consultas del camino de estudio no tocan la BD.
  */
 @Log4j2
 @Service
 public class EstructuraFraseService {
 
     @Autowired
-    private List<EstructuraFrase> todasLasEstructuras;
+    private List<EstructuraFrase> estructurasJava;
+
+    @Autowired
+    private PlantillasFraseService plantillasFraseService;
 
     @Autowired
     private EstructuraFraseConfigRepo repo;
@@ -39,9 +49,19 @@ public class EstructuraFraseService {
     @Autowired
     private InitializationService initializationService;
 
+    @Lazy
+    @Autowired
+    private EstadisticasService estadisticasService;
+
     /** Flag para controlar que solo se registran una vez */
     private final AtomicBoolean estructurasRegistradas = new AtomicBoolean(false);
 
+    /** Contador de versiones de la instantánea */
+    private final AtomicLong versiones = new AtomicLong();
+
+    /** Estructuras activas y datos derivados; null hasta la primera consulta */
+    private volatile Instantanea instantanea;
+
     /**
      * Registra automáticamente las estructuras nuevas en BD como activas.
      * Se ejecuta de forma lazy cuando la BD está disponible.
@@ -57,7 +77,7 @@ public class EstructuraFraseService {
                 .map(EstructuraFraseConfig::getIdentificador)
                 .collect(Collectors.toSet());
 
-            List<EstructuraFraseConfig> nuevas = todasLasEstructuras.stream()
+            List<EstructuraFraseConfig> nuevas = todasLasEstructuras().stream()
                 .filter(e -> !existentesEnBD.contains(e.getIdentificador()))
                 .map(e -> EstructuraFraseConfig.builder()
                     .identificador(e.getIdentificador())
@@ -81,15 +101,15 @@ public class EstructuraFraseService {
      * Obtiene solo las estructuras activas.
      */
     public List<EstructuraFrase> getEstructurasActivas() {
-        autoRegistrarEstructurasIfNeeded();
-
-        Set<String> activasEnBD = repo.findByActivaTrue().stream()
-            .map(EstructuraFraseConfig::getIdentificador)
-            .collect(Collectors.toSet());
+        return getInstantanea().activas();
+    }
 
-        return todasLasEstructuras.stream()
-            .filter(e -> activasEnBD.contains(e.getIdentificador()))
-            .toList();
+    /**
+     * Versión del conjunto de estructuras activas; cambia cada vez que se recarga.
+     * Permite saber si algo calculado a partir de ellas sigue valiendo sin comparar listas.
+     */
+    public long getVersionActivas() {
+        return getInstantanea().version();
     }
 
     /**
@@ -98,10 +118,7 @@ public class EstructuraFraseService {
      * Usa el nuevo sistema de CriterioGramatical.
      */
     public Set<Caso> getCasosActivos() {
-        return getEstructurasActivas().stream()
-                .map(EstructuraFrase::getCasosUsados)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
+        return getInstantanea().casos();
     }
 
     /**
@@ -110,10 +127,7 @@ public class EstructuraFraseService {
      * Usa el nuevo sistema de CriterioGramatical.
      */
     public Set<FormaVerbal> getFormasVerbalesActivas() {
-        return getEstructurasActivas().stream()
-                .map(EstructuraFrase::getFormasVerbalesUsadas)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
+        return getInstantanea().formasVerbales();
     }
 
     /**
@@ -124,14 +138,101 @@ public class EstructuraFraseService {
      * @return Lista de CriterioGramatical, vacía si no hay criterios para ese tipo
      */
     public List<CriterioGramatical> getCriteriosGramaticalesPorTipo(Class<? extends PalabraFlexion<?>> tipoFlexion) {
-        return getEstructurasActivas().stream()
-                .flatMap(e -> e.getCriteriosBusqueda().stream())
-                .filter(c -> c.getTipoFlexion().equals(tipoFlexion))
-                .map(CriterioBusqueda::getCriterioGramatical)
-                .filter(Objects::nonNull)
-                .toList();
+        return getInstantanea().criteriosPorTipo().getOrDefault(tipoFlexion, List.of());
+    }
+
+    /**
+     * Los CriterioGramatical de las estructuras activas de todos los tipos, por tipo de palabra.
+     * Los tipos sin criterios no aparecen.
+     */
+    public Map<TipoPalabra, List<CriterioGramatical>> getCriteriosGramaticalesPorTipoPalabra() {
+        Map<TipoPalabra, List<CriterioGramatical>> criterios = new EnumMap<>(TipoPalabra.class);
+        getInstantanea().criteriosPorTipo().forEach((clase, lista) -> {
+            TipoPalabra tipo = TipoPalabra.fromFlexionClass(clase);
+            if (tipo != null) {
+                criterios.put(tipo, lista);
+            }
+        });
+        return criterios;
+    }
+
+    /**
+     * Vuelve a leer de BD qué estructuras están activas y sustituye la instantánea
+     */
+    public synchronized void recargar() {
+        instantanea = construirInstantanea();
+        log.info("Estructuras activas recargadas (versión {}): {}", instantanea.version(),
+                instantanea.activas().stream().map(EstructuraFrase::getIdentificador).toList());
+    }
+
+    /**
+     * Se llama cuando cambia el conjunto de estructuras (recarga de plantillas): registra
+     * las nuevas en BD y sustituye la instantánea si ya estaba cargada
+     */
+    public synchronized void alCambiarEstructuras() {
+        estructurasRegistradas.set(false);
+        if (instantanea != null) {
+            recargar();
+            estadisticasService.invalidar();
+        }
+    }
+
+    /**
+     * Estructuras escritas en Java más las compiladas desde plantillas
+     */
+    private List<EstructuraFrase> todasLasEstructuras() {
+        List<EstructuraFrase> plantillas = plantillasFraseService.getEstructuras();
+        if (plantillas.isEmpty()) {
+            return estructurasJava;
+        }
+        List<EstructuraFrase> todas = new ArrayList<>(estructurasJava);
+        todas.addAll(plantillas);
+        return todas;
     }
 
+    private Instantanea getInstantanea() {
+        Instantanea actual = instantanea;
+        if (actual == null) {
+            synchronized (this) {
+                actual = instantanea;
+                if (actual == null) {
+                    actual = construirInstantanea();
+                    instantanea = actual;
+                }
+            }
+        }
+        return actual;
+    }
+
+    private Instantanea construirInstantanea() {
+        autoRegistrarEstructurasIfNeeded();
+
+        Set<String> activasEnBD = repo.findByActivaTrue().stream()
+            .map(EstructuraFraseConfig::getIdentificador)
+            .collect(Collectors.toSet());
+
+        List<EstructuraFrase> activas = todasLasEstructuras().stream()
+            .filter(e -> activasEnBD.contains(e.getIdentificador()))
+            .toList();
+
+        Set<Caso> casos = activas.stream()
+                .map(EstructuraFrase::getCasosUsados)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toUnmodifiableSet());
+
+        Set<FormaVerbal> formasVerbales = activas.stream()
+                .map(EstructuraFrase::getFormasVerbalesUsadas)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toUnmodifiableSet());
+
+        Map<Class<?>, List<CriterioGramatical>> criteriosPorTipo = activas.stream()
+                .flatMap(e -> e.getCriteriosBusqueda().stream())
+                .filter(c -> c.getCriterioGramatical() != null)
+                .collect(Collectors.groupingBy(CriterioBusqueda::getTipoFlexion,
+                        Collectors.mapping(CriterioBusqueda::getCriterioGramatical, Collectors.toUnmodifiableList())));
+
+        return new Instantanea(versiones.incrementAndGet(), activas, casos, formasVerbales, Map.copyOf(criteriosPorTipo));
+    }
 
     /**
      * Obtiene todas las estructuras para la pantalla de configuración.
@@ -146,7 +247,7 @@ public class EstructuraFraseService {
                 EstructuraFraseConfig::getActiva
             ));
 
-        return todasLasEstructuras.stream()
+        return todasLasEstructuras().stream()
             .map(e -> new EstructuraFraseConfigDTO(
                 e.getIdentificador(),
                 e.getNombreMostrar(),
@@ -166,10 +267,21 @@ public class EstructuraFraseService {
 
         config.setActiva(activa);
         repo.save(config);
+        recargar();
+        // Cambian los criterios activos y, con ellos, qué tarjetas entran en las estadísticas
+        estadisticasService.invalidar();
 
         log.info("Estructura '{}' {} ", identificador, activa ? "activada" : "desactivada");
     }
 
+    /**
+     * Estructuras activas y datos derivados de ellas en un momento dado
+     */
+    private record Instantanea(long version, List<EstructuraFrase> activas, Set<Caso> casos,
+                               Set<FormaVerbal> formasVerbales,
+                               Map<Class<?>, List<CriterioGramatical>> criteriosPorTipo) {
+    }
+
     /**
      * DTO para la configuración de estructuras
      */
@@ -26,6 +26,10 @@ import lombok.Getter;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.bcadaval.esloveno.services.palabra.NumeralService;
+import com.bcadaval.esloveno.services.palabra.PronombreService;
+import com.bcadaval.esloveno.services.palabra.sustantivo.SustantivoService;
+
 @Log4j2
 @Service
 public class InitializationService {
@@ -43,6 +47,22 @@ public class InitializationService {
     @Autowired
     private DatosInicialesService datosInicialesService;
 
+    @Lazy
+    @Autowired
+    private PronombreService pronombreService;
+
+    @Lazy
+    @Autowired
+    private NumeralService numeralService;
+
+    @Lazy
+    @Autowired
+    private SustantivoService sustantivoService;
+
+    @Lazy
+    @Autowired
+    private CacheLexicoService cacheLexicoService;
+
     @Autowired
     private DataSource dataSource;
 
@@ -133,7 +153,7 @@ public class InitializationService {
 
             log.info("Iniciando inicialización - XML necesario: {}", needsXml);
 
-            // La BD es creada automáticamente por Spring con spring.sql.init
+            // El esquema de la BD lo crean y actualizan las migraciones de Flyway al arrancar
             // Solo necesitamos asegurar que el directorio existe
             ensureDataDirectoryExists();
             progress.set(10);
@@ -160,6 +180,11 @@ public class InitializationService {
                 progress.set(95);
                 ejecutarScriptUpdatePronombres();
                 log.info("Script updatePronombres.sql ejecutado exitosamente");
+                // El script escribe en PRONOMBRE_FLEXION sin pasar por Hibernate
+                cacheLexicoService.desalojarTodo();
+                pronombreService.invalidar();
+                numeralService.invalidar();
+                sustantivoService.invalidar();
             }
 
             status.set(InitStatus.COMPLETED);
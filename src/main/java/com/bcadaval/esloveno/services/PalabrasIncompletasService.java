@@ -0,0 +1,149 @@
+package com.bcadaval.esloveno.services;
+
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.repo.AdjetivoRepo;
+import com.bcadaval.esloveno.repo.NumeralRepo;
+import com.bcadaval.esloveno.repo.PronombreFlexionRepo;
+import com.bcadaval.esloveno.repo.SustantivoRepo;
+import com.bcadaval.esloveno.repo.VerboRepo;
+import com.bcadaval.esloveno.repo.lectura.PalabraIncompletaLectura;
+import com.bcadaval.esloveno.rest.dto.PalabraIncompletaDTO;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Listado de palabras sin completar para la página de completar palabras.
+ * <p>
+ * Las palabras se recorren por tipo (orden de {@link TipoPalabra}) y, dentro de cada tipo, por ID,
+ * a partir de un {@link Cursor}: cada página es una consulta por tipo con {@code ID > cursor} y
+ * LIMIT sobre los índices parciales *_INCOMPLETOS, así que cuesta lo mismo sea cual sea la página
+ * y el número de palabras pendientes. El filtro por texto es un LIKE '%texto%' en la misma
+ * consulta (SQLite solo ignora mayúsculas/minúsculas en caracteres ASCII).
+ */
+@Log4j2
+@Service
+@Transactional(readOnly = true)
+public class PalabrasIncompletasService {
+
+    /**
+     * Posición en el listado: la última palabra devuelta. En la API se representa como "TIPO:id"
+     */
+    public record Cursor(TipoPalabra tipo, String id) {
+
+        /**
+         * @throws IllegalArgumentException Si el texto no es un cursor válido (en pronombres el ID es numérico)
+         */
+        public static Cursor de(String texto) {
+            int separador = texto.indexOf(':');
+            if (separador < 0) {
+                throw new IllegalArgumentException("Cursor no válido: " + texto);
+            }
+            TipoPalabra tipo = TipoPalabra.valueOf(texto.substring(0, separador));
+            String id = texto.substring(separador + 1);
+            if (tipo == TipoPalabra.PRONOMBRE) {
+                Integer.parseInt(id);
+            }
+            return new Cursor(tipo, id);
+        }
+
+        @Override
+        public String toString() {
+            return tipo.name() + ":" + id;
+        }
+    }
+
+    @Autowired
+    private SustantivoRepo sustantivoRepo;
+
+    @Autowired
+    private VerboRepo verboRepo;
+
+    @Autowired
+    private AdjetivoRepo adjetivoRepo;
+
+    @Autowired
+    private PronombreFlexionRepo pronombreFlexionRepo;
+
+    @Autowired
+    private NumeralRepo numeralRepo;
+
+    /**
+     * Envía a {@code destino} las siguientes palabras incompletas a medida que se leen de la BD
+     *
+     * @param desde   Última palabra de la página anterior, o null para empezar por el principio
+     * @param filtro  Texto que debe contener la palabra, o null para no filtrar
+     * @param limite  Máximo de palabras de la página
+     * @return Cursor de la página siguiente, o null si no quedan más palabras
+     */
+    public Cursor listar(Cursor desde, String filtro, int limite, Consumer<PalabraIncompletaDTO> destino) {
+        String patron = "%" + (filtro == null ? "" : escaparLike(filtro.trim())) + "%";
+        int quedan = limite;
+        Cursor ultimo = null;
+        for (TipoPalabra tipo : TipoPalabra.values()) {
+            if (quedan == 0) {
+                break;
+            }
+            if (desde != null && tipo.ordinal() < desde.tipo().ordinal()) {
+                continue;
+            }
+            String desdeId = desde != null && desde.tipo() == tipo ? desde.id() : null;
+            try (Stream<PalabraIncompletaLectura> palabras = buscar(tipo, desdeId, patron, Limit.of(quedan))) {
+                Iterator<PalabraIncompletaLectura> it = palabras.iterator();
+                while (it.hasNext()) {
+                    PalabraIncompletaLectura palabra = it.next();
+                    destino.accept(palabra.aDTO(tipo));
+                    ultimo = new Cursor(tipo, palabra.id());
+                    quedan--;
+                }
+            }
+        }
+        log.debug("Listadas {} palabras incompletas desde {}", limite - quedan, desde);
+        return quedan == 0 ? ultimo : null;
+    }
+
+    /**
+     * Número de palabras incompletas de cada tipo; cada recuento recorre solo su índice parcial
+     */
+    public Map<TipoPalabra, Long> contar() {
+        Map<TipoPalabra, Long> totales = new EnumMap<>(TipoPalabra.class);
+        for (TipoPalabra tipo : TipoPalabra.values()) {
+            totales.put(tipo, switch (tipo) {
+                case SUSTANTIVO -> sustantivoRepo.countBySignificadoIsNullOrAnimadoIsNull();
+                case VERBO -> verboRepo.countBySignificadoIsNullOrTransitividadIsNull();
+                case ADJETIVO -> adjetivoRepo.countBySignificadoIsNull();
+                case PRONOMBRE -> pronombreFlexionRepo.countBySignificadoIsNull();
+                case NUMERAL -> numeralRepo.countBySignificadoIsNull();
+            });
+        }
+        return totales;
+    }
+
+    /**
+     * @param desdeId ID de la última palabra ya devuelta de este tipo, o null para empezar por la primera
+     */
+    private Stream<PalabraIncompletaLectura> buscar(TipoPalabra tipo, String desdeId, String patron, Limit limite) {
+        String desde = desdeId == null ? "" : desdeId;
+        return switch (tipo) {
+            case SUSTANTIVO -> sustantivoRepo.streamIncompletos(desde, patron, limite);
+            case VERBO -> verboRepo.streamIncompletos(desde, patron, limite);
+            case ADJETIVO -> adjetivoRepo.streamIncompletos(desde, patron, limite);
+            case PRONOMBRE -> pronombreFlexionRepo.streamIncompletas(desdeId == null ? 0 : Integer.valueOf(desdeId), patron, limite);
+            case NUMERAL -> numeralRepo.streamIncompletos(desde, patron, limite);
+        };
+    }
+
+    private static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
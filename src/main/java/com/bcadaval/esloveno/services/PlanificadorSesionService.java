@@ -0,0 +1,129 @@
+package com.bcadaval.esloveno.services;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.structures.EstructuraFrase;
+import com.bcadaval.esloveno.structures.FraseEnConstruccion;
+import com.bcadaval.esloveno.structures.IndiceCandidatos;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Reparte las tarjetas disponibles en una secuencia de frases que cubra el mayor número posible.
+ * <p>
+ * En cada paso se rellena una frase por estructura activa con las tarjetas que quedan. De las
+ * completas, las {@code candidatas} que más tarjetas cubren se puntúan con las suyas más las
+ * que cubriría después un reparto voraz (frase más grande primero) del resto, limitado a
+ * {@code profundidad} frases, y se elige la de más puntos. Los empates se resuelven por la
+ * media de próxima revisión, como hacía la selección de una sola frase. Al final las frases se
+ * ordenan por esa media, de la más atrasada a la más reciente.
+ * <p>
+ * Coste: con N tarjetas, E estructuras activas, C candidatas y P de profundidad, cada paso
+ * rellena como mucho E·(1 + C·P) frases, y cada relleno recorre como mucho las N tarjetas.
+ * Cada paso gasta al menos una tarjeta, así que en total son como mucho N·E·(1 + C·P)
+ * rellenos. N está acotado por MAX_TARJETAS_REVISION_DIA; se planifica en el hilo de la
+ * petición y el tiempo que lleva queda en el log.
+ */
+@Log4j2
+@Service
+public class PlanificadorSesionService {
+
+    @Value("${app.sesion.planificador.candidatas:4}")
+    private int maxCandidatas;
+
+    @Value("${app.sesion.planificador.profundidad:8}")
+    private int profundidad;
+
+    /**
+     * Planifica las frases de una sesión
+     *
+     * @param tarjetas Tarjetas disponibles, ordenadas por prioridad
+     * @param estructuras Estructuras activas
+     * @return Frases completas, sin tarjetas repetidas entre ellas
+     */
+    public List<FraseEnConstruccion> planificar(List<PalabraFlexion<?>> tarjetas, List<EstructuraFrase> estructuras) {
+        long inicio = System.nanoTime();
+        IndiceCandidatos indice = new IndiceCandidatos(tarjetas);
+        BitSet disponibles = new BitSet(indice.size());
+        disponibles.set(0, indice.size());
+
+        List<Opcion> plan = new ArrayList<>();
+        Opcion mejor;
+        while ((mejor = elegirSiguiente(indice, estructuras, disponibles)) != null) {
+            plan.add(mejor);
+            disponibles.andNot(mejor.usadas());
+        }
+
+        log.info("Sesión planificada en {} ms: {} frases con {} de {} tarjetas",
+                (System.nanoTime() - inicio) / 1_000_000, plan.size(),
+                indice.size() - disponibles.cardinality(), indice.size());
+
+        return plan.stream()
+                .sorted(Comparator.comparing(Opcion::media))
+                .map(Opcion::frase)
+                .toList();
+    }
+
+    private Opcion elegirSiguiente(IndiceCandidatos indice, List<EstructuraFrase> estructuras, BitSet disponibles) {
+        List<Opcion> completas = new ArrayList<>();
+        for (EstructuraFrase estructura : estructuras) {
+            FraseEnConstruccion frase = estructura.nuevaFrase();
+            BitSet usadas = indice.rellenar(frase, disponibles);
+            if (frase.estaCompleta()) {
+                completas.add(new Opcion(frase, usadas, frase.calcularMediaInstant()));
+            }
+        }
+        completas.sort(Comparator.comparingInt((Opcion o) -> -o.usadas().cardinality())
+                .thenComparing(Opcion::media));
+
+        Opcion mejor = null;
+        int mejorCubiertas = -1;
+        for (Opcion opcion : completas.subList(0, Math.min(maxCandidatas, completas.size()))) {
+            BitSet restantes = (BitSet) disponibles.clone();
+            restantes.andNot(opcion.usadas());
+            int cubiertas = opcion.usadas().cardinality() + simularVoraz(indice, estructuras, restantes);
+            if (cubiertas > mejorCubiertas || (cubiertas == mejorCubiertas && opcion.media().isBefore(mejor.media()))) {
+                mejor = opcion;
+                mejorCubiertas = cubiertas;
+            }
+        }
+        return mejor;
+    }
+
+    /**
+     * Cuántas tarjetas más se cubrirían eligiendo siempre la frase completa más grande,
+     * hasta {@link #profundidad} frases
+     *
+     * @param disponibles Se modifica: quedan las tarjetas no cubiertas
+     */
+    private int simularVoraz(IndiceCandidatos indice, List<EstructuraFrase> estructuras, BitSet disponibles) {
+        int cubiertas = 0;
+        for (int paso = 0; paso < profundidad; paso++) {
+            BitSet mayor = null;
+            for (EstructuraFrase estructura : estructuras) {
+                FraseEnConstruccion frase = estructura.nuevaFrase();
+                BitSet usadas = indice.rellenar(frase, disponibles);
+                if (frase.estaCompleta() && (mayor == null || usadas.cardinality() > mayor.cardinality())) {
+                    mayor = usadas;
+                }
+            }
+            if (mayor == null) {
+                break;
+            }
+            cubiertas += mayor.cardinality();
+            disponibles.andNot(mayor);
+        }
+        return cubiertas;
+    }
+
+    private record Opcion(FraseEnConstruccion frase, BitSet usadas, Instant media) {
+    }
+}
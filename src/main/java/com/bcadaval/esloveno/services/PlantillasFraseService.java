@@ -0,0 +1,196 @@
+package com.bcadaval.esloveno.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Service;
+
+import com.bcadaval.esloveno.structures.EstructuraFrase;
+import com.bcadaval.esloveno.structures.plantillas.CompiladorPlantillas;
+import com.bcadaval.esloveno.structures.plantillas.PlantillaFrase;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Carga las estructuras de frase definidas como plantillas JSON.
+ * <p>
+ * Lee {@code plantillas-frase.json} del classpath y todos los {@code *.json} del directorio
+ * {@code app.plantillas.path}; cada fichero contiene una lista de {@link PlantillaFrase}.
+ * Las plantillas se compilan al cargar y la lista compilada se sustituye entera, así que se
+ * pueden cambiar sin reiniciar: con {@link #recargar()} (endpoint de configuración) o
+ * automáticamente cuando cambia el directorio. Una plantilla inválida se descarta con un
+ * aviso sin afectar a las demás.
+ */
+@Log4j2
+@Service
+public class PlantillasFraseService {
+
+    private static final String PLANTILLAS_CLASSPATH = "plantillas-frase.json";
+
+    @Autowired
+    private CompiladorPlantillas compiladorPlantillas;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private List<EstructuraFrase> estructurasJava;
+
+    @Lazy
+    @Autowired
+    private EstructuraFraseService estructuraFraseService;
+
+    @Value("${app.plantillas.path:/data/plantillas}")
+    private String plantillasPath;
+
+    @Value("${app.plantillas.comprobacion-intervalo-ms:5000}")
+    private long intervaloComprobacion;
+
+    /** Estructuras compiladas de la última carga */
+    private volatile List<EstructuraFrase> compiladas = List.of();
+
+    /** Huella del directorio en la última carga (ficheros y fechas de modificación) */
+    private volatile String huellaDirectorio = "";
+
+    private ScheduledExecutorService vigilante;
+
+    @PostConstruct
+    public void iniciar() {
+        cargar();
+        if (intervaloComprobacion > 0) {
+            vigilante = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "PlantillasFraseWatcher");
+                t.setDaemon(true);
+                return t;
+            });
+            vigilante.scheduleWithFixedDelay(this::comprobarCambios, intervaloComprobacion, intervaloComprobacion, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (vigilante != null) {
+            vigilante.shutdownNow();
+        }
+    }
+
+    /**
+     * Estructuras compiladas a partir de las plantillas
+     */
+    public List<EstructuraFrase> getEstructuras() {
+        return compiladas;
+    }
+
+    /**
+     * Vuelve a leer y compilar las plantillas y actualiza las estructuras activas
+     *
+     * @return Número de estructuras cargadas desde plantillas
+     */
+    public synchronized int recargar() {
+        cargar();
+        estructuraFraseService.alCambiarEstructuras();
+        return compiladas.size();
+    }
+
+    private void comprobarCambios() {
+        try {
+            if (!huella().equals(huellaDirectorio)) {
+                log.info("Cambios en {}, recargando plantillas de frase", plantillasPath);
+                recargar();
+            }
+        } catch (Exception e) {
+            log.warn("No se pudieron recargar las plantillas de frase: {}", e.getMessage());
+        }
+    }
+
+    private synchronized void cargar() {
+        huellaDirectorio = huella();
+
+        List<PlantillaFrase> plantillas = new ArrayList<>();
+        ClassPathResource recurso = new ClassPathResource(PLANTILLAS_CLASSPATH);
+        if (recurso.exists()) {
+            try (InputStream in = recurso.getInputStream()) {
+                plantillas.addAll(leer(in));
+            } catch (IOException e) {
+                log.warn("No se pudo leer {}: {}", PLANTILLAS_CLASSPATH, e.getMessage());
+            }
+        }
+        for (Path fichero : ficherosDirectorio()) {
+            try (InputStream in = Files.newInputStream(fichero)) {
+                plantillas.addAll(leer(in));
+            } catch (IOException e) {
+                log.warn("No se pudo leer la plantilla {}: {}", fichero, e.getMessage());
+            }
+        }
+
+        Set<String> identificadores = new HashSet<>();
+        estructurasJava.forEach(e -> identificadores.add(e.getIdentificador()));
+
+        List<EstructuraFrase> nuevas = new ArrayList<>();
+        for (PlantillaFrase plantilla : plantillas) {
+            try {
+                EstructuraFrase estructura = compiladorPlantillas.compilar(plantilla);
+                if (!identificadores.add(estructura.getIdentificador())) {
+                    throw new IllegalArgumentException("identificador repetido");
+                }
+                nuevas.add(estructura);
+            } catch (IllegalArgumentException e) {
+                log.warn("Plantilla de frase '{}' descartada: {}", plantilla.identificador(), e.getMessage());
+            }
+        }
+
+        compiladas = List.copyOf(nuevas);
+        log.info("Cargadas {} estructuras de frase desde plantillas: {}", compiladas.size(),
+                compiladas.stream().map(EstructuraFrase::getIdentificador).toList());
+    }
+
+    private List<PlantillaFrase> leer(InputStream in) throws IOException {
+        return objectMapper.readValue(in, new TypeReference<List<PlantillaFrase>>() {});
+    }
+
+    private List<Path> ficherosDirectorio() {
+        Path directorio = Path.of(plantillasPath);
+        if (!Files.isDirectory(directorio)) {
+            return List.of();
+        }
+        try (Stream<Path> ficheros = Files.list(directorio)) {
+            return ficheros
+                    .filter(f -> f.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            log.warn("No se pudo listar {}: {}", directorio, e.getMessage());
+            return List.of();
+        }
+    }
+
+    private String huella() {
+        StringBuilder huella = new StringBuilder();
+        for (Path fichero : ficherosDirectorio()) {
+            try {
+                huella.append(fichero).append('@').append(Files.getLastModifiedTime(fichero).toMillis()).append(';');
+            } catch (IOException e) {
+                huella.append(fichero).append("@?;");
+            }
+        }
+        return huella.toString();
+    }
+}
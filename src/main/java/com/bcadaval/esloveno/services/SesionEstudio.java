@@ -0,0 +1,135 @@
+package com.bcadaval.esloveno.services;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.SessionScope;
+
+import com.bcadaval.esloveno.structures.DatoVisualizacion;
+import com.bcadaval.esloveno.structures.FraseEnConstruccion;
+
+/**
+ * Frases planificadas pendientes de mostrar en la sesión HTTP actual, junto con
+ * los datos de visualización ya preparados en segundo plano para las siguientes.
+ * Se accede siempre a través de {@link SesionEstudioService}.
+ */
+@Component
+@SessionScope
+public class SesionEstudio {
+
+    private final Deque<FraseEnConstruccion> frases = new ArrayDeque<>();
+
+    /** Preparación en curso o terminada de las próximas frases */
+    private final Map<FraseEnConstruccion, CompletableFuture<List<DatoVisualizacion>>> preparadas = new IdentityHashMap<>();
+
+    /** Versión de las estructuras activas con la que se planificó */
+    private long versionEstructuras;
+
+    private Instant creada = Instant.EPOCH;
+
+    /** Cuándo vuelve a tocar la primera tarjeta fallada en esta sesión, o null si no se ha fallado ninguna */
+    private Instant replanificarEn;
+
+    /**
+     * Sustituye las frases pendientes por un plan nuevo
+     *
+     * @param plan Frases en el orden en que se mostrarán
+     * @param versionEstructuras Versión de las estructuras activas al planificar
+     */
+    public synchronized void iniciar(List<FraseEnConstruccion> plan, long versionEstructuras) {
+        this.frases.clear();
+        this.frases.addAll(plan);
+        this.preparadas.values().forEach(f -> f.cancel(false));
+        this.preparadas.clear();
+        this.versionEstructuras = versionEstructuras;
+        this.creada = Instant.now();
+        this.replanificarEn = null;
+    }
+
+    /**
+     * Indica si quedan frases de un plan reciente hecho con las mismas estructuras activas
+     * y aún no ha vuelto a tocar ninguna tarjeta fallada durante la sesión
+     */
+    public synchronized boolean estaVigente(long versionActivas, Duration caducidad) {
+        Instant ahora = Instant.now();
+        return !frases.isEmpty()
+                && versionEstructuras == versionActivas
+                && creada.plus(caducidad).isAfter(ahora)
+                && (replanificarEn == null || replanificarEn.isAfter(ahora));
+    }
+
+    /**
+     * Anota que una tarjeta fallada vuelve a estar disponible en {@code proximaRevision}:
+     * a partir de entonces el plan deja de estar vigente, para que entre en el siguiente
+     */
+    public synchronized void anotarReaprendizaje(Instant proximaRevision) {
+        if (replanificarEn == null || proximaRevision.isBefore(replanificarEn)) {
+            replanificarEn = proximaRevision;
+        }
+    }
+
+    /**
+     * Saca la siguiente frase del plan, o null si no quedan
+     */
+    public synchronized FraseEnConstruccion siguiente() {
+        return frases.pollFirst();
+    }
+
+    /**
+     * Lanza la preparación de las próximas frases que aún no la tengan
+     *
+     * @param cuantas Número de frases a tener preparadas
+     * @param preparacion Función que lanza la preparación de una frase
+     */
+    public synchronized void preparar(int cuantas, Function<FraseEnConstruccion, CompletableFuture<List<DatoVisualizacion>>> preparacion) {
+        frases.stream()
+                .limit(cuantas)
+                .forEach(frase -> preparadas.computeIfAbsent(frase, preparacion));
+    }
+
+    /**
+     * Retira y devuelve la preparación de una frase, o null si no se lanzó
+     */
+    public synchronized CompletableFuture<List<DatoVisualizacion>> tomarPreparada(FraseEnConstruccion frase) {
+        return preparadas.remove(frase);
+    }
+
+    /**
+     * Quita del plan las frases que cumplan la condición, junto con su preparación
+     *
+     * @return Número de frases quitadas
+     */
+    public synchronized int descartar(Predicate<FraseEnConstruccion> condicion) {
+        int descartadas = 0;
+        for (var it = frases.iterator(); it.hasNext(); ) {
+            FraseEnConstruccion frase = it.next();
+            if (condicion.test(frase)) {
+                it.remove();
+                CompletableFuture<List<DatoVisualizacion>> preparada = preparadas.remove(frase);
+                if (preparada != null) {
+                    preparada.cancel(false);
+                }
+                descartadas++;
+            }
+        }
+        return descartadas;
+    }
+
+    /**
+     * Número de tarjetas en las frases que quedan por mostrar
+     */
+    public synchronized int getTarjetasPendientes() {
+        return frases.stream()
+                .mapToInt(f -> f.getEstructura().getSlots().size())
+                .sum();
+    }
+}
@@ -0,0 +1,172 @@
+package com.bcadaval.esloveno.services;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.structures.DatoVisualizacion;
+import com.bcadaval.esloveno.structures.EstructuraFrase;
+import com.bcadaval.esloveno.structures.FraseEnConstruccion;
+import com.bcadaval.esloveno.structures.FraseTipoPalabra;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Sirve las frases de estudio de una en una a partir de un plan de sesión.
+ * <p>
+ * La primera petición (o cuando el plan se agota, caduca o cambian las estructuras activas)
+ * consulta las tarjetas disponibles y las reparte en frases con {@link PlanificadorSesionService};
+ * las siguientes solo sacan la próxima frase del plan guardado en la sesión HTTP.
+ * <p>
+ * Cada vez que se muestra una frase se preparan en hilos virtuales los datos de visualización
+ * de las siguientes (palabras de apoyo incluidas), mientras el usuario responde. Como cada
+ * tarjeta aparece en una sola frase del plan, responder la frase mostrada no cambia lo ya
+ * preparado; solo se descarta al planificar de nuevo o, con {@link #descartarFrasesCon},
+ * si llega la respuesta de una tarjeta que estaba en una frase pendiente (otra pestaña,
+ * reenvío del formulario...).
+ * <p>
+ * Una tarjeta fallada vuelve a estar disponible al cabo del intervalo de reaprendizaje; cuando
+ * llega ese momento ({@link #registrarFallo}) el plan deja de estar vigente y la siguiente
+ * petición planifica de nuevo, ya con ella, en lugar de esperar a que se agote o caduque.
+ */
+@Log4j2
+@Service
+public class SesionEstudioService {
+
+    @Autowired
+    private RepeticionEspaciadaService repeticionEspaciadaService;
+
+    @Autowired
+    private VariablesService variablesService;
+
+    @Autowired
+    private EstructuraFraseService estructuraFraseService;
+
+    @Autowired
+    private PlanificadorSesionService planificadorSesionService;
+
+    @Autowired
+    private SesionEstudio sesionEstudio;
+
+    @Value("${app.sesion.caducidad-minutos:30}")
+    private long caducidadMinutos;
+
+    @Value("${app.sesion.frases-precargadas:2}")
+    private int frasesPrecargadas;
+
+    private final ExecutorService precarga = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    public void detener() {
+        precarga.shutdownNow();
+    }
+
+    /**
+     * Obtiene la siguiente frase de la sesión, planificando una nueva si hace falta
+     */
+    public PaginaEstudio siguientePagina() {
+        long version = estructuraFraseService.getVersionActivas();
+        if (!sesionEstudio.estaVigente(version, Duration.ofMinutes(caducidadMinutos))) {
+            planificar(estructuraFraseService.getEstructurasActivas(), version);
+        }
+
+        FraseEnConstruccion frase = sesionEstudio.siguiente();
+        if (frase == null) {
+            return new PaginaEstudio(List.of(), 0);
+        }
+
+        List<DatoVisualizacion> datos = obtenerDatos(frase);
+        log.info("Estructura seleccionada: '{}' con puntuación {}",
+                frase.getEstructura().getNombreMostrar(), frase.calcularMediaInstant());
+
+        int pendientes = sesionEstudio.getTarjetasPendientes() + frase.getEstructura().getSlots().size();
+        sesionEstudio.preparar(frasesPrecargadas, this::prepararEnSegundoPlano);
+        return new PaginaEstudio(datos, pendientes);
+    }
+
+    /**
+     * Usa los datos preparados en segundo plano si los hay (esperando a que terminen si
+     * aún están en curso); si no, o si fallaron, los construye ahora.
+     */
+    private List<DatoVisualizacion> obtenerDatos(FraseEnConstruccion frase) {
+        CompletableFuture<List<DatoVisualizacion>> preparada = sesionEstudio.tomarPreparada(frase);
+        if (preparada != null) {
+            try {
+                List<DatoVisualizacion> datos = preparada.join();
+                log.debug("Frase servida desde la precarga");
+                return datos;
+            } catch (CancellationException | CompletionException e) {
+                log.warn("Falló la precarga de la frase, se construye de nuevo: {}", e.getMessage());
+            }
+        }
+        return frase.construirDatosVisualizacion();
+    }
+
+    /**
+     * La tarea no toca los slots de la frase (los apoyos y los datos se guardan aparte), así
+     * que la petición puede seguir consultándola o descartándola mientras tanto. El bean de
+     * sesión no está disponible fuera de la petición.
+     */
+    private CompletableFuture<List<DatoVisualizacion>> prepararEnSegundoPlano(FraseEnConstruccion frase) {
+        return CompletableFuture.supplyAsync(frase::construirDatosVisualizacion, precarga);
+    }
+
+    /**
+     * Quita de la sesión las frases pendientes que contienen una tarjeta recién respondida,
+     * que ya no está vencida
+     */
+    public void descartarFrasesCon(FraseTipoPalabra tipo, Integer id) {
+        int descartadas = sesionEstudio.descartar(frase -> frase.contieneTarjeta(tipo, id));
+        if (descartadas > 0) {
+            log.info("Descartadas {} frases pendientes con la tarjeta {} {}", descartadas, tipo, id);
+        }
+    }
+
+    /**
+     * Anota en la sesión una tarjeta recién fallada, ya con su próxima revisión
+     */
+    public void registrarFallo(PalabraFlexion<?> flexion) {
+        if (flexion.getProximaRevision() != null) {
+            sesionEstudio.anotarReaprendizaje(flexion.getProximaRevision());
+        }
+    }
+
+    private void planificar(List<EstructuraFrase> estructuras, long version) {
+        int maxRevision = variablesService.getMaxTarjetasRevisionDia();
+
+        // Obtener tarjetas listas para estudiar (proximaRevision <= ahora)
+        List<PalabraFlexion<?>> tarjetas = repeticionEspaciadaService.obtenerTarjetasDisponibles(maxRevision);
+        log.info("Tarjetas disponibles: {}", tarjetas.size());
+
+        List<FraseEnConstruccion> plan = tarjetas.isEmpty()
+                ? List.of()
+                : planificadorSesionService.planificar(tarjetas, estructuras);
+
+        if (plan.isEmpty() && !tarjetas.isEmpty()) {
+            log.warn("Ninguna estructura de frase se completó con las {} tarjetas disponibles", tarjetas.size());
+            log.info("=================== Tarjetas no usadas ==================");
+            for (PalabraFlexion<?> tarjeta : tarjetas) {
+                log.info(" - {}", tarjeta);
+            }
+            log.info("=============== Fin de tarjetas no usadas ===============");
+        }
+
+        sesionEstudio.iniciar(plan, version);
+    }
+
+    /**
+     * Frase a mostrar y número de tarjetas que quedan en la sesión (incluidas las de esta frase)
+     */
+    public record PaginaEstudio(List<DatoVisualizacion> datos, int tarjetasPendientes) {
+    }
+}
@@ -1,20 +1,26 @@
 package com.bcadaval.esloveno.services;
 
-import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.bcadaval.esloveno.beans.Variable;
-import com.bcadaval.esloveno.beans.enums.Caso;
 import com.bcadaval.esloveno.repo.VariablesRepo;
+import com.bcadaval.esloveno.services.srs.ConfiguracionSrs;
+import com.bcadaval.esloveno.services.srs.Transacciones;
 
 import lombok.extern.log4j.Log4j2;
 
 /**
- * Servicio para gestionar las variables de configuración del sistema SRS
+ * Servicio para gestionar las variables de configuración del sistema SRS.
+ * <p>
+ * Los valores se sirven desde una instantánea inmutable en memoria ({@link ConfiguracionSrs})
+ * que se carga la primera vez que se necesita y se sustituye de forma atómica al guardar.
  */
 @Log4j2
 @Service
@@ -23,6 +29,9 @@ public class VariablesService {
     @Autowired
     private VariablesRepo variablesRepo;
 
+    /** Instantánea actual de la configuración (null hasta la primera carga) */
+    private final AtomicReference<ConfiguracionSrs> configuracion = new AtomicReference<>();
+
     // Claves de variables
     public static final String INTERVALO_INICIAL_SEGUNDOS = "INTERVALO_INICIAL_SEGUNDOS";
     public static final String INTERVALO_SEGUNDA_SEGUNDOS = "INTERVALO_SEGUNDA_SEGUNDOS";
@@ -42,89 +51,110 @@ public class VariablesService {
     }
 
     /**
-     * Guarda una variable
+     * Guarda una variable y, al confirmar, publica una nueva instantánea de configuración
+     *
+     * @throws IllegalArgumentException Si el valor no es válido para la variable; no se guarda nada
      */
+    @Transactional
     public Variable guardarVariable(Variable variable) {
-        return variablesRepo.save(variable);
+        ConfiguracionSrs.validar(variable);
+        Variable guardada = variablesRepo.save(variable);
+        Transacciones.trasConfirmar(this::recargarConfiguracion);
+        return guardada;
+    }
+
+    /**
+     * Guarda varias variables en una sola transacción y, al confirmarla, publica una única
+     * instantánea nueva: nunca se observa una configuración a medio guardar ni una que se
+     * haya deshecho en BD.
+     *
+     * @throws IllegalArgumentException Si algún valor no es válido; no se guarda ninguna
+     */
+    @Transactional
+    public void guardarVariables(List<Variable> variables) {
+        variables.forEach(ConfiguracionSrs::validar);
+        variablesRepo.saveAll(variables);
+        Transacciones.trasConfirmar(this::recargarConfiguracion);
+    }
+
+    /**
+     * Obtiene la instantánea actual de la configuración SRS.
+     * Una petición debería leerla una vez y usar sus valores durante todo su procesamiento.
+     */
+    public ConfiguracionSrs getConfiguracion() {
+        ConfiguracionSrs actual = configuracion.get();
+        return actual != null ? actual : recargarConfiguracion();
+    }
+
+    /**
+     * Vuelve a leer la tabla VARIABLES y sustituye la instantánea actual
+     */
+    public ConfiguracionSrs recargarConfiguracion() {
+        ConfiguracionSrs nueva = ConfiguracionSrs.desde(variablesRepo.findAll().stream()
+                .collect(Collectors.toMap(Variable::getClave, Function.identity())));
+        configuracion.set(nueva);
+        log.debug("Configuración SRS cargada: {}", nueva);
+        return nueva;
     }
 
     /**
      * Obtiene el intervalo inicial en segundos (primera repetición)
      */
     public Long getIntervaloInicialSegundos() {
-        return variablesRepo.findByClave(INTERVALO_INICIAL_SEGUNDOS)
-                .map(Variable::getValorAsLong)
-                .orElse(600L); // 10 minutos por defecto
+        return getConfiguracion().intervaloInicialSegundos();
     }
 
     /**
      * Obtiene el intervalo de segunda repetición en segundos
      */
     public Long getIntervaloSegundaSegundos() {
-        return variablesRepo.findByClave(INTERVALO_SEGUNDA_SEGUNDOS)
-                .map(Variable::getValorAsLong)
-                .orElse(3600L); // 1 hora por defecto
+        return getConfiguracion().intervaloSegundaSegundos();
     }
 
     /**
      * Obtiene el intervalo de reaprendizaje en segundos (tras fallar)
      */
     public Long getIntervaloReaprendizajeSegundos() {
-        return variablesRepo.findByClave(INTERVALO_REAPRENDIZAJE_SEGUNDOS)
-                .map(Variable::getValorAsLong)
-                .orElse(30L); // 30 segundos por defecto
+        return getConfiguracion().intervaloReaprendizajeSegundos();
     }
 
     /**
      * Obtiene el factor de facilidad mínimo
      */
     public Double getFactorFacilidadMinimo() {
-        return variablesRepo.findByClave(FACTOR_FACILIDAD_MINIMO)
-                .map(Variable::getValorAsDouble)
-                .orElse(1.3);
+        return getConfiguracion().factorFacilidadMinimo();
     }
 
     /**
      * Obtiene el factor de facilidad inicial
      */
     public Double getFactorFacilidadInicial() {
-        return variablesRepo.findByClave(FACTOR_FACILIDAD_INICIAL)
-                .map(Variable::getValorAsDouble)
-                .orElse(2.5);
+        return getConfiguracion().factorFacilidadInicial();
     }
 
     /**
      * Obtiene la penalización por fallo
      */
     public Double getPenalizacionFallo() {
-        return variablesRepo.findByClave(PENALIZACION_FALLO)
-                .map(Variable::getValorAsDouble)
-                .orElse(0.2);
+        return getConfiguracion().penalizacionFallo();
     }
 
     /**
      * Obtiene el máximo de tarjetas nuevas por día
      */
     public Integer getMaxTarjetasNuevasDia() {
-        return variablesRepo.findByClave(MAX_TARJETAS_NUEVAS_DIA)
-                .map(Variable::getValorAsInteger)
-                .orElse(20);
+        return getConfiguracion().maxTarjetasNuevasDia();
     }
 
     /**
      * Obtiene el máximo de revisiones por día
      */
     public Integer getMaxTarjetasRevisionDia() {
-        return variablesRepo.findByClave(MAX_TARJETAS_REVISION_DIA)
-                .map(Variable::getValorAsInteger)
-                .orElse(100);
+        return getConfiguracion().maxTarjetasRevisionDia();
     }
 
     public Boolean getMezclarTarjetas() {
-        return variablesRepo.findByClave(MEZCLAR_TARJETAS)
-                .map(Variable::getValorAsBoolean)
-                .orElse(true);
+        return getConfiguracion().mezclarTarjetas();
     }
 
 }
-
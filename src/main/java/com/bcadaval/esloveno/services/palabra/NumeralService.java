@@ -1,6 +1,10 @@
 package com.bcadaval.esloveno.services.palabra;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
 import com.bcadaval.esloveno.beans.enums.Caso;
@@ -15,15 +19,31 @@ import org.springframework.stereotype.Service;
 
 import com.bcadaval.esloveno.repo.NumeralRepo;
 
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Numerales de apoyo para las frases.
+ * <p>
+ * Los numerales activos se agrupan una vez en una tabla inmutable indexada por
+ * (número, caso, género) con los candidatos ya filtrados por principal, así que generar un
+ * numeral de apoyo no consulta la base de datos. La tabla se recarga tras {@link #invalidar()};
+ * las flexiones que contiene son compartidas y solo deben leerse.
+ */
+@Log4j2
 @Service
 public class NumeralService {
 
+	private static final NumeralFlexion[] SIN_CANDIDATOS = new NumeralFlexion[0];
+
 	@Autowired
 	NumeralRepo numeralRepo;
 
 	@Autowired
 	NumeralFlexionRepo numeralFlexionRepo;
 
+	/** Numero -> Caso -> candidatos por ordinal de género (más "cualquiera" al final), o null si hay que recargarla */
+	private volatile Map<Numero, Map<Caso, NumeralFlexion[][]>> tabla;
+
 	/**
 	 * Devuelve un numeral que coincida con el adjetivo dado.
 	 */
@@ -48,7 +68,7 @@ public class NumeralService {
 
 	/**
 	 * Devuelve un numeral que coincida con el número, caso y género dados.
-	 * Lógica unificada que filtra en la base de datos y solo devuelve tarjetas inicializadas.
+	 * Solo devuelve tarjetas inicializadas, filtradas por principal según el número:
 	 * - Si numero es SINGULAR: principal debe ser "en"
 	 * - Si numero es DUAL: principal debe ser "dva"
 	 * - Si numero es PLURAL: principal debe ser distinto de "en" y "dva"
@@ -59,20 +79,88 @@ public class NumeralService {
 	 * @return NumeralFlexion que coincide, o null si no se encuentra
 	 */
 	public NumeralFlexion getNumeral(Numero numero, Caso caso, Genero genero) {
-		// Primero intentar con género específico
-		List<NumeralFlexion> candidatos = numeralFlexionRepo.findByCasoAndNumeroAndGenero(caso, numero, genero);
-
-		// Filtrar por principal según el número
-		List<NumeralFlexion> filtrados = candidatos.stream()
-				.filter(nf -> filterByPrincipal(nf, numero))
-				.toList();
-
-		if (filtrados.isEmpty()) {
+		if (numero == null || caso == null) {
+			return null;
+		}
+		NumeralFlexion[] candidatos = getTabla().get(numero).get(caso)[indiceGenero(genero)];
+		if (candidatos.length == 0) {
 			return null;
 		}
 
 		// Devolver uno aleatorio
-		return filtrados.get(ThreadLocalRandom.current().nextInt(filtrados.size()));
+		return candidatos[ThreadLocalRandom.current().nextInt(candidatos.length)];
+	}
+
+	/**
+	 * Descarta la tabla para que se recargue en la siguiente consulta.
+	 * Se llama al añadir o activar numerales.
+	 */
+	public void invalidar() {
+		tabla = null;
+	}
+
+	private Map<Numero, Map<Caso, NumeralFlexion[][]>> getTabla() {
+		Map<Numero, Map<Caso, NumeralFlexion[][]>> actual = tabla;
+		if (actual == null) {
+			synchronized (this) {
+				actual = tabla;
+				if (actual == null) {
+					actual = cargar();
+					tabla = actual;
+				}
+			}
+		}
+		return actual;
+	}
+
+	/**
+	 * Agrupa los numerales activos por número, caso y género. Cada numeral va a la casilla de su
+	 * género y a la de "cualquier género" (índice final), que es la que se usa cuando el género
+	 * pedido es null.
+	 */
+	private Map<Numero, Map<Caso, NumeralFlexion[][]>> cargar() {
+		List<NumeralFlexion> activos = numeralFlexionRepo.findActivas();
+
+		Map<Numero, Map<Caso, List<List<NumeralFlexion>>>> agrupados = new EnumMap<>(Numero.class);
+		for (NumeralFlexion nf : activos) {
+			if (nf.getCaso() == null || nf.getNumero() == null || !filterByPrincipal(nf, nf.getNumero())) {
+				continue;
+			}
+			List<List<NumeralFlexion>> porGenero = agrupados
+					.computeIfAbsent(nf.getNumero(), n -> new EnumMap<>(Caso.class))
+					.computeIfAbsent(nf.getCaso(), c -> {
+						List<List<NumeralFlexion>> listas = new ArrayList<>();
+						for (int i = 0; i <= Genero.values().length; i++) {
+							listas.add(new ArrayList<>());
+						}
+						return listas;
+					});
+			if (nf.getGenero() != null) {
+				porGenero.get(nf.getGenero().ordinal()).add(nf);
+			}
+			porGenero.get(indiceGenero(null)).add(nf);
+		}
+
+		Map<Numero, Map<Caso, NumeralFlexion[][]>> nueva = new EnumMap<>(Numero.class);
+		for (Numero numero : Numero.values()) {
+			Map<Caso, NumeralFlexion[][]> porCaso = new EnumMap<>(Caso.class);
+			for (Caso caso : Caso.values()) {
+				List<List<NumeralFlexion>> porGenero = agrupados.getOrDefault(numero, Map.of()).get(caso);
+				NumeralFlexion[][] casillas = new NumeralFlexion[Genero.values().length + 1][];
+				for (int i = 0; i < casillas.length; i++) {
+					casillas[i] = porGenero == null ? SIN_CANDIDATOS : porGenero.get(i).toArray(NumeralFlexion[]::new);
+				}
+				porCaso.put(caso, casillas);
+			}
+			nueva.put(numero, Collections.unmodifiableMap(porCaso));
+		}
+
+		log.info("Tabla de numerales cargada: {} flexiones activas", activos.size());
+		return Collections.unmodifiableMap(nueva);
+	}
+
+	private static int indiceGenero(Genero genero) {
+		return genero == null ? Genero.values().length : genero.ordinal();
 	}
 
 	/**
@@ -5,10 +5,12 @@ import com.bcadaval.esloveno.beans.base.PalabraFlexion;
 import com.bcadaval.esloveno.beans.enums.TipoPalabra;
 import com.bcadaval.esloveno.beans.palabra.*;
 import com.bcadaval.esloveno.repo.*;
+import com.bcadaval.esloveno.services.srs.Transacciones;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Log4j2
 @Service
@@ -39,6 +41,11 @@ public class PalabraService {
 	@Autowired
 	private NumeralFlexionRepo numeralFlexionRepo;
 
+	@Autowired
+	private PronombreService pronombreService;
+	@Autowired
+	private NumeralService numeralService;
+
 	/** Devuelve el repositorio de flexiones correspondiente según la clase de la palabra */
 	@SuppressWarnings("rawtypes")
 	private JpaRepository getFlexionRepository(Palabra<?> palabra) {
@@ -52,7 +59,11 @@ public class PalabraService {
 
 	}
 
-	/** Guarda una palabra y sus flexiones asociadas */
+	/**
+	 * Guarda una palabra y sus flexiones asociadas en una sola transacción.
+	 * Las flexiones se insertan en lotes JDBC (ver {@link com.bcadaval.esloveno.config.IdPorBloques}).
+	 */
+	@Transactional
 	@SuppressWarnings("rawtypes")
 	public Palabra<?> saveWordAndConjugations(Palabra<?> palabra) {
 		log.debug("Guardando palabra {} con {} flexiones", palabra.getPrincipal(), palabra.getListaFlexiones().size());
@@ -80,6 +91,13 @@ public class PalabraService {
 
 		getFlexionRepository(palabra).saveAll(palabra.getListaFlexiones());
 
+		// Las tablas en memoria de palabras de apoyo se recargan en la siguiente consulta
+		switch (palabra) {
+			case Pronombre p -> Transacciones.trasConfirmar(pronombreService::invalidar);
+			case Numeral n -> Transacciones.trasConfirmar(numeralService::invalidar);
+			default -> { }
+		}
+
 		return palabraGuardada;
 	}
 
@@ -1,39 +1,119 @@
 package com.bcadaval.esloveno.services.palabra;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.concurrent.ThreadLocalRandom;
 
 import com.bcadaval.esloveno.beans.enums.Caso;
+import com.bcadaval.esloveno.beans.enums.Numero;
+import com.bcadaval.esloveno.beans.enums.Persona;
 import com.bcadaval.esloveno.beans.palabra.PronombreFlexion;
 import com.bcadaval.esloveno.repo.PronombreFlexionRepo;
+import com.bcadaval.esloveno.services.InitializationService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Example;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 import com.bcadaval.esloveno.beans.palabra.VerboFlexion;
 import com.bcadaval.esloveno.repo.PronombreRepo;
 
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Pronombres de apoyo para las frases.
+ * <p>
+ * Los pronombres casi nunca cambian, así que se cargan todos una vez en una tabla inmutable
+ * indexada por (persona, número, caso, clítico) y cada consulta es una búsqueda en un mapa más
+ * un índice aleatorio. La tabla se sustituye entera al arrancar y cuando se edita un pronombre
+ * ({@link #invalidar()}); las flexiones que contiene son compartidas y solo deben leerse.
+ */
+@Log4j2
 @Service
 public class PronombreService {
-	
+
 	@Autowired
 	PronombreRepo pronombreRepo;
 
 	@Autowired
 	PronombreFlexionRepo pronombreFlexionRepo;
 
-	/** Devuelve un pronombre que coincide con la persona y número del verbo dado */
+	@Lazy
+	@Autowired
+	private InitializationService initializationService;
+
+	/** Tabla actual, o null si hay que recargarla */
+	private volatile Map<ClavePronombre, PronombreFlexion[]> tabla;
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void alArrancar() {
+		if (!initializationService.isDatabaseReady()) {
+			return;
+		}
+		try {
+			getTabla();
+		} catch (Exception e) {
+			log.warn("No se pudo cargar la tabla de pronombres al arrancar: {}", e.getMessage());
+		}
+	}
+
+	/** Devuelve un pronombre no clítico que coincide con la persona y número del verbo dado */
 	public PronombreFlexion getPronombre(VerboFlexion verboFlexion) {
-		return pronombreFlexionRepo.findAll(
-				Example.of(
-						PronombreFlexion.builder()
-							.persona(verboFlexion.getPersona())
-							.numero(verboFlexion.getNumero())
-							.caso(Caso.NOMINATIVO)
-							.build())).stream()
-		.filter(p -> !Boolean.TRUE.equals(p.getClitico())) // Excluir formas clíticas
-		.sorted((o1, o2) -> ThreadLocalRandom.current().nextInt(-1, 2))
-		.findAny()
-		.orElseThrow();
+		ClavePronombre clave = new ClavePronombre(verboFlexion.getPersona(), verboFlexion.getNumero(), Caso.NOMINATIVO, false);
+		PronombreFlexion[] candidatos = getTabla().get(clave);
+		if (candidatos == null) {
+			throw new NoSuchElementException("No hay pronombres que coincidan con " + clave);
+		}
+		return candidatos[ThreadLocalRandom.current().nextInt(candidatos.length)];
+	}
+
+	/**
+	 * Descarta la tabla para que se recargue en la siguiente consulta
+	 */
+	public void invalidar() {
+		tabla = null;
+	}
+
+	private Map<ClavePronombre, PronombreFlexion[]> getTabla() {
+		Map<ClavePronombre, PronombreFlexion[]> actual = tabla;
+		if (actual == null) {
+			synchronized (this) {
+				actual = tabla;
+				if (actual == null) {
+					actual = cargar();
+					tabla = actual;
+				}
+			}
+		}
+		return actual;
+	}
+
+	private Map<ClavePronombre, PronombreFlexion[]> cargar() {
+		List<PronombreFlexion> pronombres = pronombreFlexionRepo.findAll();
+
+		Map<ClavePronombre, List<PronombreFlexion>> agrupados = new HashMap<>();
+		for (PronombreFlexion pronombre : pronombres) {
+			ClavePronombre clave = new ClavePronombre(pronombre.getPersona(), pronombre.getNumero(),
+					pronombre.getCaso(), Boolean.TRUE.equals(pronombre.getClitico()));
+			agrupados.computeIfAbsent(clave, c -> new ArrayList<>()).add(pronombre);
+		}
+
+		Map<ClavePronombre, PronombreFlexion[]> nueva = new HashMap<>();
+		agrupados.forEach((clave, lista) -> nueva.put(clave, lista.toArray(PronombreFlexion[]::new)));
+
+		log.info("Tabla de pronombres cargada: {} flexiones en {} combinaciones", pronombres.size(), nueva.size());
+		return Map.copyOf(nueva);
+	}
+
+	/**
+	 * Combinación de rasgos por la que se buscan los pronombres.
+	 * Un clítico no especificado cuenta como no clítico.
+	 */
+	private record ClavePronombre(Persona persona, Numero numero, Caso caso, boolean clitico) {
 	}
 
 }
@@ -1,69 +1,202 @@
 package com.bcadaval.esloveno.services.palabra.sustantivo;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import com.bcadaval.esloveno.beans.enums.Caso;
+import com.bcadaval.esloveno.beans.enums.Genero;
+import com.bcadaval.esloveno.beans.enums.Numero;
 import com.bcadaval.esloveno.beans.palabra.AdjetivoFlexion;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
 import com.bcadaval.esloveno.repo.SustantivoFlexionRepo;
 import com.bcadaval.esloveno.repo.SustantivoRepo;
+import com.bcadaval.esloveno.services.srs.Transacciones;
 
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Sustantivos de apoyo para las frases.
+ * <p>
+ * Las flexiones activas se indexan en memoria por concordancia (caso, número, género del
+ * sustantivo base): una casilla por combinación con un array inmutable de candidatos, así que
+ * elegir un sustantivo que concuerde es leer una casilla y sacar un índice aleatorio.
+ * El índice se carga entero la primera vez que se usa (o tras {@link #invalidar()}) y después
+ * se actualiza por casillas con {@link #registrarActivacion}, copiando solo la casilla afectada.
+ * Las flexiones que contiene son compartidas y solo deben leerse.
+ */
+@Log4j2
 @Service
 public class SustantivoService {
-	
+
+	private static final SustantivoFlexion[] SIN_CANDIDATOS = new SustantivoFlexion[0];
+
+	private static final int CASILLAS = Caso.values().length * Numero.values().length * Genero.values().length;
+
 	@Autowired
 	private SustantivoRepo sustantivoRepo;
-	
+
 	@Autowired
 	private SustantivoFlexionRepo sustantivoFlexionRepo;
 
-	public SustantivoFlexion getSustantivoAleatorio() throws NoSuchElementException {
-		long count = sustantivoFlexionRepo.count();
-		if (count == 0) {
-			throw new NoSuchElementException("No hay sustantivos disponibles");
-		}
+	/** Candidatos por casilla de concordancia, o null si hay que cargarlo */
+	private volatile AtomicReferenceArray<SustantivoFlexion[]> casillas;
 
-		int randomPage = ThreadLocalRandom.current().nextInt(0, (int) Math.ceil((double) count / 100));
-		List<SustantivoFlexion> pagina = sustantivoFlexionRepo
-				.findAll(PageRequest.of(randomPage, 100))
-				.getContent();
+	/** Todas las flexiones del índice, para la elección sin concordancia */
+	private volatile SustantivoFlexion[] todos = SIN_CANDIDATOS;
 
-		if (pagina.isEmpty()) {
+	/**
+	 * Obtiene un sustantivo activo cualquiera
+	 *
+	 * @throws NoSuchElementException si no hay ninguno
+	 */
+	public SustantivoFlexion getSustantivoAleatorio() throws NoSuchElementException {
+		getCasillas();
+		SustantivoFlexion[] candidatos = todos;
+		if (candidatos.length == 0) {
 			throw new NoSuchElementException("No hay sustantivos disponibles");
 		}
-
-		return pagina.get(ThreadLocalRandom.current().nextInt(pagina.size()));
+		return candidatos[ThreadLocalRandom.current().nextInt(candidatos.length)];
 	}
 
 	/**
 	 * Obtiene un sustantivo que coincida en caso, género y número con el adjetivo dado.
 	 * El género se obtiene del sustantivo base.
-	 * Solo devuelve sustantivos con tarjetas inicializadas (proximaRevision IS NOT NULL).
+	 * Solo devuelve sustantivos activos (con tarjeta SRS).
 	 *
 	 * @param adjetivoFlexion Adjetivo con el que debe concordar el sustantivo
 	 * @return SustantivoFlexion que concuerda con el adjetivo
 	 * @throws NoSuchElementException si no se encuentra ningún sustantivo que concuerde
 	 */
 	public SustantivoFlexion getSustantivo(AdjetivoFlexion adjetivoFlexion) throws NoSuchElementException {
-		// Buscar sustantivos que coincidan en caso, número y género (filtrando en BD)
-		List<SustantivoFlexion> coincidentes = sustantivoFlexionRepo.findByCasoAndNumeroAndGenero(
-				adjetivoFlexion.getCaso(),
-				adjetivoFlexion.getNumero(),
-				adjetivoFlexion.getGenero()
-		);
-
-		if (coincidentes.isEmpty()) {
+		Caso caso = adjetivoFlexion.getCaso();
+		Numero numero = adjetivoFlexion.getNumero();
+		Genero genero = adjetivoFlexion.getGenero();
+
+		SustantivoFlexion[] coincidentes = caso == null || numero == null || genero == null
+				? SIN_CANDIDATOS
+				: getCasillas().get(casilla(caso, numero, genero));
+
+		if (coincidentes.length == 0) {
 			throw new NoSuchElementException(
 					String.format("No hay sustantivos inicializados que coincidan con caso=%s, genero=%s, numero=%s",
-							adjetivoFlexion.getCaso(), adjetivoFlexion.getGenero(), adjetivoFlexion.getNumero()));
+							caso, genero, numero));
 		}
 
 		// Devolver uno aleatorio
-		return coincidentes.get(ThreadLocalRandom.current().nextInt(coincidentes.size()));
+		return coincidentes[ThreadLocalRandom.current().nextInt(coincidentes.length)];
+	}
+
+	/**
+	 * Añade al índice (o sustituye, si ya estaban) las flexiones de la lista, que ya deben tener
+	 * tarjeta SRS, una vez confirmada la transacción en curso.
+	 */
+	public void registrarActivacion(List<SustantivoFlexion> activas) {
+		if (activas.isEmpty()) {
+			return;
+		}
+		Transacciones.trasConfirmar(() -> {
+			synchronized (this) {
+				AtomicReferenceArray<SustantivoFlexion[]> actual = casillas;
+				if (actual == null) {
+					// Aún no cargado: la carga completa ya las leerá de la base de datos
+					return;
+				}
+				activas.forEach(sf -> anadir(actual, sf));
+			}
+		});
+	}
+
+	/**
+	 * Descarta el índice para que se cargue de nuevo en la siguiente consulta
+	 */
+	public void invalidar() {
+		casillas = null;
+	}
+
+	private AtomicReferenceArray<SustantivoFlexion[]> getCasillas() {
+		AtomicReferenceArray<SustantivoFlexion[]> actual = casillas;
+		if (actual == null) {
+			synchronized (this) {
+				actual = casillas;
+				if (actual == null) {
+					actual = cargar();
+					casillas = actual;
+				}
+			}
+		}
+		return actual;
+	}
+
+	private AtomicReferenceArray<SustantivoFlexion[]> cargar() {
+		List<SustantivoFlexion> activos = sustantivoFlexionRepo.findActivas();
+
+		List<List<SustantivoFlexion>> agrupados = new ArrayList<>(CASILLAS);
+		for (int i = 0; i < CASILLAS; i++) {
+			agrupados.add(new ArrayList<>());
+		}
+		List<SustantivoFlexion> indexados = new ArrayList<>(activos.size());
+		for (SustantivoFlexion sf : activos) {
+			int i = casilla(sf);
+			if (i >= 0) {
+				agrupados.get(i).add(sf);
+				indexados.add(sf);
+			}
+		}
+
+		AtomicReferenceArray<SustantivoFlexion[]> nuevas = new AtomicReferenceArray<>(CASILLAS);
+		for (int i = 0; i < CASILLAS; i++) {
+			nuevas.set(i, agrupados.get(i).toArray(SustantivoFlexion[]::new));
+		}
+		todos = indexados.toArray(SustantivoFlexion[]::new);
+
+		log.info("Índice de concordancia de sustantivos cargado: {} flexiones activas", indexados.size());
+		return nuevas;
+	}
+
+	/**
+	 * Copia la casilla de la flexión añadiéndola o sustituyendo la que tenga el mismo id
+	 */
+	private void anadir(AtomicReferenceArray<SustantivoFlexion[]> actual, SustantivoFlexion sf) {
+		int i = casilla(sf);
+		if (i < 0) {
+			return;
+		}
+		actual.set(i, conFlexion(actual.get(i), sf));
+		todos = conFlexion(todos, sf);
+	}
+
+	private static SustantivoFlexion[] conFlexion(SustantivoFlexion[] candidatos, SustantivoFlexion sf) {
+		for (int j = 0; j < candidatos.length; j++) {
+			if (candidatos[j].getId().equals(sf.getId())) {
+				SustantivoFlexion[] copia = candidatos.clone();
+				copia[j] = sf;
+				return copia;
+			}
+		}
+		SustantivoFlexion[] copia = Arrays.copyOf(candidatos, candidatos.length + 1);
+		copia[candidatos.length] = sf;
+		return copia;
+	}
+
+	/**
+	 * Casilla de concordancia de una flexión, o -1 si le falta algún rasgo
+	 */
+	private static int casilla(SustantivoFlexion sf) {
+		if (sf.getCaso() == null || sf.getNumero() == null
+				|| sf.getSustantivoBase() == null || sf.getSustantivoBase().getGenero() == null) {
+			return -1;
+		}
+		return casilla(sf.getCaso(), sf.getNumero(), sf.getSustantivoBase().getGenero());
+	}
+
+	private static int casilla(Caso caso, Numero numero, Genero genero) {
+		return (caso.ordinal() * Numero.values().length + numero.ordinal()) * Genero.values().length + genero.ordinal();
 	}
 }
@@ -0,0 +1,21 @@
+package com.bcadaval.esloveno.services.srs;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+
+/**
+ * Identifica una tarjeta SRS de forma única entre todos los tipos de palabra:
+ * es la clave primaria de TARJETA_SRS.
+ *
+ * @param tipo Tipo de palabra (determina la tabla *_FLEXION)
+ * @param id ID de la flexión dentro de su tabla
+ */
+public record ClaveTarjeta(TipoPalabra tipo, Integer id) {
+
+    /**
+     * Obtiene la clave de una flexión a partir de su clase e ID.
+     */
+    public static ClaveTarjeta de(PalabraFlexion<?> flexion) {
+        return new ClaveTarjeta(TipoPalabra.fromFlexionClass(flexion.getClass()), flexion.getId());
+    }
+}
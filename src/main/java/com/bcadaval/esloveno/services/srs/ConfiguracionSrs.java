@@ -0,0 +1,129 @@
+package com.bcadaval.esloveno.services.srs;
+
+import java.util.Map;
+import java.util.function.Function;
+
+import com.bcadaval.esloveno.beans.Variable;
+import com.bcadaval.esloveno.services.VariablesService;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Instantánea inmutable y tipada de las variables de configuración del SRS.
+ * <p>
+ * Se carga una vez desde la tabla VARIABLES y se sustituye entera cuando se guarda
+ * la configuración, de modo que una petición que lea la instantánea al principio
+ * trabaja con un conjunto de valores coherente sin volver a consultar la BD.
+ * <p>
+ * Los valores se comprueban con {@link #validar} antes de guardarlos; si aun así la BD tiene
+ * uno que no se puede convertir, esa variable toma su valor por defecto.
+ *
+ * @param intervaloInicialSegundos Segundos para la primera repetición
+ * @param intervaloSegundaSegundos Segundos para la segunda repetición
+ * @param intervaloReaprendizajeSegundos Segundos tras fallar
+ * @param factorFacilidadMinimo Factor de facilidad mínimo
+ * @param factorFacilidadInicial Factor de facilidad inicial
+ * @param penalizacionFallo Reducción del factor al fallar
+ * @param maxTarjetasNuevasDia Máximo de tarjetas nuevas por día
+ * @param maxTarjetasRevisionDia Máximo de revisiones por día
+ * @param mezclarTarjetas Si se mezclan las tarjetas disponibles
+ */
+@Log4j2
+public record ConfiguracionSrs(long intervaloInicialSegundos,
+                               long intervaloSegundaSegundos,
+                               long intervaloReaprendizajeSegundos,
+                               double factorFacilidadMinimo,
+                               double factorFacilidadInicial,
+                               double penalizacionFallo,
+                               int maxTarjetasNuevasDia,
+                               int maxTarjetasRevisionDia,
+                               boolean mezclarTarjetas) {
+
+    /** Conversión del valor de cada variable conocida a su tipo */
+    private static final Map<String, Function<Variable, ?>> CONVERSORES = Map.of(
+            VariablesService.INTERVALO_INICIAL_SEGUNDOS, Variable::getValorAsLong,
+            VariablesService.INTERVALO_SEGUNDA_SEGUNDOS, Variable::getValorAsLong,
+            VariablesService.INTERVALO_REAPRENDIZAJE_SEGUNDOS, Variable::getValorAsLong,
+            VariablesService.FACTOR_FACILIDAD_MINIMO, Variable::getValorAsDouble,
+            VariablesService.FACTOR_FACILIDAD_INICIAL, Variable::getValorAsDouble,
+            VariablesService.PENALIZACION_FALLO, Variable::getValorAsDouble,
+            VariablesService.MAX_TARJETAS_NUEVAS_DIA, Variable::getValorAsInteger,
+            VariablesService.MAX_TARJETAS_REVISION_DIA, Variable::getValorAsInteger,
+            VariablesService.MEZCLAR_TARJETAS, ConfiguracionSrs::booleano);
+
+    /**
+     * Comprueba que el valor de una variable del SRS se puede convertir a su tipo y, si es
+     * numérico, que no es negativo. Las variables que no son del SRS no se comprueban.
+     *
+     * @throws IllegalArgumentException Con un mensaje que indica la variable y el motivo
+     */
+    public static void validar(Variable variable) {
+        Function<Variable, ?> conversor = CONVERSORES.get(variable.getClave());
+        if (conversor == null) {
+            return;
+        }
+        Object valor;
+        try {
+            valor = conversor.apply(variable);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(variable.getClave() + ": valor no válido '" + variable.getValor() + "'");
+        }
+        if (valor == null) {
+            throw new IllegalArgumentException(variable.getClave() + ": falta el valor");
+        }
+        if (valor instanceof Number numero && !(numero.doubleValue() >= 0 && Double.isFinite(numero.doubleValue()))) {
+            throw new IllegalArgumentException(variable.getClave() + ": debe ser un número no negativo");
+        }
+    }
+
+    /**
+     * Construye la instantánea a partir de las variables de BD, usando los valores
+     * por defecto para las que no existan.
+     *
+     * @param variables Variables indexadas por clave
+     */
+    public static ConfiguracionSrs desde(Map<String, Variable> variables) {
+        return new ConfiguracionSrs(
+                valor(variables, VariablesService.INTERVALO_INICIAL_SEGUNDOS, Variable::getValorAsLong, 600L), // 10 minutos
+                valor(variables, VariablesService.INTERVALO_SEGUNDA_SEGUNDOS, Variable::getValorAsLong, 3600L), // 1 hora
+                valor(variables, VariablesService.INTERVALO_REAPRENDIZAJE_SEGUNDOS, Variable::getValorAsLong, 30L), // 30 segundos
+                valor(variables, VariablesService.FACTOR_FACILIDAD_MINIMO, Variable::getValorAsDouble, 1.3),
+                valor(variables, VariablesService.FACTOR_FACILIDAD_INICIAL, Variable::getValorAsDouble, 2.5),
+                valor(variables, VariablesService.PENALIZACION_FALLO, Variable::getValorAsDouble, 0.2),
+                valor(variables, VariablesService.MAX_TARJETAS_NUEVAS_DIA, Variable::getValorAsInteger, 20),
+                valor(variables, VariablesService.MAX_TARJETAS_REVISION_DIA, Variable::getValorAsInteger, 100),
+                valor(variables, VariablesService.MEZCLAR_TARJETAS, ConfiguracionSrs::booleano, true));
+    }
+
+    /**
+     * Valor de una variable, o el valor por defecto si no existe o no se puede convertir
+     */
+    private static <V> V valor(Map<String, Variable> variables, String clave,
+                               Function<Variable, V> conversor, V porDefecto) {
+        Variable variable = variables.get(clave);
+        if (variable == null) {
+            return porDefecto;
+        }
+        try {
+            validar(variable);
+            return conversor.apply(variable);
+        } catch (IllegalArgumentException e) {
+            log.warn("{}; se usa el valor por defecto {}", e.getMessage(), porDefecto);
+            return porDefecto;
+        }
+    }
+
+    /**
+     * Como {@link Variable#getValorAsBoolean()}, pero solo acepta "true" o "false"
+     */
+    private static Boolean booleano(Variable variable) {
+        String valor = variable.getValor();
+        if (valor == null) {
+            return null;
+        }
+        if (!valor.equalsIgnoreCase("true") && !valor.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException(valor);
+        }
+        return Boolean.parseBoolean(valor);
+    }
+}
@@ -0,0 +1,54 @@
+package com.bcadaval.esloveno.services.srs;
+
+import java.time.Instant;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+
+/**
+ * Instantánea inmutable de los campos de programación SRS de una tarjeta.
+ * <p>
+ * Es lo que se guarda en el registro de revisiones y lo que {@link MotorSrs} devuelve al
+ * consultar una tarjeta; el motor guarda el estado de todas en arrays primitivos.
+ *
+ * @param factorFacilidad Factor de facilidad (SM-2)
+ * @param intervaloSegundos Intervalo actual en segundos
+ * @param vecesConsecutivasCorrectas Aciertos consecutivos
+ * @param totalRevisiones Total de revisiones realizadas
+ * @param totalAciertos Total de aciertos
+ * @param enReaprendizaje Si la tarjeta está en reaprendizaje
+ * @param ultimaRevision Instante de la última revisión
+ * @param proximaRevision Instante de la próxima revisión
+ */
+public record EstadoSrs(double factorFacilidad,
+                        long intervaloSegundos,
+                        int vecesConsecutivasCorrectas,
+                        int totalRevisiones,
+                        int totalAciertos,
+                        boolean enReaprendizaje,
+                        Instant ultimaRevision,
+                        Instant proximaRevision) {
+
+    /**
+     * Estado de una tarjeta recién activada: sin revisiones y lista para estudiar ya.
+     *
+     * @param factorFacilidadInicial Factor de facilidad configurado para tarjetas nuevas
+     * @param ahora Instante de la activación, que es también su primera revisión programada
+     */
+    public static EstadoSrs inicial(double factorFacilidadInicial, Instant ahora) {
+        return new EstadoSrs(factorFacilidadInicial, 0L, 0, 0, 0, false, null, ahora);
+    }
+
+    /**
+     * Copia este estado sobre los campos SRS de una flexión.
+     */
+    public void aplicarA(PalabraFlexion<?> flexion) {
+        flexion.setFactorFacilidad(factorFacilidad);
+        flexion.setIntervaloRepeticionSegundos(intervaloSegundos);
+        flexion.setVecesConsecutivasCorrectas(vecesConsecutivasCorrectas);
+        flexion.setTotalRevisiones(totalRevisiones);
+        flexion.setTotalAciertos(totalAciertos);
+        flexion.setEnReaprendizaje(enReaprendizaje);
+        flexion.setUltimaRevision(ultimaRevision);
+        flexion.setProximaRevision(proximaRevision);
+    }
+}
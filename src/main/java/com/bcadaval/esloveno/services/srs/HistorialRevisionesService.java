@@ -0,0 +1,193 @@
+package com.bcadaval.esloveno.services.srs;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.Caso;
+import com.bcadaval.esloveno.beans.enums.FormaVerbal;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.config.InstantConverter;
+import com.bcadaval.esloveno.services.InitializationService;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Historial de revisiones agregado por tramos de tiempo.
+ * <p>
+ * Cada respuesta suma uno a su tramo por hora y a su tramo por día en HISTORIAL_REVISION,
+ * desglosado por tipo de palabra, caso, forma verbal y clase de intervalo (log2 de los
+ * segundos desde la revisión anterior). Las consultas de estadísticas agrupan estos
+ * tramos, cuyo número no depende del tamaño del vocabulario, sin recorrer las flexiones.
+ */
+@Log4j2
+@Service
+public class HistorialRevisionesService {
+
+    private static final InstantConverter CONVERTER = new InstantConverter();
+
+    /** Granularidad de los tramos por hora */
+    public static final String POR_HORA = "H";
+
+    /** Granularidad de los tramos por día */
+    public static final String POR_DIA = "D";
+
+    /** Clase de intervalo de las tarjetas que se revisan por primera vez */
+    public static final int SIN_REVISION_ANTERIOR = -1;
+
+    private static final String UPSERT_TRAMO =
+            "INSERT INTO HISTORIAL_REVISION (GRANULARIDAD, INICIO, TIPO, CASO, FORMA_VERBAL, CLASE_INTERVALO, " +
+            "REVISIONES, ACIERTOS) VALUES (?, ?, ?, ?, ?, ?, 1, ?) " +
+            "ON CONFLICT (GRANULARIDAD, INICIO, TIPO, CASO, FORMA_VERBAL, CLASE_INTERVALO) " +
+            "DO UPDATE SET REVISIONES = REVISIONES + 1, ACIERTOS = ACIERTOS + excluded.ACIERTOS";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Lazy
+    @Autowired
+    private InitializationService initializationService;
+
+    @Value("${app.historial.dias-por-hora:30}")
+    private int diasPorHora;
+
+    /**
+     * Borra los tramos por hora más antiguos que el periodo configurado.
+     * Los tramos por día se conservan siempre.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void purgarTramosPorHora() {
+        if (!initializationService.isDatabaseReady()) {
+            return;
+        }
+        try {
+            Instant limite = Instant.now().minus(Duration.ofDays(diasPorHora)).truncatedTo(ChronoUnit.HOURS);
+            int borrados = jdbcTemplate.update("DELETE FROM HISTORIAL_REVISION WHERE GRANULARIDAD = ? AND INICIO < ?",
+                    POR_HORA, CONVERTER.convertToDatabaseColumn(limite));
+            log.debug("Historial de revisiones: {} tramos por hora purgados", borrados);
+        } catch (Exception e) {
+            log.warn("No se pudo purgar el historial de revisiones: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Suma una revisión a sus tramos por hora y por día, en la transacción actual.
+     *
+     * @param flexion Flexión revisada, de la que se toman el caso y la forma verbal
+     * @param anterior Estado SRS antes de la revisión
+     * @param nuevo Estado SRS tras la revisión
+     * @param recordo Si el usuario recordó la palabra
+     */
+    @Transactional
+    public void registrar(PalabraFlexion<?> flexion, EstadoSrs anterior, EstadoSrs nuevo, boolean recordo) {
+        TipoPalabra tipo = TipoPalabra.fromFlexionClass(flexion.getClass());
+        Caso caso = flexion.getCaracteristica(CaracteristicaGramatical.CASO) instanceof Caso c ? c : null;
+        FormaVerbal formaVerbal = flexion.getCaracteristica(CaracteristicaGramatical.FORMA_VERBAL) instanceof FormaVerbal fv ? fv : null;
+        int claseIntervalo = claseIntervalo(anterior.ultimaRevision(), nuevo.ultimaRevision());
+        Instant instante = nuevo.ultimaRevision();
+
+        List<Object[]> filas = new ArrayList<>(2);
+        for (String granularidad : List.of(POR_HORA, POR_DIA)) {
+            filas.add(new Object[]{
+                    granularidad,
+                    CONVERTER.convertToDatabaseColumn(inicioTramo(instante, granularidad)),
+                    tipo.name(),
+                    caso != null ? caso.name() : "",
+                    formaVerbal != null ? formaVerbal.name() : "",
+                    claseIntervalo,
+                    recordo ? 1 : 0
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_TRAMO, filas);
+    }
+
+    /**
+     * Revisiones y aciertos por tramo desde un instante, sumando todos los desgloses.
+     *
+     * @param granularidad {@link #POR_HORA} o {@link #POR_DIA}
+     * @param desde Instante inicial (se redondea al inicio de su tramo)
+     */
+    public List<Tramo> getSerie(String granularidad, Instant desde) {
+        return jdbcTemplate.query(
+                "SELECT INICIO, SUM(REVISIONES) AS REVISIONES, SUM(ACIERTOS) AS ACIERTOS FROM HISTORIAL_REVISION " +
+                "WHERE GRANULARIDAD = ? AND INICIO >= ? GROUP BY INICIO ORDER BY INICIO",
+                (rs, i) -> new Tramo(CONVERTER.convertToEntityAttribute(rs.getString("INICIO")),
+                        rs.getLong("REVISIONES"), rs.getLong("ACIERTOS")),
+                granularidad, CONVERTER.convertToDatabaseColumn(inicioTramo(desde, granularidad)));
+    }
+
+    /**
+     * Revisiones y aciertos por clase de intervalo desde un instante (curva de retención).
+     *
+     * @param desde Instante inicial (se redondea al inicio de su día)
+     */
+    public List<PorIntervalo> getRetencionPorIntervalo(Instant desde) {
+        return jdbcTemplate.query(
+                "SELECT CLASE_INTERVALO, SUM(REVISIONES) AS REVISIONES, SUM(ACIERTOS) AS ACIERTOS FROM HISTORIAL_REVISION " +
+                "WHERE GRANULARIDAD = ? AND INICIO >= ? GROUP BY CLASE_INTERVALO ORDER BY CLASE_INTERVALO",
+                (rs, i) -> new PorIntervalo(rs.getInt("CLASE_INTERVALO"), rs.getLong("REVISIONES"), rs.getLong("ACIERTOS")),
+                POR_DIA, CONVERTER.convertToDatabaseColumn(inicioTramo(desde, POR_DIA)));
+    }
+
+    /**
+     * Revisiones y aciertos acumulados por tipo, caso y forma verbal
+     */
+    public List<PorDesglose> getTotalesPorDesglose() {
+        return jdbcTemplate.query(
+                "SELECT TIPO, CASO, FORMA_VERBAL, SUM(REVISIONES) AS REVISIONES, SUM(ACIERTOS) AS ACIERTOS " +
+                "FROM HISTORIAL_REVISION WHERE GRANULARIDAD = ? GROUP BY TIPO, CASO, FORMA_VERBAL",
+                (rs, i) -> new PorDesglose(
+                        TipoPalabra.valueOf(rs.getString("TIPO")),
+                        rs.getString("CASO").isEmpty() ? null : Caso.valueOf(rs.getString("CASO")),
+                        rs.getString("FORMA_VERBAL").isEmpty() ? null : FormaVerbal.valueOf(rs.getString("FORMA_VERBAL")),
+                        rs.getLong("REVISIONES"),
+                        rs.getLong("ACIERTOS")),
+                POR_DIA);
+    }
+
+    private static Instant inicioTramo(Instant instante, String granularidad) {
+        return instante.truncatedTo(POR_HORA.equals(granularidad) ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+    }
+
+    /**
+     * log2 (entero) de los segundos transcurridos entre dos revisiones
+     */
+    private static int claseIntervalo(Instant anterior, Instant actual) {
+        if (anterior == null || actual == null) {
+            return SIN_REVISION_ANTERIOR;
+        }
+        long segundos = Math.max(1, Duration.between(anterior, actual).getSeconds());
+        return 63 - Long.numberOfLeadingZeros(segundos);
+    }
+
+    /**
+     * Revisiones de un tramo de tiempo
+     */
+    public record Tramo(Instant inicio, long revisiones, long aciertos) {
+    }
+
+    /**
+     * Revisiones de una clase de intervalo: entre 2^clase y 2^(clase+1) segundos desde la anterior
+     */
+    public record PorIntervalo(int claseIntervalo, long revisiones, long aciertos) {
+    }
+
+    /**
+     * Revisiones de una combinación de tipo, caso y forma verbal (los dos últimos pueden ser null)
+     */
+    public record PorDesglose(TipoPalabra tipo, Caso caso, FormaVerbal formaVerbal, long revisiones, long aciertos) {
+    }
+}
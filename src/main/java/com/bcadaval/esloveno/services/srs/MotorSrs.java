@@ -0,0 +1,493 @@
+package com.bcadaval.esloveno.services.srs;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.repo.TarjetaSrsRepo;
+import com.bcadaval.esloveno.repo.lectura.TarjetaSrsLectura;
+import com.bcadaval.esloveno.services.InitializationService;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Estado SRS de todas las tarjetas en memoria, en arrays primitivos paralelos.
+ * <p>
+ * Cada tarjeta tiene un índice denso (0..n-1) que se asigna al cargarla o activarla y no cambia; sus campos de programación están en la misma posición de cada
+ * array. Así el estado no ocupa un objeto por campo, la revisión SM-2 se hace en el sitio sin
+ * crear objetos, y buscar las tarjetas vencidas es recorrer un {@code long[]}.
+ * <p>
+ * La persistencia no cambia: REGISTRO_REVISION es el diario y TARJETA_SRS la instantánea que
+ * el volcador de {@link RegistroRevisionesService} mantiene al día. Al cargar se lee la
+ * instantánea y se aplican encima las filas del diario aún no volcadas, en la misma transacción
+ * de lectura para que ambas vean el mismo estado de la BD.
+ * <p>
+ * Las lecturas comparten un cerrojo de lectura; revisar, deshacer, activar y cargar toman el de
+ * escritura. Todos los accesos a los arrays pasan por el cerrojo, también los de tipo y flexión:
+ * al crecer se sustituyen los arrays y sin él un lector podría ver uno a medio publicar.
+ */
+@Log4j2
+@Service
+public class MotorSrs {
+
+    /** Valor de {@link #ultimas} para una tarjeta que aún no se ha revisado */
+    private static final long SIN_FECHA = Long.MIN_VALUE;
+
+    private static final TipoPalabra[] TIPOS = TipoPalabra.values();
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    /**
+     * Resultado de una revisión: el estado de la tarjeta justo antes y justo después,
+     * leídos bajo el mismo cerrojo que la aplicó, y la {@link #version} que le tocó
+     */
+    public record Revision(EstadoSrs anterior, EstadoSrs nuevo, long version) {
+    }
+
+    /**
+     * Estado de varias tarjetas leído bajo un mismo cerrojo, con la {@link #version} del motor
+     * en ese momento: refleja exactamente las revisiones con versión menor o igual
+     *
+     * @param estados Estado de cada tarjeta pedida, en el mismo orden
+     */
+    public record Instantanea(long version, EstadoSrs[] estados) {
+    }
+
+    @Autowired
+    private TarjetaSrsRepo tarjetaSrsRepo;
+
+    @Autowired
+    private RegistroRevisionesService registroRevisionesService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Lazy
+    @Autowired
+    private InitializationService initializationService;
+
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    /** Si ya se han cargado los arrays desde la BD */
+    private volatile boolean cargado;
+
+    private int tamanio;
+    private byte[] tipos;
+    private int[] flexionIds;
+    private double[] factores;
+    private long[] intervalos;
+    private int[] consecutivas;
+    private int[] revisiones;
+    private int[] aciertos;
+    private boolean[] reaprendizaje;
+    /** Segundos epoch, o {@link #SIN_FECHA} */
+    private long[] ultimas;
+    /** Segundos epoch */
+    private long[] proximas;
+
+    private IndiceTarjetas indice;
+
+    /** Número de revisiones aplicadas o deshechas desde la carga; ordena los cambios de estado */
+    private long version;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        if (!initializationService.isDatabaseReady()) {
+            return;
+        }
+        try {
+            asegurarCargado();
+        } catch (Exception e) {
+            log.warn("No se pudo cargar el estado SRS al arrancar: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Índice denso de una tarjeta, o -1 si la flexión no está activa
+     */
+    public int buscar(ClaveTarjeta clave) {
+        return buscar(clave.tipo(), clave.id());
+    }
+
+    /**
+     * Índice denso de una tarjeta, o -1 si la flexión no está activa
+     */
+    public int buscar(TipoPalabra tipo, int flexionId) {
+        asegurarCargado();
+        cerrojo.readLock().lock();
+        try {
+            return indice.get(IndiceTarjetas.clave(tipo.ordinal(), flexionId));
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Número de tarjetas activas
+     */
+    public int getTamanio() {
+        asegurarCargado();
+        cerrojo.readLock().lock();
+        try {
+            return tamanio;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Tipo de palabra de una tarjeta
+     */
+    public TipoPalabra getTipo(int tarjeta) {
+        cerrojo.readLock().lock();
+        try {
+            return TIPOS[tipos[tarjeta]];
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * ID de la flexión de una tarjeta dentro de su tabla
+     */
+    public int getFlexionId(int tarjeta) {
+        cerrojo.readLock().lock();
+        try {
+            return flexionIds[tarjeta];
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Índices de las tarjetas que vencen como muy tarde en {@code ahora} (segundos epoch).
+     * El array devuelto es la única reserva de memoria del recorrido.
+     */
+    public int[] vencidas(long ahora) {
+        asegurarCargado();
+        cerrojo.readLock().lock();
+        try {
+            long[] p = proximas;
+            int n = tamanio;
+            int total = 0;
+            for (int i = 0; i < n; i++) {
+                total += p[i] <= ahora ? 1 : 0;
+            }
+            int[] resultado = new int[total];
+            int j = 0;
+            for (int i = 0; i < n && j < total; i++) {
+                if (p[i] <= ahora) {
+                    resultado[j++] = i;
+                }
+            }
+            return resultado;
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Revisión SM-2 de una tarjeta, en el sitio. El estado anterior y el nuevo se leen bajo el
+     * mismo cerrojo de escritura, así que son exactamente los de esta revisión aunque otra
+     * respuesta a la misma tarjeta llegue a la vez.
+     *
+     * @param tarjeta Índice denso de la tarjeta
+     * @param recordo Si el usuario recordó la palabra
+     * @param ahora Instante de la revisión, en segundos epoch
+     */
+    public Revision revisar(int tarjeta, boolean recordo, ConfiguracionSrs config, long ahora) {
+        cerrojo.writeLock().lock();
+        try {
+            EstadoSrs anterior = leer(tarjeta);
+            revisiones[tarjeta]++;
+            long nuevoIntervalo;
+            if (recordo) {
+                aciertos[tarjeta]++;
+                int veces = ++consecutivas[tarjeta];
+                nuevoIntervalo = switch (veces) {
+                    case 1 -> config.intervaloInicialSegundos();
+                    case 2 -> config.intervaloSegundaSegundos();
+                    default -> (long) (intervalos[tarjeta] * factores[tarjeta]);
+                };
+                reaprendizaje[tarjeta] = false;
+            } else {
+                consecutivas[tarjeta] = 0;
+                factores[tarjeta] = Math.max(config.factorFacilidadMinimo(), factores[tarjeta] - config.penalizacionFallo());
+                nuevoIntervalo = config.intervaloReaprendizajeSegundos();
+                reaprendizaje[tarjeta] = true;
+            }
+            intervalos[tarjeta] = nuevoIntervalo;
+            ultimas[tarjeta] = ahora;
+            proximas[tarjeta] = ahora + nuevoIntervalo;
+            return new Revision(anterior, leer(tarjeta), ++version);
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Instantánea del estado de una tarjeta
+     */
+    public EstadoSrs getEstado(int tarjeta) {
+        cerrojo.readLock().lock();
+        try {
+            return leer(tarjeta);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Instantánea del estado de varias tarjetas, todas leídas bajo el mismo cerrojo
+     */
+    public Instantanea instantanea(int[] tarjetas) {
+        asegurarCargado();
+        cerrojo.readLock().lock();
+        try {
+            EstadoSrs[] estados = new EstadoSrs[tarjetas.length];
+            for (int i = 0; i < tarjetas.length; i++) {
+                estados[i] = leer(tarjetas[i]);
+            }
+            return new Instantanea(version, estados);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Deshace una revisión no confirmada: devuelve la tarjeta a su estado anterior solo si aún
+     * conserva el que dejó esa revisión. Si otra revisión la ha cambiado después, se respeta.
+     *
+     * @return La versión del cambio, o -1 si no se ha restaurado el estado anterior
+     */
+    public long deshacer(int tarjeta, Revision revision) {
+        cerrojo.writeLock().lock();
+        try {
+            if (!leer(tarjeta).equals(revision.nuevo())) {
+                return -1;
+            }
+            escribir(tarjeta, revision.anterior());
+            return ++version;
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Copia el estado de una tarjeta sobre los campos SRS de su flexión
+     */
+    public void aplicarA(int tarjeta, PalabraFlexion<?> flexion) {
+        getEstado(tarjeta).aplicarA(flexion);
+    }
+
+    /**
+     * Da de alta tarjetas recién insertadas en TARJETA_SRS, todas con el mismo estado.
+     * Las que ya estuvieran en memoria se dejan como están. Si el motor no está cargado no
+     * hace nada: las leerá de BD al cargarse.
+     */
+    public void anadir(Collection<ClaveTarjeta> claves, EstadoSrs estado) {
+        if (!cargado) {
+            return;
+        }
+        cerrojo.writeLock().lock();
+        try {
+            for (ClaveTarjeta clave : claves) {
+                long k = IndiceTarjetas.clave(clave.tipo().ordinal(), clave.id());
+                if (indice.get(k) < 0) {
+                    escribir(nueva(clave.tipo(), clave.id(), k), estado);
+                }
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    private void asegurarCargado() {
+        if (cargado) {
+            return;
+        }
+        cerrojo.writeLock().lock();
+        try {
+            if (!cargado) {
+                cargar();
+                cargado = true;
+            }
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Lee la instantánea de TARJETA_SRS y aplica encima el diario pendiente. Debe llamarse con el cerrojo de escritura.
+     */
+    private void cargar() {
+        reservar(CAPACIDAD_INICIAL);
+        TransactionTemplate lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+        int[] pendientes = new int[1];
+        lectura.executeWithoutResult(status -> {
+            try (Stream<TarjetaSrsLectura> todas = tarjetaSrsRepo.streamTodas()) {
+                todas.forEach(t -> escribir(nueva(t.tipo(), t.flexionId(),
+                        IndiceTarjetas.clave(t.tipo().ordinal(), t.flexionId())), t.estado()));
+            }
+            registroRevisionesService.leerPendientes((clave, estado) -> {
+                long k = IndiceTarjetas.clave(clave.tipo().ordinal(), clave.id());
+                int tarjeta = indice.get(k);
+                escribir(tarjeta >= 0 ? tarjeta : nueva(clave.tipo(), clave.id(), k), estado);
+                pendientes[0]++;
+            });
+        });
+        log.info("Estado SRS cargado: {} tarjetas ({} revisiones del registro aún sin volcar)", tamanio, pendientes[0]);
+    }
+
+    private void reservar(int capacidad) {
+        tamanio = 0;
+        tipos = new byte[capacidad];
+        flexionIds = new int[capacidad];
+        factores = new double[capacidad];
+        intervalos = new long[capacidad];
+        consecutivas = new int[capacidad];
+        revisiones = new int[capacidad];
+        aciertos = new int[capacidad];
+        reaprendizaje = new boolean[capacidad];
+        ultimas = new long[capacidad];
+        proximas = new long[capacidad];
+        indice = new IndiceTarjetas(capacidad * 2);
+    }
+
+    /**
+     * Añade una tarjeta al final de los arrays y la registra en el índice
+     *
+     * @return Su índice denso
+     */
+    private int nueva(TipoPalabra tipo, int flexionId, long clave) {
+        if (tamanio == proximas.length) {
+            crecer(proximas.length * 2);
+        }
+        int tarjeta = tamanio++;
+        tipos[tarjeta] = (byte) tipo.ordinal();
+        flexionIds[tarjeta] = flexionId;
+        indice.put(clave, tarjeta);
+        return tarjeta;
+    }
+
+    private void crecer(int capacidad) {
+        tipos = Arrays.copyOf(tipos, capacidad);
+        flexionIds = Arrays.copyOf(flexionIds, capacidad);
+        factores = Arrays.copyOf(factores, capacidad);
+        intervalos = Arrays.copyOf(intervalos, capacidad);
+        consecutivas = Arrays.copyOf(consecutivas, capacidad);
+        revisiones = Arrays.copyOf(revisiones, capacidad);
+        aciertos = Arrays.copyOf(aciertos, capacidad);
+        reaprendizaje = Arrays.copyOf(reaprendizaje, capacidad);
+        ultimas = Arrays.copyOf(ultimas, capacidad);
+        proximas = Arrays.copyOf(proximas, capacidad);
+    }
+
+    /**
+     * Estado de una tarjeta. Debe llamarse con el cerrojo tomado.
+     */
+    private EstadoSrs leer(int tarjeta) {
+        return new EstadoSrs(factores[tarjeta], intervalos[tarjeta], consecutivas[tarjeta], revisiones[tarjeta],
+                aciertos[tarjeta], reaprendizaje[tarjeta], instante(ultimas[tarjeta]), instante(proximas[tarjeta]));
+    }
+
+    private void escribir(int tarjeta, EstadoSrs estado) {
+        factores[tarjeta] = estado.factorFacilidad();
+        intervalos[tarjeta] = estado.intervaloSegundos();
+        consecutivas[tarjeta] = estado.vecesConsecutivasCorrectas();
+        revisiones[tarjeta] = estado.totalRevisiones();
+        aciertos[tarjeta] = estado.totalAciertos();
+        reaprendizaje[tarjeta] = estado.enReaprendizaje();
+        ultimas[tarjeta] = estado.ultimaRevision() == null ? SIN_FECHA : estado.ultimaRevision().getEpochSecond();
+        proximas[tarjeta] = estado.proximaRevision().getEpochSecond();
+    }
+
+    private static Instant instante(long segundos) {
+        return segundos == SIN_FECHA ? null : Instant.ofEpochSecond(segundos);
+    }
+
+    /**
+     * Tabla hash de direccionamiento abierto de (tipo, flexionId), empaquetados en un long,
+     * al índice denso de la tarjeta. Sin objetos por entrada.
+     */
+    private static final class IndiceTarjetas {
+
+        private static final long VACIA = -1L;
+
+        private long[] claves;
+        private int[] valores;
+        private int ocupadas;
+
+        IndiceTarjetas(int capacidadMinima) {
+            int capacidad = Integer.highestOneBit(Math.max(capacidadMinima, 16) - 1) << 1;
+            claves = new long[capacidad];
+            Arrays.fill(claves, VACIA);
+            valores = new int[capacidad];
+        }
+
+        static long clave(int tipo, int flexionId) {
+            return ((long) tipo << 32) | (flexionId & 0xFFFFFFFFL);
+        }
+
+        int get(long clave) {
+            int mascara = claves.length - 1;
+            for (int i = posicion(clave, mascara); ; i = (i + 1) & mascara) {
+                long k = claves[i];
+                if (k == clave) {
+                    return valores[i];
+                }
+                if (k == VACIA) {
+                    return -1;
+                }
+            }
+        }
+
+        void put(long clave, int valor) {
+            if ((ocupadas + 1) * 2 > claves.length) {
+                redimensionar();
+            }
+            int mascara = claves.length - 1;
+            int i = posicion(clave, mascara);
+            while (claves[i] != VACIA && claves[i] != clave) {
+                i = (i + 1) & mascara;
+            }
+            if (claves[i] == VACIA) {
+                ocupadas++;
+            }
+            claves[i] = clave;
+            valores[i] = valor;
+        }
+
+        private void redimensionar() {
+            long[] viejasClaves = claves;
+            int[] viejosValores = valores;
+            claves = new long[viejasClaves.length * 2];
+            Arrays.fill(claves, VACIA);
+            valores = new int[viejasClaves.length * 2];
+            ocupadas = 0;
+            for (int i = 0; i < viejasClaves.length; i++) {
+                if (viejasClaves[i] != VACIA) {
+                    put(viejasClaves[i], viejosValores[i]);
+                }
+            }
+        }
+
+        private static int posicion(long clave, int mascara) {
+            long h = clave * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32)) & mascara;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.bcadaval.esloveno.services.srs;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.config.InstantConverter;
+import com.bcadaval.esloveno.services.InitializationService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Registro de revisiones con escritura diferida (write-behind).
+ * <p>
+ * Cada respuesta se añade como una fila a REGISTRO_REVISION (solo inserción, confirmada
+ * antes de responder al usuario) junto con el estado SRS resultante. Un hilo en segundo
+ * plano aplica por lotes las filas pendientes a TARJETA_SRS y, en la misma transacción, las
+ * borra del registro: así solo contiene lo pendiente y no crece con cada respuesta. El
+ * histórico de revisiones se guarda aparte, agregado, en HISTORIAL_REVISION.
+ * <p>
+ * El estado más reciente de cada tarjeta está siempre en {@link MotorSrs}, que al cargarse
+ * aplica las filas aún no volcadas sobre lo leído de TARJETA_SRS. Al arrancar se aplican
+ * las filas pendientes, por lo que una caída nunca pierde una respuesta confirmada.
+ */
+@Log4j2
+@Service
+public class RegistroRevisionesService {
+
+    private static final InstantConverter CONVERTER = new InstantConverter();
+
+    private static final String INSERT_REGISTRO =
+            "INSERT INTO REGISTRO_REVISION (TIPO, FLEXION_ID, INSTANTE, RECORDO, FACTOR_FACILIDAD, " +
+            "INTERVALO_REPETICION_SEGUNDOS, VECES_CONSECUTIVAS_CORRECTAS, TOTAL_REVISIONES, TOTAL_ACIERTOS, " +
+            "EN_REAPRENDIZAJE, PROXIMA_REVISION) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SELECT_PENDIENTES =
+            "SELECT ID, TIPO, FLEXION_ID, INSTANTE, FACTOR_FACILIDAD, INTERVALO_REPETICION_SEGUNDOS, " +
+            "VECES_CONSECUTIVAS_CORRECTAS, TOTAL_REVISIONES, TOTAL_ACIERTOS, EN_REAPRENDIZAJE, PROXIMA_REVISION " +
+            "FROM REGISTRO_REVISION WHERE APLICADO = 0 ORDER BY ID LIMIT ?";
+
+    /** Cada fila del registro lleva el estado completo, así que también crea la tarjeta si faltase */
+    private static final String UPSERT_TARJETA =
+            "INSERT INTO TARJETA_SRS (TIPO, FLEXION_ID, FACTOR_FACILIDAD, INTERVALO_REPETICION_SEGUNDOS, " +
+            "VECES_CONSECUTIVAS_CORRECTAS, TOTAL_REVISIONES, TOTAL_ACIERTOS, EN_REAPRENDIZAJE, ULTIMA_REVISION, " +
+            "PROXIMA_REVISION) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (TIPO, FLEXION_ID) DO UPDATE SET FACTOR_FACILIDAD = excluded.FACTOR_FACILIDAD, " +
+            "INTERVALO_REPETICION_SEGUNDOS = excluded.INTERVALO_REPETICION_SEGUNDOS, " +
+            "VECES_CONSECUTIVAS_CORRECTAS = excluded.VECES_CONSECUTIVAS_CORRECTAS, " +
+            "TOTAL_REVISIONES = excluded.TOTAL_REVISIONES, TOTAL_ACIERTOS = excluded.TOTAL_ACIERTOS, " +
+            "EN_REAPRENDIZAJE = excluded.EN_REAPRENDIZAJE, ULTIMA_REVISION = excluded.ULTIMA_REVISION, " +
+            "PROXIMA_REVISION = excluded.PROXIMA_REVISION";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Lazy
+    @Autowired
+    private InitializationService initializationService;
+
+    @Value("${app.srs.flush-intervalo-ms:2000}")
+    private long intervaloVolcadoMs;
+
+    @Value("${app.srs.flush-lote:500}")
+    private int tamanioLote;
+
+    private ScheduledExecutorService volcador;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // Aplicar lo que quedase pendiente de una ejecución anterior antes de servir lecturas
+        volcarPendientes();
+
+        volcador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "RegistroRevisionesFlusher");
+            t.setDaemon(true);
+            return t;
+        });
+        volcador.scheduleWithFixedDelay(this::volcarPendientes, intervaloVolcadoMs, intervaloVolcadoMs, TimeUnit.MILLISECONDS);
+        log.info("Registro de revisiones iniciado (volcado cada {} ms, lotes de {})", intervaloVolcadoMs, tamanioLote);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (volcador != null) {
+            volcador.shutdown();
+            try {
+                volcador.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        volcarPendientes();
+    }
+
+    /**
+     * Añade una revisión al registro, dentro de la transacción actual si la hay.
+     *
+     * @param clave Tarjeta revisada
+     * @param recordo Si el usuario recordó la palabra
+     * @param estado Estado SRS resultante tras la revisión
+     */
+    @Transactional
+    public void registrar(ClaveTarjeta clave, boolean recordo, EstadoSrs estado) {
+        jdbcTemplate.update(INSERT_REGISTRO,
+                clave.tipo().name(),
+                clave.id(),
+                CONVERTER.convertToDatabaseColumn(estado.ultimaRevision()),
+                recordo ? 1 : 0,
+                estado.factorFacilidad(),
+                estado.intervaloSegundos(),
+                estado.vecesConsecutivasCorrectas(),
+                estado.totalRevisiones(),
+                estado.totalAciertos(),
+                estado.enReaprendizaje() ? 1 : 0,
+                CONVERTER.convertToDatabaseColumn(estado.proximaRevision()));
+    }
+
+    /**
+     * Recorre, en orden, las revisiones del registro aún no aplicadas a TARJETA_SRS.
+     * Para leerlas en la misma transacción que la instantánea de TARJETA_SRS.
+     */
+    public void leerPendientes(BiConsumer<ClaveTarjeta, EstadoSrs> accion) {
+        // LIMIT -1: sin límite en SQLite
+        jdbcTemplate.query(SELECT_PENDIENTES, (ResultSet rs) -> {
+            Pendiente p = mapearPendiente(rs, 0);
+            accion.accept(p.clave(), p.estado());
+        }, -1);
+    }
+
+    /**
+     * Aplica a TARJETA_SRS todas las revisiones pendientes, por lotes.
+     * Nunca lanza excepciones: si falla, las filas siguen pendientes para el próximo intento.
+     */
+    public void volcarPendientes() {
+        if (!initializationService.isDatabaseReady()) {
+            return;
+        }
+        try {
+            int aplicadas;
+            do {
+                aplicadas = volcarLote();
+            } while (aplicadas == tamanioLote);
+        } catch (Exception e) {
+            log.warn("No se pudieron aplicar las revisiones pendientes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aplica un lote de revisiones pendientes en una única transacción.
+     *
+     * @return Número de filas del registro procesadas
+     */
+    private int volcarLote() {
+        Map<ClaveTarjeta, EstadoSrs> aplicados = new LinkedHashMap<>();
+
+        Integer procesadas = transactionTemplate.execute(status -> {
+            List<Pendiente> pendientes = jdbcTemplate.query(SELECT_PENDIENTES, this::mapearPendiente, tamanioLote);
+            if (pendientes.isEmpty()) {
+                return 0;
+            }
+
+            // Solo importa el último estado de cada tarjeta dentro del lote
+            long maxId = 0;
+            for (Pendiente p : pendientes) {
+                aplicados.put(p.clave(), p.estado());
+                maxId = Math.max(maxId, p.id());
+            }
+
+            List<Object[]> filas = new ArrayList<>(aplicados.size());
+            aplicados.forEach((clave, estado) -> filas.add(new Object[]{
+                    clave.tipo().name(),
+                    clave.id(),
+                    estado.factorFacilidad(),
+                    estado.intervaloSegundos(),
+                    estado.vecesConsecutivasCorrectas(),
+                    estado.totalRevisiones(),
+                    estado.totalAciertos(),
+                    estado.enReaprendizaje() ? 1 : 0,
+                    CONVERTER.convertToDatabaseColumn(estado.ultimaRevision()),
+                    CONVERTER.convertToDatabaseColumn(estado.proximaRevision())
+            }));
+            jdbcTemplate.batchUpdate(UPSERT_TARJETA, filas);
+
+            // Con un solo escritor los IDs crecen en orden de confirmación: no hay filas sin leer por debajo de maxId
+            jdbcTemplate.update("DELETE FROM REGISTRO_REVISION WHERE ID <= ?", maxId);
+            return pendientes.size();
+        });
+
+        if (procesadas != null && procesadas > 0) {
+            log.debug("Aplicadas {} revisiones ({} tarjetas)", procesadas, aplicados.size());
+        }
+        return procesadas == null ? 0 : procesadas;
+    }
+
+    private Pendiente mapearPendiente(ResultSet rs, int fila) throws SQLException {
+        return new Pendiente(
+                rs.getLong("ID"),
+                new ClaveTarjeta(TipoPalabra.valueOf(rs.getString("TIPO")), rs.getInt("FLEXION_ID")),
+                new EstadoSrs(
+                        rs.getDouble("FACTOR_FACILIDAD"),
+                        rs.getLong("INTERVALO_REPETICION_SEGUNDOS"),
+                        rs.getInt("VECES_CONSECUTIVAS_CORRECTAS"),
+                        rs.getInt("TOTAL_REVISIONES"),
+                        rs.getInt("TOTAL_ACIERTOS"),
+                        rs.getInt("EN_REAPRENDIZAJE") == 1,
+                        CONVERTER.convertToEntityAttribute(rs.getString("INSTANTE")),
+                        CONVERTER.convertToEntityAttribute(rs.getString("PROXIMA_REVISION"))));
+    }
+
+    /**
+     * Fila pendiente del registro de revisiones
+     */
+    private record Pendiente(long id, ClaveTarjeta clave, EstadoSrs estado) {
+    }
+}
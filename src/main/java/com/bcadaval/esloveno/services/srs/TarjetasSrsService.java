@@ -0,0 +1,97 @@
+package com.bcadaval.esloveno.services.srs;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.config.InstantConverter;
+import com.bcadaval.esloveno.services.CacheLexicoService;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Alta de tarjetas en TARJETA_SRS al activar flexiones para el estudio.
+ * <p>
+ * Las tarjetas se insertan por lotes con {@code INSERT OR IGNORE}: las flexiones que ya
+ * tenían tarjeta conservan su progreso, y el número de filas insertadas de cada sentencia
+ * dice cuáles se han activado ahora.
+ */
+@Log4j2
+@Service
+public class TarjetasSrsService {
+
+    private static final InstantConverter CONVERTER = new InstantConverter();
+
+    private static final String INSERT_TARJETA =
+            "INSERT OR IGNORE INTO TARJETA_SRS (TIPO, FLEXION_ID, FACTOR_FACILIDAD, INTERVALO_REPETICION_SEGUNDOS, " +
+            "VECES_CONSECUTIVAS_CORRECTAS, TOTAL_REVISIONES, TOTAL_ACIERTOS, EN_REAPRENDIZAJE, ULTIMA_REVISION, " +
+            "PROXIMA_REVISION) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MotorSrs motorSrs;
+
+    @Lazy
+    @Autowired
+    private CacheLexicoService cacheLexicoService;
+
+    /**
+     * Crea la tarjeta de las flexiones que aún no tienen, lista para estudiar desde {@code ahora}.
+     * A las flexiones recién activadas se les copia el estado inicial de su tarjeta.
+     *
+     * @return Las flexiones que no estaban activas y se han activado ahora
+     */
+    @Transactional
+    public <T extends PalabraFlexion<?>> List<T> activar(Collection<T> flexiones, double factorInicial, Instant ahora) {
+        if (flexiones.isEmpty()) {
+            return List.of();
+        }
+        EstadoSrs inicial = EstadoSrs.inicial(factorInicial, ahora);
+        List<T> candidatas = List.copyOf(flexiones);
+        List<Object[]> filas = new ArrayList<>(candidatas.size());
+        for (T flexion : candidatas) {
+            ClaveTarjeta clave = ClaveTarjeta.de(flexion);
+            filas.add(new Object[]{
+                    clave.tipo().name(),
+                    clave.id(),
+                    inicial.factorFacilidad(),
+                    inicial.intervaloSegundos(),
+                    inicial.vecesConsecutivasCorrectas(),
+                    inicial.totalRevisiones(),
+                    inicial.totalAciertos(),
+                    inicial.enReaprendizaje() ? 1 : 0,
+                    CONVERTER.convertToDatabaseColumn(inicial.ultimaRevision()),
+                    CONVERTER.convertToDatabaseColumn(inicial.proximaRevision())
+            });
+        }
+
+        int[] insertadas = jdbcTemplate.batchUpdate(INSERT_TARJETA, filas);
+        List<T> activadas = new ArrayList<>();
+        for (int i = 0; i < insertadas.length; i++) {
+            if (insertadas[i] > 0) {
+                T flexion = candidatas.get(i);
+                inicial.aplicarA(flexion);
+                activadas.add(flexion);
+            }
+        }
+
+        // Las consultas cacheadas que leen TARJETA_SRS no ven este INSERT, que no pasa por Hibernate
+        if (!activadas.isEmpty()) {
+            cacheLexicoService.desalojarConsultas();
+            List<ClaveTarjeta> claves = activadas.stream().map(ClaveTarjeta::de).toList();
+            Transacciones.trasConfirmar(() -> motorSrs.anadir(claves, inicial));
+        }
+        log.debug("Activadas {} de {} flexiones", activadas.size(), flexiones.size());
+        return activadas;
+    }
+}
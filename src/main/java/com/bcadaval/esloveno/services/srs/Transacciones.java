@@ -0,0 +1,47 @@
+package com.bcadaval.esloveno.services.srs;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para coordinar estado en memoria con las transacciones de BD.
+ */
+public final class Transacciones {
+
+    private Transacciones() {
+    }
+
+    /**
+     * Ejecuta la acción cuando se confirme la transacción actual, o inmediatamente si no hay ninguna.
+     * Evita publicar en memoria cambios que luego podrían deshacerse en BD.
+     */
+    public static void trasConfirmar(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    /**
+     * Ejecuta la acción si la transacción actual termina deshaciéndose. Sin transacción no hace nada.
+     * Sirve para revertir en memoria cambios hechos antes de confirmar.
+     */
+    public static void siSeDeshace(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    if (estado == STATUS_ROLLED_BACK) {
+                        accion.run();
+                    }
+                }
+            });
+        }
+    }
+}
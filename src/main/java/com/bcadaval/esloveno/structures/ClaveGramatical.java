@@ -0,0 +1,102 @@
+package com.bcadaval.esloveno.structures;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+
+/**
+ * Codificación compacta de las características gramaticales de una flexión en un long.
+ * <p>
+ * Cada {@link CaracteristicaGramatical} ocupa un campo de {@value #BITS} bits con su valor
+ * codificado (0 = null o no aplica; enums: ordinal + 1; booleanos: 1 false, 2 true) y los
+ * bits siguientes guardan el tipo de palabra. Un criterio se traduce a una máscara con los
+ * campos que exige y al valor esperado en ellos, así que comprobarlo es
+ * {@code (clave & mascara) == valor}, equivalente a {@link CriterioGramatical#cumple(PalabraFlexion)}.
+ */
+public final class ClaveGramatical {
+
+    /** Bits por característica: admite enums de hasta 30 valores */
+    static final int BITS = 5;
+
+    private static final long CAMPO = (1L << BITS) - 1;
+
+    private static final CaracteristicaGramatical[] CARACTERISTICAS = CaracteristicaGramatical.values();
+
+    private static final TipoPalabra[] TIPOS = TipoPalabra.values();
+
+    private static final int DESPLAZAMIENTO_TIPO = CARACTERISTICAS.length * BITS;
+
+    static {
+        if (DESPLAZAMIENTO_TIPO + BITS > Long.SIZE - 1) {
+            throw new IllegalStateException("Demasiadas características gramaticales para codificarlas en un long");
+        }
+    }
+
+    private ClaveGramatical() {
+    }
+
+    /**
+     * Calcula la clave de una flexión leyendo todas sus características
+     */
+    public static long de(PalabraFlexion<?> palabra) {
+        long clave = valorTipo(palabra.getClass());
+        for (CaracteristicaGramatical caracteristica : CARACTERISTICAS) {
+            clave |= valor(caracteristica, palabra.getCaracteristica(caracteristica));
+        }
+        return clave;
+    }
+
+    /**
+     * Máscara del campo de tipo de palabra
+     */
+    public static long mascaraTipo() {
+        return CAMPO << DESPLAZAMIENTO_TIPO;
+    }
+
+    /**
+     * Valor del campo de tipo de palabra para una clase de flexión (0 si no es de ningún tipo conocido)
+     */
+    public static long valorTipo(Class<?> tipoFlexion) {
+        for (TipoPalabra tipo : TIPOS) {
+            if (tipo.getFlexionClazz().isAssignableFrom(tipoFlexion)) {
+                return (long) (tipo.ordinal() + 1) << DESPLAZAMIENTO_TIPO;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Máscara del campo de una característica
+     */
+    public static long mascara(CaracteristicaGramatical caracteristica) {
+        return CAMPO << desplazamiento(caracteristica);
+    }
+
+    /**
+     * Valor codificado de una característica, ya desplazado a su campo
+     */
+    public static long valor(CaracteristicaGramatical caracteristica, Object valor) {
+        return codificar(caracteristica, valor) << desplazamiento(caracteristica);
+    }
+
+    private static int desplazamiento(CaracteristicaGramatical caracteristica) {
+        return caracteristica.ordinal() * BITS;
+    }
+
+    private static long codificar(CaracteristicaGramatical caracteristica, Object valor) {
+        if (valor == null) {
+            return 0;
+        }
+        if (valor instanceof Boolean b) {
+            return b ? 2 : 1;
+        }
+        if (valor instanceof Enum<?> e) {
+            long codigo = e.ordinal() + 1L;
+            if (codigo > CAMPO) {
+                throw new IllegalStateException("Valor de " + caracteristica + " fuera de rango para codificar: " + e);
+            }
+            return codigo;
+        }
+        throw new IllegalArgumentException("Valor de " + caracteristica + " no codificable: " + valor.getClass());
+    }
+}
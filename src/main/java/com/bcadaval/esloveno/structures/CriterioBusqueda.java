@@ -58,6 +58,14 @@ public class CriterioBusqueda<T extends PalabraFlexion<?>> {
         return criterioGramatical.cumple(palabra);
     }
 
+    /**
+     * Verifica el criterio sobre la clave precalculada de una palabra ({@link ClaveGramatical#de}).
+     * El tipo ya forma parte de la clave.
+     */
+    public boolean cumple(long clave) {
+        return criterioGramatical.cumple(clave);
+    }
+
     /**
      * Builder fluido para CriterioBusqueda
      */
@@ -35,10 +35,29 @@ public class CriterioGramatical {
      */
     private final Class<? extends PalabraFlexion<?>> tipoFlexion;
 
+    /**
+     * Campos de {@link ClaveGramatical} que exige este criterio (tipo de palabra y requisitos)
+     */
+    private final long mascara;
+
+    /**
+     * Valor esperado en los campos de la máscara
+     */
+    private final long valor;
+
     private CriterioGramatical(Class<? extends PalabraFlexion<?>> tipoFlexion,
                                 Map<CaracteristicaGramatical, Object> requisitos) {
         this.tipoFlexion = tipoFlexion;
         this.requisitos = new EnumMap<>(requisitos);
+
+        long m = ClaveGramatical.mascaraTipo();
+        long v = ClaveGramatical.valorTipo(tipoFlexion);
+        for (var entry : this.requisitos.entrySet()) {
+            m |= ClaveGramatical.mascara(entry.getKey());
+            v |= ClaveGramatical.valor(entry.getKey(), entry.getValue());
+        }
+        this.mascara = m;
+        this.valor = v;
     }
 
     /**
@@ -62,6 +81,14 @@ public class CriterioGramatical {
         return true;
     }
 
+    /**
+     * Verifica los requisitos sobre la clave precalculada de una palabra ({@link ClaveGramatical#de}).
+     * Equivale a {@link #cumple(PalabraFlexion)} pero sin leer las características una a una.
+     */
+    public boolean cumple(long clave) {
+        return (clave & mascara) == valor;
+    }
+
     /**
      * Crea un builder para construir un CriterioGramatical.
      */
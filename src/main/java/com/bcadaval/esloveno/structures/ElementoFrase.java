@@ -3,6 +3,7 @@ package com.bcadaval.esloveno.structures;
 import com.bcadaval.esloveno.beans.base.PalabraFlexion;
 import com.bcadaval.esloveno.structures.extractores.EstrategiaExtraccion;
 import com.bcadaval.esloveno.structures.extractores.ExtraccionNull;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.apache.commons.lang3.ObjectUtils;
 
@@ -16,6 +17,11 @@ import java.util.function.Function;
  * - APOYO: tiene generadorObjeto, genera palabras dinámicamente basándose en slots
  * <p>
  * Ambos tipos nunca pueden coexistir (validado en build).
+ * <p>
+ * Es inmutable y se comparte entre peticiones: la palabra asignada a cada elemento
+ * se guarda en {@link FraseEnConstruccion}. Los extractores (individual o de la estrategia)
+ * se resuelven al construirlo en una función por modo y fila, así que obtener un texto es
+ * una sola llamada.
  *
  * @param <T> Tipo de PalabraFlexion que maneja este elemento
  */
@@ -37,7 +43,7 @@ public class ElementoFrase<T extends PalabraFlexion<?>> {
      * Generador de objeto para elementos de apoyo.
      * null si es un slot.
      */
-    private final Function<EstructuraFrase, T> generadorObjeto;
+    private final Function<FraseEnConstruccion, T> generadorObjeto;
 
     /**
      * Slot del que depende este elemento de apoyo.
@@ -59,15 +65,20 @@ public class ElementoFrase<T extends PalabraFlexion<?>> {
     private final Function<T, String> extractorDeEsloveno;
     private final Function<T, String> extractorAEspanol;
 
-    // ============================================
-    // Estado mutable (asignación de palabra)
-    // ============================================
+    /**
+     * Extractor resuelto para cada fila, indexado por ordinal de {@link ModoVisualizacion}
+     */
+    @Getter(AccessLevel.NONE)
+    private final Function<T, String>[] fila1PorModo;
+    @Getter(AccessLevel.NONE)
+    private final Function<T, String>[] fila2PorModo;
 
     /**
-     * Palabra asignada a este elemento (null si no asignado)
+     * Tipo que se envía en el formulario para las respuestas (solo slots)
      */
-    private T palabraAsignada;
+    private final FraseTipoPalabra tipoRespuesta;
 
+    @SuppressWarnings("unchecked")
     private ElementoFrase(Builder<T> builder) {
         this.nombre = builder.nombre;
         this.criterioBusqueda = builder.criterioBusqueda;
@@ -78,6 +89,34 @@ public class ElementoFrase<T extends PalabraFlexion<?>> {
         this.extractorAEsloveno = builder.extractorAEsloveno;
         this.extractorDeEsloveno = builder.extractorDeEsloveno;
         this.extractorAEspanol = builder.extractorAEspanol;
+
+        this.fila1PorModo = new Function[ModoVisualizacion.values().length];
+        this.fila2PorModo = new Function[ModoVisualizacion.values().length];
+        fila1PorModo[ModoVisualizacion.ES_SL.ordinal()] = resolver(extractorDeEspanol, estrategiaExtraccion.deEspanol());
+        fila2PorModo[ModoVisualizacion.ES_SL.ordinal()] = resolver(extractorAEsloveno, estrategiaExtraccion.aEsloveno());
+        fila1PorModo[ModoVisualizacion.SL_ES.ordinal()] = resolver(extractorDeEsloveno, estrategiaExtraccion.deEsloveno());
+        fila2PorModo[ModoVisualizacion.SL_ES.ordinal()] = resolver(extractorAEspanol, estrategiaExtraccion.aEspanol());
+
+        this.tipoRespuesta = criterioBusqueda != null ? FraseTipoPalabra.fromClase(criterioBusqueda.getTipoFlexion()) : null;
+    }
+
+    /**
+     * El extractor individual tiene prioridad; si no hay o devuelve null se usa el de la estrategia
+     */
+    private static <T> Function<T, String> resolver(Function<T, String> individual, Function<T, String> estrategia) {
+        if (individual == null && estrategia == null) {
+            return p -> null;
+        }
+        if (individual == null) {
+            return estrategia;
+        }
+        if (estrategia == null) {
+            return individual;
+        }
+        return p -> {
+            String texto = individual.apply(p);
+            return texto != null ? texto : estrategia.apply(p);
+        };
     }
 
     /**
@@ -96,86 +135,59 @@ public class ElementoFrase<T extends PalabraFlexion<?>> {
 
     /**
      * Verifica si una palabra cumple el criterio del slot.
-     * Solo válido para slots.
+     * Solo válido para slots; si el slot ya está ocupado lo decide la frase en construcción.
      *
      * @param palabra Palabra a verificar
-     * @return true si el slot está vacío y la palabra cumple el criterio
+     * @return true si es un slot y la palabra cumple el criterio
      */
     public boolean coincide(PalabraFlexion<?> palabra) {
         if (!esSlot()) return false;
-        return palabraAsignada == null && criterioBusqueda.cumple(palabra);
-    }
-
-    /**
-     * Asigna una palabra al elemento.
-     *
-     * @param palabra Palabra a asignar
-     */
-    public void asignar(PalabraFlexion<?> palabra) {
-        this.palabraAsignada = (T) palabra;
+        return criterioBusqueda.cumple(palabra);
     }
 
     /**
-     * Verifica si el elemento tiene una palabra asignada.
+     * Igual que {@link #coincide(PalabraFlexion)}, sobre la clave precalculada de la palabra
+     * ({@link ClaveGramatical#de}).
      */
-    public boolean estaAsignado() {
-        return palabraAsignada != null;
+    public boolean coincide(long clave) {
+        if (!esSlot()) return false;
+        return criterioBusqueda.cumple(clave);
     }
 
     /**
      * Genera el objeto de apoyo usando el contexto de la frase.
      * Solo válido para elementos de apoyo.
      *
-     * @param frase Estructura de frase con slots asignados
+     * @param frase Frase en construcción con slots asignados
      * @return Objeto generado o null si el slot dependiente no está asignado
      */
-    public T generarObjeto(EstructuraFrase frase) {
+    public T generarObjeto(FraseEnConstruccion frase) {
         if (!esApoyo()) return null;
         return generadorObjeto.apply(frase);
     }
 
     /**
      * Obtiene el texto para la fila 1 según el modo de visualización.
+     *
+     * @param palabra Palabra asignada a este elemento en la frase (puede ser null)
      */
-    public String getTextoFila1(ModoVisualizacion modo) {
-        if (palabraAsignada == null) return "";
-        return modo == ModoVisualizacion.ES_SL
-                ? getDeEspanol(palabraAsignada)
-                : getDeEsloveno(palabraAsignada);
+    public String getTextoFila1(T palabra, ModoVisualizacion modo) {
+        if (palabra == null) return "";
+        return noNulo(fila1PorModo[modo.ordinal()].apply(palabra));
     }
 
     /**
      * Obtiene el texto para la fila 2 según el modo de visualización.
+     *
+     * @param palabra Palabra asignada a este elemento en la frase (puede ser null)
      */
-    public String getTextoFila2(ModoVisualizacion modo) {
-        if (palabraAsignada == null) return "";
-        return modo == ModoVisualizacion.ES_SL
-                ? getAEsloveno(palabraAsignada)
-                : getAEspanol(palabraAsignada);
-    }
-
-    // Métodos privados para resolver extractor (individual > estrategia)
-    private String getDeEspanol(T p) {
-        return ObjectUtils.firstNonNull(extractorDeEspanol.apply(p), estrategiaExtraccion.deEspanol().apply(p), "");
+    public String getTextoFila2(T palabra, ModoVisualizacion modo) {
+        if (palabra == null) return "";
+        return noNulo(fila2PorModo[modo.ordinal()].apply(palabra));
     }
 
-    private String getAEsloveno(T p) {
-        return ObjectUtils.firstNonNull(extractorAEsloveno.apply(p), estrategiaExtraccion.aEsloveno().apply(p), "");
-    }
-
-    private String getDeEsloveno(T p) {
-        return ObjectUtils.firstNonNull(extractorDeEsloveno.apply(p), estrategiaExtraccion.deEsloveno().apply(p), "");
-    }
-
-    private String getAEspanol(T p) {
-        return ObjectUtils.firstNonNull(extractorAEspanol.apply(p), estrategiaExtraccion.aEspanol().apply(p), "");
-    }
-
-    /**
-     * Limpia el estado del elemento para reutilización.
-     */
-    public void limpiar() {
-        this.palabraAsignada = null;
+    private static String noNulo(String texto) {
+        return texto != null ? texto : "";
     }
 
     // ============================================
@@ -189,7 +201,7 @@ public class ElementoFrase<T extends PalabraFlexion<?>> {
     public static class Builder<T extends PalabraFlexion<?>> {
         private String nombre;
         private CriterioBusqueda<T> criterioBusqueda;
-        private Function<EstructuraFrase, T> generadorObjeto;
+        private Function<FraseEnConstruccion, T> generadorObjeto;
         private ElementoFrase<?> slotDependiente;
         private EstrategiaExtraccion<T> estrategiaExtraccion;
         private Function<T, String> extractorDeEspanol;
@@ -222,8 +234,8 @@ public class ElementoFrase<T extends PalabraFlexion<?>> {
                                     Function<PalabraFlexion<?>, T> generador) {
             this.slotDependiente = slotDependiente;
             this.generadorObjeto = frase -> {
-                if (slotDependiente == null || !slotDependiente.estaAsignado()) return null;
-                return generador.apply(slotDependiente.getPalabraAsignada());
+                PalabraFlexion<?> asignada = slotDependiente == null ? null : frase.getAsignada(slotDependiente);
+                return asignada == null ? null : generador.apply(asignada);
             };
             return this;
         }
@@ -233,7 +245,7 @@ public class ElementoFrase<T extends PalabraFlexion<?>> {
          * Incompatible con criterio.
          * Usar cuando se necesita acceso completo a la frase.
          */
-        public Builder<T> generadorCompleto(Function<EstructuraFrase, T> generador) {
+        public Builder<T> generadorCompleto(Function<FraseEnConstruccion, T> generador) {
             this.generadorObjeto = generador;
             return this;
         }
@@ -294,10 +306,6 @@ public class ElementoFrase<T extends PalabraFlexion<?>> {
             }
 
             if (estrategiaExtraccion == null) estrategiaExtraccion = ExtraccionNull.get();
-            if (extractorDeEspanol == null) extractorDeEspanol = p -> null;
-            if (extractorAEsloveno == null) extractorAEsloveno = p -> null;
-            if (extractorDeEsloveno == null) extractorDeEsloveno = p -> null;
-            if (extractorAEspanol == null) extractorAEspanol = p -> null;
 
             return new ElementoFrase<>(this);
         }
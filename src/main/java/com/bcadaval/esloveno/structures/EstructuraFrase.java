@@ -1,6 +1,5 @@
 package com.bcadaval.esloveno.structures;
 
-import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -36,6 +35,10 @@ import lombok.extern.log4j.Log4j2;
  * - Inyección automática de dependencias
  * - Auto-registro en base de datos
  * - Activación/desactivación dinámica
+ * <p>
+ * Al ser singletons compartidos entre peticiones, solo guardan la definición de la frase
+ * (se configura una vez en @PostConstruct y no cambia). Las palabras asignadas en cada
+ * petición se guardan en una {@link FraseEnConstruccion}.
  */
 @Log4j2
 @Getter
@@ -61,39 +64,57 @@ public abstract class EstructuraFrase {
      * Lista ordenada de todos los elementos de la frase (slots + apoyos).
      * El orden determina cómo se muestra en la vista.
      */
-    protected final List<ElementoFrase<? extends PalabraFlexion<?>>> elementos = new ArrayList<>();
+    private List<ElementoFrase<? extends PalabraFlexion<?>>> elementos = List.of();
 
     /**
      * Lista de slots (elementos con criterio de búsqueda) para búsqueda rápida.
      */
-    protected final List<ElementoFrase<? extends PalabraFlexion<?>>> slots = new ArrayList<>();
+    private List<ElementoFrase<? extends PalabraFlexion<?>>> slots = List.of();
 
     /**
      * Lista de apoyos (elementos con generador) para procesamiento posterior.
      */
-    protected final List<ElementoFrase<? extends PalabraFlexion<?>>> apoyos = new ArrayList<>();
+    private List<ElementoFrase<? extends PalabraFlexion<?>>> apoyos = List.of();
 
     /**
-     * Constructor por defecto para Spring
+     * Constructor por defecto para Spring: los elementos se añaden en @PostConstruct
      */
     protected EstructuraFrase() {
     }
 
+    /**
+     * Estructura con todos sus elementos ya construidos
+     */
+    protected EstructuraFrase(List<ElementoFrase<? extends PalabraFlexion<?>>> elementos) {
+        this.elementos = List.copyOf(elementos);
+        this.slots = elementos.stream().filter(ElementoFrase::esSlot).toList();
+        this.apoyos = elementos.stream().filter(e -> !e.esSlot() && e.esApoyo()).toList();
+    }
+
     /**
      * Añade un elemento a la estructura.
      * Clasifica automáticamente como slot o apoyo según su configuración.
+     * Solo debe llamarse al configurarla: las listas publicadas son copias inmutables
+     * que se sustituyen con cada elemento, así que nunca se modifican mientras se leen.
      *
      * @param elemento Elemento a añadir (slot o apoyo)
      */
     protected void agregarElemento(ElementoFrase<? extends PalabraFlexion<?>> elemento) {
-        elementos.add(elemento);
+        elementos = conElemento(elementos, elemento);
         if (elemento.esSlot()) {
-            slots.add(elemento);
+            slots = conElemento(slots, elemento);
         } else if (elemento.esApoyo()) {
-            apoyos.add(elemento);
+            apoyos = conElemento(apoyos, elemento);
         }
     }
 
+    private static <T> List<T> conElemento(List<T> lista, T elemento) {
+        List<T> nueva = new ArrayList<>(lista.size() + 1);
+        nueva.addAll(lista);
+        nueva.add(elemento);
+        return List.copyOf(nueva);
+    }
+
     /**
      * Obtiene los criterios de búsqueda de todos los slots.
      * Útil para EstructuraPalabraService.
@@ -108,95 +129,10 @@ public abstract class EstructuraFrase {
 
 
     /**
-     * Intenta asignar una palabra a algún slot vacío que coincida
-     * @param palabra Palabra a intentar asignar
-     * @return true si se asignó a algún slot, false si no coincide con ninguno
-     */
-    public boolean intentarAsignar(PalabraFlexion<?> palabra) {
-        for (var slot : slots) {
-            if (slot.coincide(palabra)) {
-                slot.asignar(palabra);
-                log.debug("Asignado {} a slot '{}'", palabra.getClass().getSimpleName(), slot.getNombre());
-                return true;
-            }
-        }
-        return false;
-    }
-
-    /**
-     * Verifica si todos los slots tienen una palabra asignada
-     */
-    public boolean estaCompleta() {
-        return slots.stream().allMatch(ElementoFrase::estaAsignado);
-    }
-
-    public Instant calcularMediaInstant() {
-        return Instant.ofEpochMilli( (long) slots.stream()
-                .filter(ElementoFrase::estaAsignado)
-                .map(ElementoFrase::getPalabraAsignada)
-                .filter(Objects::nonNull)
-                .map(PalabraFlexion::getProximaRevision)
-                .filter(Objects::nonNull)
-                .mapToLong(Instant::toEpochMilli)
-                .average()
-                .orElse(Double.MIN_VALUE));
-    }
-
-    /**
-     * Construye la lista de datos de visualización para el JSP.
-     * El modo se decide ALEATORIAMENTE aquí (singleton con modo dinámico).
-     * Itera sobre los elementos EN ORDEN para mantener la estructura de la frase.
-     * El JSP recibirá textoFila1 y textoFila2 sin saber qué idioma es cada uno.
-     * <p>
-     * IMPORTANTE: Primero genera los objetos de apoyo (que dependen de slots asignados).
-     */
-    public List<DatoVisualizacion> construirDatosVisualizacion() {
-        // Modo aleatorio cada vez que se construye
-        ModoVisualizacion modo = ModoVisualizacion.aleatorio();
-        log.debug("Construyendo datos con modo: {}", modo);
-
-        // Primero generar y asignar objetos de apoyo
-        apoyos.stream()
-                .filter(ElementoFrase::esApoyo)
-                .forEach(this::generarYAsignarApoyo);
-
-        // Construir datos de visualización en orden
-        return elementos.stream()
-                .map(el -> construirDato(el, modo))
-                .filter(Objects::nonNull)
-                .toList();
-    }
-
-    /**
-     * Helper para capturar el tipo genérico y asignar apoyo correctamente.
-     * Resuelve el problema de type capture en el bucle for-each.
-     */
-    private <T extends PalabraFlexion<?>> void generarYAsignarApoyo(ElementoFrase<T> apoyo) {
-        T objetoGenerado = apoyo.generarObjeto(this);
-        apoyo.asignar(objetoGenerado);
-    }
-
-    /**
-     * Construye un DatoVisualizacion para un elemento
-     */
-    private DatoVisualizacion construirDato(ElementoFrase<?> elemento, ModoVisualizacion modo) {
-        if (!elemento.estaAsignado()) return null;
-
-        PalabraFlexion<?> palabra = elemento.getPalabraAsignada();
-
-        return DatoVisualizacion.builder()
-                .textoFila1(elemento.getTextoFila1(modo))
-                .textoFila2(elemento.getTextoFila2(modo))
-                .id(elemento.esSlot() ? palabra.getId() : null)
-                .tipo(elemento.esSlot() ? FraseTipoPalabra.fromObject(palabra) : null)
-                .build();
-    }
-
-    /**
-     * Limpia todos los elementos para reutilización (singleton)
+     * Crea una frase vacía basada en esta estructura para rellenarla en la petición actual
      */
-    public void limpiar() {
-        elementos.forEach(ElementoFrase::limpiar);
+    public FraseEnConstruccion nuevaFrase() {
+        return new FraseEnConstruccion(this);
     }
 
     /**
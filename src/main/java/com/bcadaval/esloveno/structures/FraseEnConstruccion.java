@@ -0,0 +1,226 @@
+package com.bcadaval.esloveno.structures;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+
+import lombok.Getter;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * Asignación de palabras a los elementos de una {@link EstructuraFrase} durante una petición.
+ * <p>
+ * La estructura es un bean singleton e inmutable que solo describe la plantilla; todo el
+ * estado de la frase que se está construyendo vive aquí, así que cada petición crea las
+ * suyas con {@link EstructuraFrase#nuevaFrase()} y varias peticiones concurrentes pueden
+ * usar la misma estructura sin interferir.
+ * <p>
+ * Rellenar los slots no es thread-safe y se hace en un solo hilo. Una vez rellena, los slots
+ * solo se leen: {@link #construirDatosVisualizacion()} guarda los apoyos y los datos de
+ * visualización aparte, así que puede ejecutarse en segundo plano mientras la petición
+ * consulta la frase.
+ */
+@Log4j2
+public class FraseEnConstruccion {
+
+    /**
+     * Plantilla de la que se construye esta frase
+     */
+    @Getter
+    private final EstructuraFrase estructura;
+
+    /**
+     * Palabra asignada a cada elemento (por identidad del elemento)
+     */
+    private final Map<ElementoFrase<?>, PalabraFlexion<?>> asignaciones = new IdentityHashMap<>();
+
+    /**
+     * Palabra generada para cada elemento de apoyo; se generan una sola vez, la primera vez
+     * que se construyen los datos de visualización
+     */
+    private final Map<ElementoFrase<?>, PalabraFlexion<?>> apoyos = new IdentityHashMap<>();
+
+    /**
+     * Slots que aún no tienen palabra
+     */
+    private int slotsLibres;
+
+    /**
+     * Elementos con palabra, en orden, y su dato de visualización (null hasta la primera
+     * construcción). Cada construcción solo cambia los textos de los mismos datos.
+     */
+    private ElementoFrase<?>[] elementosConPalabra;
+    private DatoVisualizacion[] datos;
+    private List<DatoVisualizacion> listaDatos;
+
+    /**
+     * Textos ya extraídos de cada modo, indexados por ordinal: fila 1 y fila 2 de cada dato seguidas
+     */
+    private String[][] textosPorModo;
+
+    FraseEnConstruccion(EstructuraFrase estructura) {
+        this.estructura = estructura;
+        this.slotsLibres = estructura.getSlots().size();
+    }
+
+    /**
+     * Intenta asignar una palabra a algún slot vacío que coincida
+     * @param palabra Palabra a intentar asignar
+     * @return true si se asignó a algún slot, false si no coincide con ninguno
+     */
+    public boolean intentarAsignar(PalabraFlexion<?> palabra) {
+        return intentarAsignar(palabra, ClaveGramatical.de(palabra));
+    }
+
+    /**
+     * Igual que {@link #intentarAsignar(PalabraFlexion)} con la clave de la palabra ya calculada
+     */
+    public boolean intentarAsignar(PalabraFlexion<?> palabra, long clave) {
+        for (var slot : estructura.getSlots()) {
+            if (!estaAsignado(slot) && slot.coincide(clave)) {
+                asignaciones.put(slot, palabra);
+                slotsLibres--;
+                log.debug("Asignado {} a slot '{}'", palabra.getClass().getSimpleName(), slot.getNombre());
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Palabra asignada a un elemento de la estructura, o null si no tiene
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends PalabraFlexion<?>> T getAsignada(ElementoFrase<T> elemento) {
+        return (T) (elemento.esApoyo() ? apoyos.get(elemento) : asignaciones.get(elemento));
+    }
+
+    /**
+     * Verifica si un elemento tiene una palabra asignada
+     */
+    public boolean estaAsignado(ElementoFrase<?> elemento) {
+        return getAsignada(elemento) != null;
+    }
+
+    /**
+     * Verifica si todos los slots tienen una palabra asignada
+     */
+    public boolean estaCompleta() {
+        return slotsLibres == 0;
+    }
+
+    /**
+     * Indica si alguna palabra asignada a un slot (no de apoyo) es la tarjeta indicada
+     */
+    public boolean contieneTarjeta(FraseTipoPalabra tipo, Integer id) {
+        for (var slot : estructura.getSlots()) {
+            PalabraFlexion<?> palabra = asignaciones.get(slot);
+            if (palabra != null && Objects.equals(palabra.getId(), id) && FraseTipoPalabra.fromObject(palabra) == tipo) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public Instant calcularMediaInstant() {
+        return Instant.ofEpochMilli( (long) estructura.getSlots().stream()
+                .map(asignaciones::get)
+                .filter(Objects::nonNull)
+                .map(PalabraFlexion::getProximaRevision)
+                .filter(Objects::nonNull)
+                .mapToLong(Instant::toEpochMilli)
+                .average()
+                .orElse(Double.MIN_VALUE));
+    }
+
+    /**
+     * Construye la lista de datos de visualización para el JSP.
+     * El modo se decide ALEATORIAMENTE aquí, en cada frase.
+     * Itera sobre los elementos EN ORDEN para mantener la estructura de la frase.
+     * El JSP recibirá textoFila1 y textoFila2 sin saber qué idioma es cada uno.
+     * <p>
+     * La primera vez genera los objetos de apoyo (que dependen de slots asignados) y crea un
+     * dato por elemento con palabra; después solo escribe en esos datos los textos del modo,
+     * extraídos una vez por modo. Devuelve siempre la misma lista, así que cada llamada
+     * sobrescribe los textos de la anterior.
+     */
+    public synchronized List<DatoVisualizacion> construirDatosVisualizacion() {
+        // Modo aleatorio cada vez que se construye
+        ModoVisualizacion modo = ModoVisualizacion.aleatorio();
+        log.debug("Construyendo datos con modo: {}", modo);
+
+        if (datos == null) {
+            prepararDatos();
+        }
+        String[] textos = textosPorModo[modo.ordinal()];
+        if (textos == null) {
+            textos = extraerTextos(modo);
+            textosPorModo[modo.ordinal()] = textos;
+        }
+        for (int i = 0; i < datos.length; i++) {
+            datos[i].setTextoFila1(textos[2 * i]);
+            datos[i].setTextoFila2(textos[2 * i + 1]);
+        }
+        return listaDatos;
+    }
+
+    /**
+     * Genera los apoyos y crea los datos de los elementos con palabra, con su ID y tipo de respuesta.
+     * Si un generador falla no queda nada a medias: la siguiente llamada vuelve a empezar.
+     */
+    private void prepararDatos() {
+        apoyos.clear();
+        for (ElementoFrase<?> apoyo : estructura.getApoyos()) {
+            generarYAsignarApoyo(apoyo);
+        }
+
+        List<ElementoFrase<? extends PalabraFlexion<?>>> elementos = estructura.getElementos();
+        ElementoFrase<?>[] conPalabra = new ElementoFrase<?>[elementos.size()];
+        DatoVisualizacion[] nuevos = new DatoVisualizacion[elementos.size()];
+        int n = 0;
+        for (ElementoFrase<?> elemento : elementos) {
+            PalabraFlexion<?> palabra = getAsignada(elemento);
+            if (palabra != null) {
+                conPalabra[n] = elemento;
+                nuevos[n++] = DatoVisualizacion.builder()
+                        .id(elemento.esSlot() ? palabra.getId() : null)
+                        .tipo(elemento.getTipoRespuesta())
+                        .build();
+            }
+        }
+        elementosConPalabra = Arrays.copyOf(conPalabra, n);
+        textosPorModo = new String[ModoVisualizacion.values().length][];
+        datos = Arrays.copyOf(nuevos, n);
+        listaDatos = List.of(datos);
+    }
+
+    private <T extends PalabraFlexion<?>> void generarYAsignarApoyo(ElementoFrase<T> apoyo) {
+        T objetoGenerado = apoyo.generarObjeto(this);
+        if (objetoGenerado != null) {
+            apoyos.put(apoyo, objetoGenerado);
+        }
+    }
+
+    private String[] extraerTextos(ModoVisualizacion modo) {
+        String[] textos = new String[2 * elementosConPalabra.length];
+        for (int i = 0; i < elementosConPalabra.length; i++) {
+            extraerTextos(elementosConPalabra[i], modo, textos, 2 * i);
+        }
+        return textos;
+    }
+
+    /**
+     * Genérico para capturar el tipo del elemento y pasarle su palabra a los extractores
+     */
+    private <T extends PalabraFlexion<?>> void extraerTextos(ElementoFrase<T> elemento, ModoVisualizacion modo,
+                                                           String[] textos, int posicion) {
+        T palabra = getAsignada(elemento);
+        textos[posicion] = elemento.getTextoFila1(palabra, modo);
+        textos[posicion + 1] = elemento.getTextoFila2(palabra, modo);
+    }
+}
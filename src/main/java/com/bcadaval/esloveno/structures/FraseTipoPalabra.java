@@ -15,6 +15,8 @@ public enum FraseTipoPalabra {
     PRONOMBRE(Pronombre.class, "p"),
     NUMERO(Numero.class, "n");
 
+    private static final FraseTipoPalabra[] VALORES = values();
+
     private final Class<?> clazz;
     private final String codigo;
 
@@ -32,8 +34,17 @@ public enum FraseTipoPalabra {
         if (objeto == null) {
             return null;
         }
-        for (FraseTipoPalabra tipo : values()) {
-            if (tipo.clazz.isInstance(objeto)) {
+        return fromClase(objeto.getClass());
+    }
+
+    /**
+     * Obtiene el tipo de palabra de los objetos de una clase
+     * @param clase Clase de los objetos
+     * @return FraseTipoPalabra correspondiente o null si no se encuentra
+     */
+    public static FraseTipoPalabra fromClase(Class<?> clase) {
+        for (FraseTipoPalabra tipo : VALORES) {
+            if (tipo.clazz.isAssignableFrom(clase)) {
                 return tipo;
             }
         }
@@ -49,7 +60,7 @@ public enum FraseTipoPalabra {
         if (codigo == null) {
             return null;
         }
-        for (FraseTipoPalabra tipo : values()) {
+        for (FraseTipoPalabra tipo : VALORES) {
             if (tipo.codigo.equals(codigo)) {
                 return tipo;
             }
@@ -0,0 +1,88 @@
+package com.bcadaval.esloveno.structures;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+
+/**
+ * Índice, para una petición, de las tarjetas que encajan en cada slot.
+ * <p>
+ * Calcula una sola vez la {@link ClaveGramatical} de cada tarjeta y, la primera vez que se
+ * necesita un criterio, el conjunto de tarjetas que lo cumplen (compartido entre slots de
+ * distintas estructuras con el mismo criterio). Al rellenar una frase solo se recorren las
+ * tarjetas candidatas a alguno de sus slots, en el orden de prioridad de la lista original,
+ * y se para en cuanto la frase está completa. El resultado es el mismo que ofrecer todas
+ * las tarjetas a la frase en orden.
+ * <p>
+ * No es thread-safe: una instancia por planificación.
+ */
+public class IndiceCandidatos {
+
+    private final List<PalabraFlexion<?>> tarjetas;
+
+    private final long[] claves;
+
+    private final Map<Patron, BitSet> candidatosPorPatron = new HashMap<>();
+
+    /**
+     * @param tarjetas Tarjetas disponibles, ordenadas por prioridad
+     */
+    public IndiceCandidatos(List<PalabraFlexion<?>> tarjetas) {
+        this.tarjetas = tarjetas;
+        this.claves = new long[tarjetas.size()];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = ClaveGramatical.de(tarjetas.get(i));
+        }
+    }
+
+    /**
+     * Número de tarjetas indexadas
+     */
+    public int size() {
+        return claves.length;
+    }
+
+    /**
+     * Asigna a los slots de la frase las tarjetas candidatas de entre las disponibles,
+     * por orden de prioridad
+     *
+     * @param disponibles Posiciones de las tarjetas que aún se pueden usar
+     * @return Posiciones de las tarjetas asignadas a la frase
+     */
+    public BitSet rellenar(FraseEnConstruccion frase, BitSet disponibles) {
+        BitSet candidatas = new BitSet(claves.length);
+        for (ElementoFrase<?> slot : frase.getEstructura().getSlots()) {
+            candidatas.or(getCandidatas(slot.getCriterioBusqueda().getCriterioGramatical()));
+        }
+        candidatas.and(disponibles);
+
+        BitSet usadas = new BitSet(claves.length);
+        for (int i = candidatas.nextSetBit(0); i >= 0 && !frase.estaCompleta(); i = candidatas.nextSetBit(i + 1)) {
+            if (frase.intentarAsignar(tarjetas.get(i), claves[i])) {
+                usadas.set(i);
+            }
+        }
+        return usadas;
+    }
+
+    private BitSet getCandidatas(CriterioGramatical criterio) {
+        return candidatosPorPatron.computeIfAbsent(new Patron(criterio.getMascara(), criterio.getValor()), patron -> {
+            BitSet candidatas = new BitSet(claves.length);
+            for (int i = 0; i < claves.length; i++) {
+                if ((claves[i] & patron.mascara()) == patron.valor()) {
+                    candidatas.set(i);
+                }
+            }
+            return candidatas;
+        });
+    }
+
+    /**
+     * Máscara y valor de un criterio, para compartir candidatas entre criterios iguales
+     */
+    private record Patron(long mascara, long valor) {
+    }
+}
@@ -1,5 +1,7 @@
 package com.bcadaval.esloveno.structures;
 
+import java.util.concurrent.ThreadLocalRandom;
+
 /**
  * Modo de visualización de la frase.
  * Define qué idioma se muestra en cada fila de la tabla.
@@ -24,7 +26,7 @@ public enum ModoVisualizacion {
      * Obtiene un modo aleatorio
      */
     public static ModoVisualizacion aleatorio() {
-        return Math.random() < 0.5 ? ES_SL : SL_ES;
+        return ThreadLocalRandom.current().nextBoolean() ? ES_SL : SL_ES;
     }
 }
 
@@ -17,13 +17,15 @@ import java.util.function.Function;
 @Component
 public class ExtraccionApoyoEstandar implements EstrategiaExtraccion<PalabraFlexion<?>> {
 
+    private static final ExtraccionApoyoEstandar INSTANCIA = new ExtraccionApoyoEstandar();
+
     /**
-     * Función estática para obtener una instancia tipada a un tipo específico.
+     * Función estática para obtener la instancia compartida tipada a un tipo específico.
      * Seguro porque todos los extractores trabajan con métodos de PalabraFlexion.
      */
     @SuppressWarnings("unchecked")
     public static <T extends PalabraFlexion<?>> EstrategiaExtraccion<T> get() {
-        return (EstrategiaExtraccion<T>) new ExtraccionApoyoEstandar();
+        return (EstrategiaExtraccion<T>) INSTANCIA;
     }
 
     @Override
@@ -6,8 +6,11 @@ import java.util.function.Function;
 
 public class ExtraccionNull implements EstrategiaExtraccion<PalabraFlexion<?>> {
 
+    private static final ExtraccionNull INSTANCIA = new ExtraccionNull();
+
+    @SuppressWarnings("unchecked")
     public static <T extends PalabraFlexion<?>> EstrategiaExtraccion<T> get() {
-        return (EstrategiaExtraccion<T>) new ExtraccionNull();
+        return (EstrategiaExtraccion<T>) INSTANCIA;
     }
 
     @Override
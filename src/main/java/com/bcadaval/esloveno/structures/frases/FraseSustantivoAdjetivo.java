@@ -52,14 +52,14 @@ public class FraseSustantivoAdjetivo extends EstructuraFrase {
         // Definir apoyo de numeral (depende del adjetivo, debe depender en caso, género y número)
         ElementoFrase<NumeralFlexion> numeral = ElementoFrase.<NumeralFlexion>builder()
                 .nombre("NUMERAL")
-                .generador(adjetivo, palabra -> numeralService.getNumeral(adjetivo.getPalabraAsignada()))
+                .generador(adjetivo, palabra -> numeralService.getNumeral((AdjetivoFlexion) palabra))
                 .extractor(ExtraccionApoyoEstandar.get())
                 .build();
 
         // Definir apoyo de sustantivo (depende del adjetivo, debe coincidir en caso, género y número)
         ElementoFrase<SustantivoFlexion> sustantivo = ElementoFrase.<SustantivoFlexion>builder()
                 .nombre("SUSTANTIVO")
-                .generador(adjetivo, palabra -> sustantivoService.getSustantivo(adjetivo.getPalabraAsignada()))
+                .generador(adjetivo, palabra -> sustantivoService.getSustantivo((AdjetivoFlexion) palabra))
                 .extractor(ExtraccionApoyoEstandar.get())
                 .build();
 
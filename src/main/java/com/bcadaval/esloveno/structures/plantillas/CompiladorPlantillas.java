@@ -0,0 +1,225 @@
+package com.bcadaval.esloveno.structures.plantillas;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.Caso;
+import com.bcadaval.esloveno.beans.enums.Definitud;
+import com.bcadaval.esloveno.beans.enums.FormaVerbal;
+import com.bcadaval.esloveno.beans.enums.Genero;
+import com.bcadaval.esloveno.beans.enums.Grado;
+import com.bcadaval.esloveno.beans.enums.NumeralType;
+import com.bcadaval.esloveno.beans.enums.Numero;
+import com.bcadaval.esloveno.beans.enums.Persona;
+import com.bcadaval.esloveno.beans.enums.Transitividad;
+import com.bcadaval.esloveno.beans.palabra.AdjetivoFlexion;
+import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
+import com.bcadaval.esloveno.beans.palabra.VerboFlexion;
+import com.bcadaval.esloveno.services.palabra.NumeralService;
+import com.bcadaval.esloveno.services.palabra.PronombreService;
+import com.bcadaval.esloveno.services.palabra.sustantivo.SustantivoService;
+import com.bcadaval.esloveno.structures.CriterioBusqueda;
+import com.bcadaval.esloveno.structures.ElementoFrase;
+import com.bcadaval.esloveno.structures.extractores.EstrategiaExtraccion;
+import com.bcadaval.esloveno.structures.extractores.ExtraccionApoyoEstandar;
+import com.bcadaval.esloveno.structures.extractores.ExtraccionSlotEstandar;
+
+/**
+ * Convierte plantillas declarativas en estructuras de frase.
+ * <p>
+ * Todo lo que se interpreta de la plantilla (tipos, valores de los requisitos, generadores,
+ * extractores, dependencias entre elementos) se resuelve y valida aquí, una vez por carga:
+ * el resultado son los mismos {@link ElementoFrase} con {@link CriterioBusqueda} precalculados
+ * que usan las estructuras escritas en Java.
+ */
+@Component
+public class CompiladorPlantillas {
+
+    private static final Map<CaracteristicaGramatical, Class<?>> TIPOS_REQUISITO = Map.of(
+            CaracteristicaGramatical.NUMERO, Numero.class,
+            CaracteristicaGramatical.GENERO, Genero.class,
+            CaracteristicaGramatical.CASO, Caso.class,
+            CaracteristicaGramatical.GRADO, Grado.class,
+            CaracteristicaGramatical.DEFINITUD, Definitud.class,
+            CaracteristicaGramatical.FORMA_VERBAL, FormaVerbal.class,
+            CaracteristicaGramatical.PERSONA, Persona.class,
+            CaracteristicaGramatical.TRANSITIVIDAD, Transitividad.class,
+            CaracteristicaGramatical.NEGATIVO, Boolean.class,
+            CaracteristicaGramatical.TIPO_NUMERAL, NumeralType.class
+    );
+
+    @Autowired
+    private PronombreService pronombreService;
+
+    @Autowired
+    private NumeralService numeralService;
+
+    @Autowired
+    private SustantivoService sustantivoService;
+
+    /**
+     * Compila una plantilla
+     *
+     * @throws IllegalArgumentException si la plantilla no es válida
+     */
+    public EstructuraFraseDeclarativa compilar(PlantillaFrase plantilla) {
+        if (plantilla.identificador() == null || plantilla.identificador().isBlank()) {
+            throw new IllegalArgumentException("La plantilla no tiene identificador");
+        }
+        if (plantilla.elementos() == null || plantilla.elementos().isEmpty()) {
+            throw new IllegalArgumentException("La plantilla no tiene elementos");
+        }
+
+        // Primero los slots, para que los apoyos puedan referirse a ellos estén donde estén
+        Map<String, ElementoFrase<?>> slots = new HashMap<>();
+        Set<String> nombres = new HashSet<>();
+        for (PlantillaFrase.Elemento elemento : plantilla.elementos()) {
+            if (elemento.nombre() == null || !nombres.add(elemento.nombre())) {
+                throw new IllegalArgumentException("Nombre de elemento vacío o repetido: " + elemento.nombre());
+            }
+            if (elemento.tipo() != null) {
+                slots.put(elemento.nombre(), compilarSlot(elemento));
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("La plantilla no tiene ningún slot");
+        }
+
+        List<ElementoFrase<? extends PalabraFlexion<?>>> elementos = new ArrayList<>();
+        for (PlantillaFrase.Elemento elemento : plantilla.elementos()) {
+            elementos.add(elemento.tipo() != null
+                    ? slots.get(elemento.nombre())
+                    : compilarApoyo(elemento, slots));
+        }
+
+        String nombreMostrar = plantilla.nombreMostrar() != null ? plantilla.nombreMostrar() : plantilla.identificador();
+        return new EstructuraFraseDeclarativa(plantilla.identificador(), nombreMostrar, elementos);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends PalabraFlexion<?>> ElementoFrase<T> compilarSlot(PlantillaFrase.Elemento elemento) {
+        if (elemento.generador() != null) {
+            throw new IllegalArgumentException("El elemento '" + elemento.nombre() + "' no puede tener tipo y generador");
+        }
+        Class<T> tipo = (Class<T>) elemento.tipo().getFlexionClazz();
+
+        CriterioBusqueda.Builder<T> criterio = CriterioBusqueda.de(tipo);
+        if (elemento.requisitos() != null) {
+            elemento.requisitos().forEach((caracteristica, valor) ->
+                    criterio.con(caracteristica, valorRequisito(elemento, caracteristica, valor)));
+        }
+
+        ElementoFrase.Builder<T> builder = ElementoFrase.<T>builder()
+                .nombre(elemento.nombre())
+                .criterio(criterio.build());
+        return conExtraccion(builder, elemento, tipo, "SLOT").build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends PalabraFlexion<?>> ElementoFrase<T> compilarApoyo(PlantillaFrase.Elemento elemento,
+                                                                         Map<String, ElementoFrase<?>> slots) {
+        if (elemento.generador() == null) {
+            throw new IllegalArgumentException("El elemento '" + elemento.nombre() + "' necesita tipo (slot) o generador (apoyo)");
+        }
+        GeneradorApoyo generador = enumValor(GeneradorApoyo.class, elemento.generador(), "generador de " + elemento.nombre());
+
+        ElementoFrase<?> slot = slots.get(elemento.depende());
+        if (slot == null) {
+            throw new IllegalArgumentException("El apoyo '" + elemento.nombre() + "' depende de un slot inexistente: " + elemento.depende());
+        }
+        Class<?> tipoSlot = slot.getCriterioBusqueda().getTipoFlexion();
+        if (!generador.admite(tipoSlot)) {
+            throw new IllegalArgumentException("El generador " + generador + " no admite depender de " + tipoSlot.getSimpleName());
+        }
+
+        Class<T> tipo = (Class<T>) generador.getTipoGenerado();
+        ElementoFrase.Builder<T> builder = ElementoFrase.<T>builder()
+                .nombre(elemento.nombre())
+                .generador(slot, (Function<PalabraFlexion<?>, T>) funcionGeneradora(generador));
+        return conExtraccion(builder, elemento, tipo, "APOYO").build();
+    }
+
+    /**
+     * Función que genera la palabra de apoyo a partir de la palabra del slot (ya validado su tipo)
+     */
+    private Function<PalabraFlexion<?>, ? extends PalabraFlexion<?>> funcionGeneradora(GeneradorApoyo generador) {
+        return switch (generador) {
+            case PRONOMBRE_SUJETO -> palabra -> pronombreService.getPronombre((VerboFlexion) palabra);
+            case NUMERAL_CONCORDANTE -> palabra -> palabra instanceof AdjetivoFlexion adjetivo
+                    ? numeralService.getNumeral(adjetivo)
+                    : numeralService.getNumeral((SustantivoFlexion) palabra);
+            case SUSTANTIVO_CONCORDANTE -> palabra -> sustantivoService.getSustantivo((AdjetivoFlexion) palabra);
+        };
+    }
+
+    private <T extends PalabraFlexion<?>> ElementoFrase.Builder<T> conExtraccion(ElementoFrase.Builder<T> builder,
+                                                                               PlantillaFrase.Elemento elemento,
+                                                                               Class<T> tipo, String porDefecto) {
+        String extraccion = elemento.extraccion() != null ? elemento.extraccion() : porDefecto;
+        EstrategiaExtraccion<T> estrategia = switch (extraccion) {
+            case "SLOT" -> ExtraccionSlotEstandar.get();
+            case "APOYO" -> ExtraccionApoyoEstandar.get();
+            default -> throw new IllegalArgumentException("Extracción desconocida en '" + elemento.nombre() + "': " + extraccion);
+        };
+        builder.extractor(estrategia);
+
+        if (elemento.extractores() != null) {
+            elemento.extractores().forEach((fila, valor) -> {
+                Function<T, String> funcion = funcionExtractor(elemento, tipo, valor);
+                switch (fila) {
+                    case "deEspanol" -> builder.extractorDeEspanol(funcion);
+                    case "aEsloveno" -> builder.extractorAEsloveno(funcion);
+                    case "deEsloveno" -> builder.extractorDeEsloveno(funcion);
+                    case "aEspanol" -> builder.extractorAEspanol(funcion);
+                    default -> throw new IllegalArgumentException("Fila desconocida en '" + elemento.nombre() + "': " + fila);
+                }
+            });
+        }
+        return builder;
+    }
+
+    private <T extends PalabraFlexion<?>> Function<T, String> funcionExtractor(PlantillaFrase.Elemento elemento,
+                                                                               Class<T> tipo, String valor) {
+        if (valor.startsWith("=")) {
+            String texto = valor.substring(1);
+            return p -> texto;
+        }
+        ExtractorTexto extractor = enumValor(ExtractorTexto.class, valor, "extractor de " + elemento.nombre());
+        if (!extractor.getTipoRequerido().isAssignableFrom(tipo)) {
+            throw new IllegalArgumentException("El extractor " + extractor + " no se puede usar con " + tipo.getSimpleName());
+        }
+        Function<PalabraFlexion<?>, String> funcion = extractor.getFuncion();
+        return funcion::apply;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object valorRequisito(PlantillaFrase.Elemento elemento, CaracteristicaGramatical caracteristica, String valor) {
+        Class<?> tipo = TIPOS_REQUISITO.get(caracteristica);
+        String contexto = caracteristica + " de " + elemento.nombre();
+        if (tipo == Boolean.class) {
+            if (!"true".equals(valor) && !"false".equals(valor)) {
+                throw new IllegalArgumentException("Valor no booleano para " + contexto + ": " + valor);
+            }
+            return Boolean.valueOf(valor);
+        }
+        return enumValor((Class) tipo, valor, contexto);
+    }
+
+    private static <E extends Enum<E>> E enumValor(Class<E> tipo, String valor, String contexto) {
+        try {
+            return Enum.valueOf(tipo, valor);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Valor desconocido para " + contexto + ": " + valor);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.bcadaval.esloveno.structures.plantillas;
+
+import java.util.List;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.structures.ElementoFrase;
+import com.bcadaval.esloveno.structures.EstructuraFrase;
+
+import lombok.Getter;
+
+/**
+ * Estructura de frase compilada a partir de una {@link PlantillaFrase}.
+ * <p>
+ * No es un bean: la crea {@link CompiladorPlantillas} con los elementos ya construidos
+ * (criterios, generadores y extractores resueltos), así que en cada petición se usa
+ * igual que una estructura escrita en Java.
+ */
+@Getter
+public class EstructuraFraseDeclarativa extends EstructuraFrase {
+
+    private final String identificador;
+
+    private final String nombreMostrar;
+
+    EstructuraFraseDeclarativa(String identificador, String nombreMostrar,
+                               List<ElementoFrase<? extends PalabraFlexion<?>>> elementos) {
+        super(elementos);
+        this.identificador = identificador;
+        this.nombreMostrar = nombreMostrar;
+    }
+}
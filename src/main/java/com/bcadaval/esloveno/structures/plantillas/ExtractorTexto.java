@@ -0,0 +1,45 @@
+package com.bcadaval.esloveno.structures.plantillas;
+
+import java.util.function.Function;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
+import com.bcadaval.esloveno.beans.palabra.VerboFlexion;
+
+import lombok.Getter;
+
+/**
+ * Extractores de texto con nombre que las plantillas pueden usar para sustituir
+ * el texto de una fila. Los que leen datos de la palabra base indican el tipo que requieren.
+ */
+@Getter
+public enum ExtractorTexto {
+
+    SIGNIFICADO(PalabraFlexion.class, PalabraFlexion::getSignificado),
+    ACENTUADO(PalabraFlexion.class, PalabraFlexion::getAcentuado),
+    FLEXION(PalabraFlexion.class, PalabraFlexion::getFlexion),
+    VACIO(PalabraFlexion.class, p -> ""),
+
+    /** "(♂️) significado", con el emoji del género del sustantivo base */
+    SIGNIFICADO_CON_GENERO(SustantivoFlexion.class, p -> String.format("(%s) %s",
+            ((SustantivoFlexion) p).getSustantivoBase().getGenero().getEmoji(), p.getSignificado())),
+
+    /** "(♂️) acentuado", con el emoji del género del sustantivo base */
+    ACENTUADO_CON_GENERO(SustantivoFlexion.class, p -> String.format("(%s) %s",
+            ((SustantivoFlexion) p).getSustantivoBase().getGenero().getEmoji(), p.getAcentuado())),
+
+    /** "(aspecto) significado", con el emoji del aspecto del verbo base */
+    SIGNIFICADO_CON_ASPECTO(VerboFlexion.class, p -> String.format("(%s) %s",
+            ((VerboFlexion) p).getVerboBase().getAspecto().getEmoji(), p.getSignificado()));
+
+    @SuppressWarnings("rawtypes")
+    private final Class<? extends PalabraFlexion> tipoRequerido;
+
+    private final Function<PalabraFlexion<?>, String> funcion;
+
+    @SuppressWarnings("rawtypes")
+    ExtractorTexto(Class<? extends PalabraFlexion> tipoRequerido, Function<PalabraFlexion<?>, String> funcion) {
+        this.tipoRequerido = tipoRequerido;
+        this.funcion = funcion;
+    }
+}
@@ -0,0 +1,49 @@
+package com.bcadaval.esloveno.structures.plantillas;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.palabra.AdjetivoFlexion;
+import com.bcadaval.esloveno.beans.palabra.NumeralFlexion;
+import com.bcadaval.esloveno.beans.palabra.PronombreFlexion;
+import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
+import com.bcadaval.esloveno.beans.palabra.VerboFlexion;
+
+import lombok.Getter;
+
+/**
+ * Generadores de palabras de apoyo que pueden usar las plantillas de frase.
+ * Cada uno indica qué tipos de slot acepta como dependencia y qué tipo de palabra genera;
+ * {@link CompiladorPlantillas} lo comprueba al compilar y le asocia el servicio correspondiente.
+ */
+@Getter
+public enum GeneradorApoyo {
+
+    /** Pronombre sujeto que concuerda en persona y número con el verbo */
+    PRONOMBRE_SUJETO(PronombreFlexion.class, VerboFlexion.class),
+
+    /** Numeral que concuerda en número, caso y género con el sustantivo o adjetivo */
+    NUMERAL_CONCORDANTE(NumeralFlexion.class, SustantivoFlexion.class, AdjetivoFlexion.class),
+
+    /** Sustantivo activo que concuerda en caso, número y género con el adjetivo */
+    SUSTANTIVO_CONCORDANTE(SustantivoFlexion.class, AdjetivoFlexion.class);
+
+    private final Class<? extends PalabraFlexion<?>> tipoGenerado;
+
+    private final Class<?>[] dependenciasAdmitidas;
+
+    GeneradorApoyo(Class<? extends PalabraFlexion<?>> tipoGenerado, Class<?>... dependenciasAdmitidas) {
+        this.tipoGenerado = tipoGenerado;
+        this.dependenciasAdmitidas = dependenciasAdmitidas;
+    }
+
+    /**
+     * Indica si el generador puede depender de un slot del tipo dado
+     */
+    public boolean admite(Class<?> tipoSlot) {
+        for (Class<?> admitida : dependenciasAdmitidas) {
+            if (admitida.isAssignableFrom(tipoSlot)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package com.bcadaval.esloveno.structures.plantillas;
+
+import java.util.List;
+import java.util.Map;
+
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+
+/**
+ * Definición declarativa (JSON) de una estructura de frase, tal como se lee del fichero.
+ * {@link CompiladorPlantillas} la convierte en una {@link EstructuraFraseDeclarativa}.
+ * <p>
+ * Ejemplo:
+ * <pre>
+ * {
+ *   "identificador": "ADJETIVO_SUSTANTIVO_ACUSATIVO",
+ *   "nombreMostrar": "Adjetivo + Sustantivo (ACU)",
+ *   "elementos": [
+ *     { "nombre": "ADJETIVO", "tipo": "ADJETIVO", "requisitos": { "CASO": "ACUSATIVO" } },
+ *     { "nombre": "SUSTANTIVO", "generador": "SUSTANTIVO_CONCORDANTE", "depende": "ADJETIVO" }
+ *   ]
+ * }
+ * </pre>
+ *
+ * @param identificador Identificador único para BD y configuración
+ * @param nombreMostrar Nombre para la UI de configuración
+ * @param elementos Elementos en orden de visualización
+ */
+public record PlantillaFrase(String identificador, String nombreMostrar, List<Elemento> elementos) {
+
+    /**
+     * Elemento de la plantilla: slot si tiene tipo, apoyo si tiene generador
+     *
+     * @param nombre Nombre del elemento, único en la plantilla
+     * @param tipo Tipo de palabra del slot (null en apoyos)
+     * @param requisitos Características exigidas al slot, con el nombre del valor del enum o true/false
+     * @param generador Nombre del {@link GeneradorApoyo} (null en slots)
+     * @param depende Nombre del slot del que depende el apoyo
+     * @param extraccion SLOT o APOYO; por defecto la que corresponde al elemento
+     * @param extractores Sustituciones por fila (deEspanol, aEsloveno, deEsloveno, aEspanol): nombre
+     *                    de un {@link ExtractorTexto} o texto fijo precedido de '='
+     */
+    public record Elemento(String nombre, TipoPalabra tipo, Map<CaracteristicaGramatical, String> requisitos,
+                           String generador, String depende, String extraccion, Map<String, String> extractores) {
+    }
+}
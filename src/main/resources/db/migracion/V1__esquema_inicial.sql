@@ -1,3 +1,6 @@
+-- Esquema inicial. Idempotente (IF NOT EXISTS, OR IGNORE) porque también se aplica a las bases
+-- creadas antes de las migraciones, que Flyway registra en la versión 0 (ver application.yaml)
+
 -- Tabla para configuración
 CREATE TABLE IF NOT EXISTS VARIABLES
 (
@@ -7,9 +10,8 @@ CREATE TABLE IF NOT EXISTS VARIABLES
     DESCRIPCION TEXT
 );
 
---  Variables por defecto
-INSERT
-OR REPLACE INTO variables (clave, valor, tipo, descripcion) VALUES
+-- Variables por defecto. OR IGNORE: en una base que ya las tiene se conservan los valores ajustados
+INSERT OR IGNORE INTO VARIABLES (CLAVE, VALOR, TIPO, DESCRIPCION) VALUES
 ('INTERVALO_INICIAL_SEGUNDOS', '600', 'LONG', 'Segundos para primera repetición (10 min)'),
 ('INTERVALO_SEGUNDA_SEGUNDOS', '3600', 'LONG', 'Segundos para segunda repetición (1 hora)'),
 ('INTERVALO_REAPRENDIZAJE_SEGUNDOS', '30', 'LONG', 'Segundos tras fallar (30 seg)'),
@@ -48,14 +50,6 @@ CREATE TABLE IF NOT EXISTS ADJETIVO_FLEXION
     ACENTUADO                     TEXT,
     PRONUNCIACION_IPA             TEXT,
     PRONUNCIACION_SAMPA           TEXT,
-    FACTOR_FACILIDAD              REAL    DEFAULT 2.5,
-    INTERVALO_REPETICION_SEGUNDOS INTEGER DEFAULT 0,
-    VECES_CONSECUTIVAS_CORRECTAS  INTEGER DEFAULT 0,
-    TOTAL_REVISIONES              INTEGER DEFAULT 0,
-    TOTAL_ACIERTOS                INTEGER DEFAULT 0,
-    EN_REAPRENDIZAJE              INTEGER DEFAULT 0,
-    ULTIMA_REVISION               DATETIME,
-    PROXIMA_REVISION              DATETIME,
     CONSTRAINT AF_FK FOREIGN KEY (SLOLEKS_ID) REFERENCES ADJETIVO (SLOLEKS_ID) ON DELETE RESTRICT ON UPDATE RESTRICT
 );
 CREATE TABLE IF NOT EXISTS PRONOMBRE
@@ -82,14 +76,6 @@ CREATE TABLE IF NOT EXISTS PRONOMBRE_FLEXION
     SIGNIFICADO                   TEXT,
     PRONUNCIACION_IPA             TEXT,
     PRONUNCIACION_SAMPA           TEXT,
-    FACTOR_FACILIDAD              REAL    DEFAULT 2.5,
-    INTERVALO_REPETICION_SEGUNDOS INTEGER DEFAULT 0,
-    VECES_CONSECUTIVAS_CORRECTAS  INTEGER DEFAULT 0,
-    TOTAL_REVISIONES              INTEGER DEFAULT 0,
-    TOTAL_ACIERTOS                INTEGER DEFAULT 0,
-    EN_REAPRENDIZAJE              INTEGER DEFAULT 0,
-    ULTIMA_REVISION               DATETIME,
-    PROXIMA_REVISION              DATETIME,
     CONSTRAINT PF_FK FOREIGN KEY (SLOLEKS_ID) REFERENCES PRONOMBRE (SLOLEKS_ID) ON DELETE RESTRICT ON UPDATE RESTRICT
 );
 CREATE TABLE IF NOT EXISTS NUMERAL
@@ -112,14 +98,6 @@ CREATE TABLE IF NOT EXISTS NUMERAL_FLEXION
     ACENTUADO                     TEXT,
     PRONUNCIACION_IPA             TEXT,
     PRONUNCIACION_SAMPA           TEXT,
-    FACTOR_FACILIDAD              REAL    DEFAULT 2.5,
-    INTERVALO_REPETICION_SEGUNDOS INTEGER DEFAULT 0,
-    VECES_CONSECUTIVAS_CORRECTAS  INTEGER DEFAULT 0,
-    TOTAL_REVISIONES              INTEGER DEFAULT 0,
-    TOTAL_ACIERTOS                INTEGER DEFAULT 0,
-    EN_REAPRENDIZAJE              INTEGER DEFAULT 0,
-    ULTIMA_REVISION               DATETIME,
-    PROXIMA_REVISION              DATETIME,
     CONSTRAINT NF_FK FOREIGN KEY (SLOLEKS_ID) REFERENCES NUMERAL (SLOLEKS_ID) ON DELETE RESTRICT ON UPDATE RESTRICT
 );
 CREATE TABLE IF NOT EXISTS SUSTANTIVO
@@ -143,14 +121,6 @@ CREATE TABLE IF NOT EXISTS SUSTANTIVO_FLEXION
     ACENTUADO                     TEXT,
     PRONUNCIACION_IPA             TEXT,
     PRONUNCIACION_SAMPA           TEXT,
-    FACTOR_FACILIDAD              REAL    DEFAULT 2.5,
-    INTERVALO_REPETICION_SEGUNDOS INTEGER DEFAULT 0,
-    VECES_CONSECUTIVAS_CORRECTAS  INTEGER DEFAULT 0,
-    TOTAL_REVISIONES              INTEGER DEFAULT 0,
-    TOTAL_ACIERTOS                INTEGER DEFAULT 0,
-    EN_REAPRENDIZAJE              INTEGER DEFAULT 0,
-    ULTIMA_REVISION               DATETIME,
-    PROXIMA_REVISION              DATETIME,
     CONSTRAINT SF_FK FOREIGN KEY (SLOLEKS_ID) REFERENCES SUSTANTIVO (SLOLEKS_ID) ON DELETE RESTRICT ON UPDATE RESTRICT
 );
 
@@ -179,13 +149,58 @@ CREATE TABLE IF NOT EXISTS VERBO_FLEXION
     ACENTUADO                     TEXT,
     PRONUNCIACION_IPA             TEXT,
     PRONUNCIACION_SAMPA           TEXT,
-    FACTOR_FACILIDAD              REAL    DEFAULT 2.5,
-    INTERVALO_REPETICION_SEGUNDOS INTEGER DEFAULT 0,
-    VECES_CONSECUTIVAS_CORRECTAS  INTEGER DEFAULT 0,
-    TOTAL_REVISIONES              INTEGER DEFAULT 0,
-    TOTAL_ACIERTOS                INTEGER DEFAULT 0,
-    EN_REAPRENDIZAJE              INTEGER DEFAULT 0,
-    ULTIMA_REVISION               DATETIME,
-    PROXIMA_REVISION              DATETIME,
     CONSTRAINT VF_FK FOREIGN KEY (SLOLEKS_ID) REFERENCES VERBO (SLOLEKS_ID) ON DELETE RESTRICT ON UPDATE RESTRICT
 );
+
+-- Tarjetas SRS de todos los tipos de palabra: una fila por flexión activa (completada) con su
+-- estado de programación. Las flexiones sin fila no se estudian.
+CREATE TABLE IF NOT EXISTS TARJETA_SRS
+(
+    TIPO                          TEXT     NOT NULL,
+    FLEXION_ID                    INTEGER  NOT NULL,
+    FACTOR_FACILIDAD              REAL     NOT NULL,
+    INTERVALO_REPETICION_SEGUNDOS INTEGER  NOT NULL DEFAULT 0,
+    VECES_CONSECUTIVAS_CORRECTAS  INTEGER  NOT NULL DEFAULT 0,
+    TOTAL_REVISIONES              INTEGER  NOT NULL DEFAULT 0,
+    TOTAL_ACIERTOS                INTEGER  NOT NULL DEFAULT 0,
+    EN_REAPRENDIZAJE              INTEGER  NOT NULL DEFAULT 0,
+    ULTIMA_REVISION               DATETIME,
+    PROXIMA_REVISION              DATETIME NOT NULL,
+    PRIMARY KEY (TIPO, FLEXION_ID)
+) WITHOUT ROWID;
+CREATE INDEX IF NOT EXISTS TS_PROXIMA_REVISION ON TARJETA_SRS (PROXIMA_REVISION);
+
+-- Registro de revisiones (solo inserción). Cada fila guarda la respuesta y el estado SRS
+-- resultante; un proceso en segundo plano lo aplica a TARJETA_SRS (APLICADO = 1)
+CREATE TABLE IF NOT EXISTS REGISTRO_REVISION
+(
+    ID                            INTEGER PRIMARY KEY,
+    TIPO                          TEXT     NOT NULL,
+    FLEXION_ID                    INTEGER  NOT NULL,
+    INSTANTE                      DATETIME NOT NULL,
+    RECORDO                       INTEGER  NOT NULL,
+    FACTOR_FACILIDAD              REAL     NOT NULL,
+    INTERVALO_REPETICION_SEGUNDOS INTEGER  NOT NULL,
+    VECES_CONSECUTIVAS_CORRECTAS  INTEGER  NOT NULL,
+    TOTAL_REVISIONES              INTEGER  NOT NULL,
+    TOTAL_ACIERTOS                INTEGER  NOT NULL,
+    EN_REAPRENDIZAJE              INTEGER  NOT NULL,
+    PROXIMA_REVISION              DATETIME NOT NULL,
+    APLICADO                      INTEGER DEFAULT 0
+);
+CREATE INDEX IF NOT EXISTS RR_PENDIENTES ON REGISTRO_REVISION (APLICADO, ID);
+
+-- Historial agregado de revisiones por tramos de tiempo ('H' hora, 'D' día, en UTC).
+-- CLASE_INTERVALO = log2 de los segundos transcurridos desde la revisión anterior (-1 si es la primera)
+CREATE TABLE IF NOT EXISTS HISTORIAL_REVISION
+(
+    GRANULARIDAD    TEXT     NOT NULL,
+    INICIO          DATETIME NOT NULL,
+    TIPO            TEXT     NOT NULL,
+    CASO            TEXT     NOT NULL DEFAULT '',
+    FORMA_VERBAL    TEXT     NOT NULL DEFAULT '',
+    CLASE_INTERVALO INTEGER  NOT NULL,
+    REVISIONES      INTEGER  NOT NULL DEFAULT 0,
+    ACIERTOS        INTEGER  NOT NULL DEFAULT 0,
+    PRIMARY KEY (GRANULARIDAD, INICIO, TIPO, CASO, FORMA_VERBAL, CLASE_INTERVALO)
+) WITHOUT ROWID;
@@ -0,0 +1,9 @@
+-- Índices parciales de las palabras sin completar: solo contienen esas filas, así que listarlas por
+-- páginas y contarlas no recorre el resto del diccionario (el WHERE es el de las consultas de *Repo).
+-- Fuera de transacción (ver .sql.conf): cada índice queda confirmado en cuanto se crea y, en WAL,
+-- las lecturas siguen funcionando mientras se construye.
+CREATE INDEX IF NOT EXISTS A_INCOMPLETOS ON ADJETIVO (SLOLEKS_ID) WHERE SIGNIFICADO IS NULL;
+CREATE INDEX IF NOT EXISTS PF_INCOMPLETAS ON PRONOMBRE_FLEXION (ID) WHERE SIGNIFICADO IS NULL;
+CREATE INDEX IF NOT EXISTS N_INCOMPLETOS ON NUMERAL (SLOLEKS_ID) WHERE SIGNIFICADO IS NULL;
+CREATE INDEX IF NOT EXISTS S_INCOMPLETOS ON SUSTANTIVO (SLOLEKS_ID) WHERE SIGNIFICADO IS NULL OR ANIMADO IS NULL;
+CREATE INDEX IF NOT EXISTS V_INCOMPLETOS ON VERBO (SLOLEKS_ID) WHERE SIGNIFICADO IS NULL OR TRANSITIVIDAD IS NULL;
@@ -0,0 +1,3 @@
+-- El volcador ya borra del registro las revisiones que aplica a TARJETA_SRS (el historial está en
+-- HISTORIAL_REVISION). Aquí se borran las que versiones anteriores solo marcaban con APLICADO = 1.
+DELETE FROM REGISTRO_REVISION WHERE APLICADO = 1;
@@ -207,9 +207,16 @@
     </div>
 
     <script>
+        // Palabras por página de /api/palabrasIncompletas
+        const TAMANIO_PAGINA = 100;
+
         let palabrasCompletas = [];
-        let palabrasFiltradas = [];
         let palabraSeleccionada = null;
+        // Cursor de la página siguiente (null si no hay más) y filtro con el que se ha pedido
+        let siguiente = null;
+        let filtroActual = '';
+        let cargando = false;
+        let temporizadorBusqueda = null;
 
         // Constantes del enum TipoPalabra desde Java
         const ENUM_SUSTANTIVO = '<%= TipoPalabra.SUSTANTIVO.name() %>';
@@ -247,17 +254,21 @@
             cargarPalabras();
         });
 
-        // Buscador en tiempo real
+        // Buscador: el filtro se aplica en el servidor, tras una pausa al escribir
         document.getElementById('searchInput').addEventListener('input', function(e) {
-            const query = e.target.value.toLowerCase().trim();
-            if (query === '') {
-                palabrasFiltradas = palabrasCompletas;
-            } else {
-                palabrasFiltradas = palabrasCompletas.filter(p =>
-                    p.palabra.toLowerCase().includes(query)
-                );
+            clearTimeout(temporizadorBusqueda);
+            temporizadorBusqueda = setTimeout(() => {
+                filtroActual = e.target.value.trim();
+                cargarPalabras();
+            }, 300);
+        });
+
+        // Siguiente página al llegar al final de la lista
+        document.getElementById('palabrasList').addEventListener('scroll', function(e) {
+            const lista = e.target;
+            if (siguiente && !cargando && lista.scrollTop + lista.clientHeight >= lista.scrollHeight - 50) {
+                cargarPagina();
             }
-            renderizarLista();
         });
 
         // Submit del formulario
@@ -266,26 +277,50 @@
             guardarPalabra();
         });
 
+        /**
+         * Vuelve a cargar la lista desde la primera página y actualiza el contador
+         */
         function cargarPalabras() {
-            fetch('/api/palabrasIncompletas')
+            palabrasCompletas = [];
+            siguiente = null;
+            cargarPagina();
+            actualizarContador();
+        }
+
+        function cargarPagina() {
+            const params = new URLSearchParams({ limite: TAMANIO_PAGINA });
+            if (siguiente) params.set('desde', siguiente);
+            if (filtroActual) params.set('filtro', filtroActual);
+            const filtroPedido = filtroActual;
+
+            cargando = true;
+            fetch('/api/palabrasIncompletas?' + params)
                 .then(response => response.json())
                 .then(data => {
-                    palabrasCompletas = data;
-                    palabrasFiltradas = data;
+                    // Descartar la respuesta si el filtro ha cambiado mientras tanto
+                    if (filtroPedido !== filtroActual) return;
+                    palabrasCompletas = palabrasCompletas.concat(data.palabras);
+                    siguiente = data.siguiente;
                     renderizarLista();
-                    actualizarContador();
                 })
                 .catch(error => {
                     console.error('Error:', error);
                     mostrarMensaje('Error al cargar las palabras', 'error');
+                })
+                .finally(() => {
+                    cargando = false;
                 });
         }
 
         function renderizarLista() {
             const lista = document.getElementById('palabrasList');
 
-            if (palabrasFiltradas.length === 0) {
-                lista.innerHTML = `
+            if (palabrasCompletas.length === 0) {
+                lista.innerHTML = filtroActual ? `
+                    <div class="empty-state">
+                        <p>Ninguna palabra incompleta contiene "\${filtroActual}"</p>
+                    </div>
+                ` : `
                     <div class="empty-state">
                         <h3>¡Excelente!</h3>
                         <p>No hay palabras incompletas</p>
@@ -294,7 +329,7 @@
                 return;
             }
 
-            lista.innerHTML = palabrasFiltradas.map(palabra => {
+            lista.innerHTML = palabrasCompletas.map(palabra => {
                 const tipoInfo = TIPO_PALABRA[palabra.tipo];
                 const nombreTipo = tipoInfo ? tipoInfo.nombre : palabra.tipo;
                 return `
@@ -307,8 +342,13 @@
         }
 
         function actualizarContador() {
-            const contador = document.getElementById('palabraCount');
-            contador.textContent = `\${palabrasCompletas.length} palabra(s) incompleta(s)`;
+            fetch('/api/palabrasIncompletas/total')
+                .then(response => response.json())
+                .then(data => {
+                    const contador = document.getElementById('palabraCount');
+                    contador.textContent = `\${data.total} palabra(s) incompleta(s)`;
+                })
+                .catch(error => console.error('Error:', error));
         }
 
         function seleccionarPalabra(id) {
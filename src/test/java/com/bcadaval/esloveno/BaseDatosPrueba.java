@@ -0,0 +1,103 @@
+package com.bcadaval.esloveno;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import com.bcadaval.esloveno.beans.enums.TipoPalabra;
+import com.bcadaval.esloveno.rest.dto.ActualizarPalabraRequest;
+
+/**
+ * Base SQLite temporal para las pruebas que arrancan la aplicación con el perfil prueba: un fichero
+ * nuevo por contexto (Flyway crea el esquema al arrancar), un XML vacío para que la aplicación se dé
+ * por inicializada y datos mínimos que se insertan como los deja la importación, sin significado.
+ * <p>
+ * La caché de segundo nivel es de la JVM, no del contexto: cada prueba que use esta base lleva
+ * {@code @DirtiesContext} para que la siguiente no vea entidades de otra base.
+ */
+public final class BaseDatosPrueba {
+
+
+    private static final String[] GENEROS = {"M", "F", "N"};
+
+    private BaseDatosPrueba() {
+    }
+
+    /**
+     * Apunta la aplicación a una base y unos directorios temporales; el resto de la configuración
+     * de las pruebas está en el perfil prueba
+     */
+    public static void registrar(DynamicPropertyRegistry registro) {
+        try {
+            Path directorio = Files.createTempDirectory("esloveno-prueba");
+            Path bd = Files.createFile(directorio.resolve("esloveno.db"));
+            Path xml = Files.createDirectory(directorio.resolve("xml"));
+            Files.createFile(xml.resolve("sloleks_prueba.xml"));
+            Path plantillas = Files.createDirectory(directorio.resolve("plantillas"));
+
+            registro.add("spring.datasource.url", () -> "jdbc:sqlite:" + bd);
+            registro.add("app.db.path", bd::toString);
+            registro.add("app.xml.path", xml::toString);
+            registro.add("app.plantillas.path", plantillas::toString);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Numerales en, dva y trije en los tres géneros, tres números y los casos 1 y 4
+     *
+     * @return Petición que los completa
+     */
+    public static List<ActualizarPalabraRequest> sembrarNumerales(JdbcTemplate jdbc) {
+        String[][] numerales = {{"N1", "en", "uno"}, {"N2", "dva", "dos"}, {"N3", "trije", "tres"}};
+        List<ActualizarPalabraRequest> peticion = new ArrayList<>();
+        for (int n = 0; n < numerales.length; n++) {
+            String id = numerales[n][0];
+            String principal = numerales[n][1];
+            jdbc.update("INSERT INTO NUMERAL (SLOLEKS_ID, PRINCIPAL, SLOLEKS_KEY) VALUES (?, ?, ?)", id, principal, id);
+            for (String genero : GENEROS) {
+                for (String caso : new String[]{"1", "4"}) {
+                    String forma = principal + genero + caso;
+                    jdbc.update("INSERT INTO NUMERAL_FLEXION (SLOLEKS_ID, PRINCIPAL, GENERO, NUMERO, CASO, FLEXION, ACENTUADO)"
+                            + " VALUES (?, ?, ?, ?, ?, ?, ?)", id, principal, genero, String.valueOf(n + 1), caso, forma, forma);
+                }
+            }
+            peticion.add(ActualizarPalabraRequest.builder()
+                    .id(id).tipo(TipoPalabra.NUMERAL.name()).significado(numerales[n][2]).build());
+        }
+        return peticion;
+    }
+
+    /**
+     * Sustantivos S{desde}..S{desde+cuantos-1}, con género alterno y sus flexiones en los tres números
+     * y los casos 1 y 4
+     *
+     * @return Petición que los completa
+     */
+    public static List<ActualizarPalabraRequest> sembrarSustantivos(JdbcTemplate jdbc, int desde, int cuantos) {
+        List<ActualizarPalabraRequest> peticion = new ArrayList<>(cuantos);
+        for (int i = desde; i < desde + cuantos; i++) {
+            String id = "S" + i;
+            String principal = "beseda" + i;
+            jdbc.update("INSERT INTO SUSTANTIVO (SLOLEKS_ID, PRINCIPAL, GENERO, SLOLEKS_KEY) VALUES (?, ?, ?, ?)",
+                    id, principal, GENEROS[i % GENEROS.length], id);
+            for (String numero : new String[]{"1", "2", "3"}) {
+                for (String caso : new String[]{"1", "4"}) {
+                    String forma = principal + numero + caso;
+                    jdbc.update("INSERT INTO SUSTANTIVO_FLEXION (SLOLEKS_ID, PRINCIPAL, NUMERO, CASO, FLEXION, ACENTUADO)"
+                            + " VALUES (?, ?, ?, ?, ?, ?)", id, principal, numero, caso, forma, forma);
+                }
+            }
+            peticion.add(ActualizarPalabraRequest.builder()
+                    .id(id).tipo(TipoPalabra.SUSTANTIVO.name()).significado("palabra " + i).animado(false).build());
+        }
+        return peticion;
+    }
+}
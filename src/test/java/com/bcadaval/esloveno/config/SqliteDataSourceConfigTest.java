@@ -0,0 +1,147 @@
+package com.bcadaval.esloveno.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.bcadaval.esloveno.BaseDatosPrueba;
+import com.bcadaval.esloveno.run.Application;
+
+/**
+ * Reparto de las conexiones entre el pool de lectura y el escritor único: las transacciones
+ * readOnly no pueden escribir, las de escritura se serializan y las lecturas no esperan a una
+ * escritura en curso (WAL).
+ */
+@SpringBootTest(classes = Application.class)
+@ActiveProfiles("prueba")
+@DirtiesContext
+class SqliteDataSourceConfigTest {
+
+    private static final int HILOS = 8;
+    private static final int INCREMENTOS_POR_HILO = 50;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate escritura;
+    private TransactionTemplate lectura;
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        BaseDatosPrueba.registrar(registro);
+    }
+
+    @BeforeEach
+    void preparar() {
+        escritura = new TransactionTemplate(transactionManager);
+        lectura = new TransactionTemplate(transactionManager);
+        lectura.setReadOnly(true);
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS PRUEBA_CONTADOR (ID INTEGER PRIMARY KEY, VALOR INTEGER NOT NULL)");
+        jdbcTemplate.update("INSERT OR REPLACE INTO PRUEBA_CONTADOR (ID, VALOR) VALUES (1, 0)");
+    }
+
+    @Test
+    void lasTransaccionesDeLecturaNoPuedenEscribir() {
+        assertThat(soloLectura(lectura)).isTrue();
+        assertThat(soloLectura(escritura)).isFalse();
+
+        assertThatThrownBy(() -> lectura.executeWithoutResult(estado ->
+                jdbcTemplate.update("UPDATE PRUEBA_CONTADOR SET VALOR = 99 WHERE ID = 1")))
+                .isInstanceOf(DataAccessException.class);
+        assertThat(valor()).isZero();
+    }
+
+    @Test
+    void elEscritorUnicoSerializaLasEscrituras() throws Exception {
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < HILOS; h++) {
+                tareas.add(hilos.submit(() -> {
+                    for (int i = 0; i < INCREMENTOS_POR_HILO; i++) {
+                        // Leer y escribir en pasos separados: sin serializar se perderían incrementos
+                        escritura.executeWithoutResult(estado -> {
+                            int actual = jdbcTemplate.queryForObject("SELECT VALOR FROM PRUEBA_CONTADOR WHERE ID = 1", Integer.class);
+                            jdbcTemplate.update("UPDATE PRUEBA_CONTADOR SET VALOR = ? WHERE ID = 1", actual + 1);
+                        });
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+
+        assertThat(valor()).isEqualTo(HILOS * INCREMENTOS_POR_HILO);
+    }
+
+    @Test
+    void lasLecturasNoEsperanAUnaEscrituraEnCurso() throws Exception {
+        CountDownLatch escrito = new CountDownLatch(1);
+        CountDownLatch leido = new CountDownLatch(1);
+        ExecutorService hilo = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> escritor = hilo.submit(() -> escritura.executeWithoutResult(estado -> {
+                jdbcTemplate.update("UPDATE PRUEBA_CONTADOR SET VALOR = 7 WHERE ID = 1");
+                escrito.countDown();
+                try {
+                    // La transacción sigue abierta hasta que se haya leído
+                    assertThat(leido.await(30, TimeUnit.SECONDS)).isTrue();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+
+            assertThat(escrito.await(30, TimeUnit.SECONDS)).isTrue();
+            long inicio = System.nanoTime();
+            Integer visto = lectura.execute(estado ->
+                    jdbcTemplate.queryForObject("SELECT VALOR FROM PRUEBA_CONTADOR WHERE ID = 1", Integer.class));
+            long milis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+            leido.countDown();
+            escritor.get(30, TimeUnit.SECONDS);
+
+            // Ni espera al bloqueo de escritura (busy_timeout) ni ve lo que aún no está confirmado
+            assertThat(visto).isZero();
+            assertThat(milis).isLessThan(1000);
+            assertThat(valor()).isEqualTo(7);
+        } finally {
+            hilo.shutdownNow();
+        }
+    }
+
+    private boolean soloLectura(TransactionTemplate transaccion) {
+        Integer queryOnly = transaccion.execute(estado -> jdbcTemplate.queryForObject("PRAGMA query_only", Integer.class));
+        return queryOnly != null && queryOnly == 1;
+    }
+
+    private int valor() {
+        return lectura.execute(estado ->
+                jdbcTemplate.queryForObject("SELECT VALOR FROM PRUEBA_CONTADOR WHERE ID = 1", Integer.class));
+    }
+}
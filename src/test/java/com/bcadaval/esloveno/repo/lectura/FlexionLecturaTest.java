@@ -0,0 +1,65 @@
+package com.bcadaval.esloveno.repo.lectura;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.bcadaval.esloveno.beans.enums.Aspecto;
+import com.bcadaval.esloveno.beans.enums.Caso;
+import com.bcadaval.esloveno.beans.enums.Definitud;
+import com.bcadaval.esloveno.beans.enums.FormaVerbal;
+import com.bcadaval.esloveno.beans.enums.Genero;
+import com.bcadaval.esloveno.beans.enums.Grado;
+import com.bcadaval.esloveno.beans.enums.Numero;
+import com.bcadaval.esloveno.beans.enums.Persona;
+import com.bcadaval.esloveno.beans.enums.Transitividad;
+import com.bcadaval.esloveno.structures.ClaveGramatical;
+
+/**
+ * La clave que calcula cada proyección coincide con la de la flexión que construye, con y sin
+ * valores nulos: si no, el filtrado de {@code ConsultaPalabrasService} no sería el de las estructuras.
+ */
+class FlexionLecturaTest {
+
+    @Test
+    void claveDeSustantivo() {
+        for (Numero numero : Numero.values()) {
+            for (Caso caso : Caso.values()) {
+                for (Genero genero : Genero.values()) {
+                    comprobar(new SustantivoFlexionLectura(1, "S1", "pes", numero, caso, "f", "a", genero, "perro"));
+                }
+            }
+        }
+        comprobar(new SustantivoFlexionLectura(1, "S1", "pes", null, null, "f", "a", null, null));
+    }
+
+    @Test
+    void claveDeVerbo() {
+        for (FormaVerbal forma : FormaVerbal.values()) {
+            for (Persona persona : Persona.values()) {
+                for (Transitividad transitividad : Transitividad.values()) {
+                    comprobar(new VerboFlexionLectura(1, "V1", "gledati", forma, persona, Numero.DUAL, Genero.FEMENINO,
+                            Boolean.TRUE, "f", "a", transitividad, Aspecto.values()[0], "mirar"));
+                }
+            }
+        }
+        comprobar(new VerboFlexionLectura(1, "V1", "gledati", null, null, null, null, null, "f", "a", null, null, null));
+    }
+
+    @Test
+    void claveDeAdjetivo() {
+        for (Grado grado : Grado.values()) {
+            for (Definitud definitud : Definitud.values()) {
+                for (Caso caso : Caso.values()) {
+                    comprobar(new AdjetivoFlexionLectura(1, "A1", "velik", Genero.NEUTRO, Numero.PLURAL, caso, grado,
+                            definitud, "f", "a", "grande"));
+                }
+            }
+        }
+        comprobar(new AdjetivoFlexionLectura(1, "A1", "velik", null, null, null, null, null, "f", "a", null));
+    }
+
+    private static void comprobar(FlexionLectura lectura) {
+        assertThat(lectura.clave()).as("%s", lectura).isEqualTo(ClaveGramatical.de(lectura.aFlexion()));
+    }
+}
@@ -0,0 +1,106 @@
+package com.bcadaval.esloveno.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.bcadaval.esloveno.BaseDatosPrueba;
+import com.bcadaval.esloveno.rest.dto.ActualizarPalabraRequest;
+import com.bcadaval.esloveno.run.Application;
+import com.bcadaval.esloveno.services.CompletarPalabrasService;
+import com.bcadaval.esloveno.services.EstructuraFraseService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * El número de sentencias de /getWords no depende de cuántas tarjetas haya: las flexiones se
+ * cargan con sus palabras base en la misma consulta y los apoyos salen de la caché.
+ * Cuenta las sentencias preparadas con las estadísticas de Hibernate (perfil metricas).
+ */
+@SpringBootTest(classes = Application.class)
+@AutoConfigureMockMvc
+@ActiveProfiles({"prueba", "metricas"})
+@DirtiesContext
+class WordsControllerConsultasTest {
+
+    private static final String ESTRUCTURA = "SOLO_SUSTANTIVO_NOMINATIVO";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CompletarPalabrasService completarPalabrasService;
+
+    @Autowired
+    private EstructuraFraseService estructuraFraseService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        BaseDatosPrueba.registrar(registro);
+    }
+
+    @Test
+    void sentenciasPorPaginaNoDependenDelNumeroDeTarjetas() throws Exception {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertThat(estadisticas.isStatisticsEnabled()).isTrue();
+
+        List<ActualizarPalabraRequest> peticion = new ArrayList<>(BaseDatosPrueba.sembrarNumerales(jdbcTemplate));
+        peticion.addAll(BaseDatosPrueba.sembrarSustantivos(jdbcTemplate, 0, 3));
+        completarPalabrasService.completar(peticion);
+        estructuraFraseService.getTodasParaConfiguracion().stream()
+                .filter(e -> !e.identificador().equals(ESTRUCTURA))
+                .forEach(e -> estructuraFraseService.setActiva(e.identificador(), false));
+
+        long pocas = sentenciasPorPagina(estadisticas);
+
+        completarPalabrasService.completar(BaseDatosPrueba.sembrarSustantivos(jdbcTemplate, 3, 60));
+        long muchas = sentenciasPorPagina(estadisticas);
+
+        assertThat(pocas).isPositive();
+        assertThat(muchas).isEqualTo(pocas);
+    }
+
+    /**
+     * Sentencias preparadas para planificar y servir la primera página de una sesión nueva,
+     * después de una página de calentamiento que llena las cachés
+     */
+    private long sentenciasPorPagina(Statistics estadisticas) throws Exception {
+        pagina();
+        estadisticas.clear();
+        MvcResult resultado = pagina();
+        long sentencias = estadisticas.getPrepareStatementCount();
+
+        assertThat((List<?>) resultado.getModelAndView().getModel().get("datos")).isNotEmpty();
+        return sentencias;
+    }
+
+    private MvcResult pagina() throws Exception {
+        return mockMvc.perform(get("/getWords").session(new MockHttpSession()))
+                .andExpect(status().isOk())
+                .andReturn();
+    }
+}
@@ -0,0 +1,111 @@
+package com.bcadaval.esloveno.structures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.bcadaval.esloveno.beans.base.PalabraFlexion;
+import com.bcadaval.esloveno.beans.enums.CaracteristicaGramatical;
+import com.bcadaval.esloveno.beans.enums.Caso;
+import com.bcadaval.esloveno.beans.enums.Genero;
+import com.bcadaval.esloveno.beans.enums.Numero;
+import com.bcadaval.esloveno.beans.palabra.Numeral;
+import com.bcadaval.esloveno.beans.palabra.NumeralFlexion;
+import com.bcadaval.esloveno.beans.palabra.Sustantivo;
+import com.bcadaval.esloveno.beans.palabra.SustantivoFlexion;
+import com.bcadaval.esloveno.structures.extractores.ExtraccionApoyoEstandar;
+import com.bcadaval.esloveno.structures.extractores.ExtraccionSlotEstandar;
+
+/**
+ * Los apoyos de una frase se generan una sola vez y cada construcción de los datos de
+ * visualización reutiliza la misma lista, sin tocar los slots.
+ */
+class FraseEnConstruccionTest {
+
+    private static final NumeralFlexion NUMERAL = NumeralFlexion.builder()
+            .id(1).flexion("en").acentuado("èn")
+            .genero(Genero.MASCULINO).numero(Numero.SINGULAR).caso(Caso.NOMINATIVO)
+            .numeralBase(Numeral.builder().significado("uno").build())
+            .build();
+
+    private static final SustantivoFlexion SUSTANTIVO = SustantivoFlexion.builder()
+            .id(2).flexion("pes").acentuado("pès")
+            .numero(Numero.SINGULAR).caso(Caso.NOMINATIVO)
+            .sustantivoBase(Sustantivo.builder().genero(Genero.MASCULINO).significado("perro").build())
+            .build();
+
+    private final AtomicInteger generados = new AtomicInteger();
+
+    @Test
+    void losApoyosSeGeneranUnaVezYLosDatosSeReutilizan() {
+        FraseEnConstruccion frase = frase(palabra -> {
+            generados.incrementAndGet();
+            return NUMERAL;
+        });
+
+        List<DatoVisualizacion> primera = frase.construirDatosVisualizacion();
+        for (int i = 0; i < 20; i++) {
+            assertThat(frase.construirDatosVisualizacion()).isSameAs(primera);
+        }
+
+        assertThat(generados).hasValue(1);
+        assertThat(primera).hasSize(2);
+        assertThat(primera.get(0).getId()).isNull();
+        assertThat(primera.get(1).getId()).isEqualTo(2);
+        assertThat(primera.get(1).getTipo()).isEqualTo(FraseTipoPalabra.SUSTANTIVO_FLEXION);
+        // Según el modo: "perro" / "pès" o "pes" / "perro"
+        assertThat(List.of(primera.get(1).getTextoFila1(), primera.get(1).getTextoFila2()))
+                .isIn(List.of("perro", "pès"), List.of("pes", "perro"));
+        assertThat(frase.getAsignada(frase.getEstructura().getSlots().getFirst())).isSameAs(SUSTANTIVO);
+    }
+
+    @Test
+    void siFallaUnApoyoLaSiguienteConstruccionVuelveAEmpezar() {
+        FraseEnConstruccion frase = frase(palabra -> {
+            if (generados.incrementAndGet() == 1) {
+                throw new NoSuchElementException("Sin numeral");
+            }
+            return NUMERAL;
+        });
+
+        assertThatThrownBy(frase::construirDatosVisualizacion).isInstanceOf(NoSuchElementException.class);
+        assertThat(frase.construirDatosVisualizacion()).hasSize(2);
+        assertThat(generados).hasValue(2);
+    }
+
+    private static FraseEnConstruccion frase(Function<PalabraFlexion<?>, NumeralFlexion> generador) {
+        ElementoFrase<SustantivoFlexion> slot = ElementoFrase.<SustantivoFlexion>builder()
+                .nombre("SUSTANTIVO")
+                .criterio(CriterioBusqueda.de(SustantivoFlexion.class)
+                        .con(CaracteristicaGramatical.CASO, Caso.NOMINATIVO)
+                        .build())
+                .extractor(ExtraccionSlotEstandar.get())
+                .build();
+        ElementoFrase<NumeralFlexion> apoyo = ElementoFrase.<NumeralFlexion>builder()
+                .nombre("NUMERO")
+                .generador(slot, generador)
+                .extractor(ExtraccionApoyoEstandar.get())
+                .build();
+        EstructuraFrase estructura = new EstructuraFrase(List.of(apoyo, slot)) {
+            @Override
+            public String getIdentificador() {
+                return "PRUEBA";
+            }
+
+            @Override
+            public String getNombreMostrar() {
+                return "Prueba";
+            }
+        };
+
+        FraseEnConstruccion frase = estructura.nuevaFrase();
+        assertThat(frase.intentarAsignar(SUSTANTIVO)).isTrue();
+        return frase;
+    }
+}